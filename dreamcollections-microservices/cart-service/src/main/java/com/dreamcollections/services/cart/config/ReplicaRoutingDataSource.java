@@ -0,0 +1,214 @@
+package com.dreamcollections.services.cart.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to a pool of read replicas and everything else to the primary.
+ * <p>
+ * Replicas are picked round-robin among those that passed their last health check: the check runs the lag query
+ * on each replica every {@code checkInterval}, and a replica that fails it or lags by more than {@code maxLag} is
+ * skipped until a later check passes. With no usable replica, read-only work falls back to the primary.
+ * <p>
+ * The lookup key is decided when the physical connection is opened, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers grab a connection
+ * before the transaction's read-only flag is published, and the proxy defers that until the first statement.
+ * <p>
+ * The services share no code module, so this and {@code ReadReplicaDataSourceConfig} are copies of the
+ * product-catalog-service classes, where the routing is tested. Change them there first and keep the copies in step.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Seconds the replica is behind the primary; 0 once it has replayed everything it received (PostgreSQL)
+    static final String POSTGRES_LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+    private static final Duration STATISTICS_LOG_INTERVAL = Duration.ofMinutes(1);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final String lagQuery;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+    private ScheduledExecutorService checker;
+    private long lastStatisticsLogNanos = System.nanoTime();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    Duration checkInterval, String lagQuery) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.lagQuery = lagQuery != null && !lagQuery.isBlank() ? lagQuery : POSTGRES_LAG_QUERY;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        // Check once up front so read traffic can use the replicas from the first request
+        checkReplicas();
+        if (checkInterval != null && !checkInterval.isZero() && !replicas.isEmpty()) {
+            checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = checkInterval.toMillis();
+            checker.scheduleWithFixedDelay(this::checkReplicas, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        int count = replicas.size();
+        int start = count > 0 ? Math.floorMod(nextReplica.getAndIncrement(), count) : 0;
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.usable) {
+                replica.routes.increment();
+                return replica.name;
+            }
+        }
+        primaryFallbacks.increment();
+        return PRIMARY;
+    }
+
+    /** Runs the lag query on every replica and marks each usable or not. Called on a timer; safe to call directly. */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasUsable = replica.usable;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+                try (ResultSet result = statement.executeQuery(lagQuery)) {
+                    double lagSeconds = result.next() ? result.getDouble(1) : 0;
+                    replica.lagMillis = (long) (lagSeconds * 1000);
+                }
+                replica.healthy = true;
+                replica.usable = replica.lagMillis <= maxLag.toMillis();
+                if (wasUsable && !replica.usable) {
+                    log.warn("Replica {} lags by {} ms (limit {} ms); reads fall back to other replicas or the primary.",
+                            replica.name, replica.lagMillis, maxLag.toMillis());
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.healthy = false;
+                replica.usable = false;
+                if (wasUsable) {
+                    log.warn("Replica {} failed its health check; reads fall back to other replicas or the primary: {}",
+                            replica.name, e.getMessage());
+                }
+            }
+            if (!wasUsable && replica.usable) {
+                log.info("Replica {} is serving reads (lag {} ms).", replica.name, replica.lagMillis);
+            }
+        }
+        logStatisticsPeriodically();
+    }
+
+    /**
+     * Connections handed out per route since startup: {@code primary} for read-write work,
+     * {@code primary-fallback} for read-only work no replica could take, and one entry per replica.
+     */
+    public Map<String, Long> getRouteCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put(PRIMARY, primaryRoutes.sum());
+        counts.put(PRIMARY + "-fallback", primaryFallbacks.sum());
+        for (Replica replica : replicas) {
+            counts.put(replica.name, replica.routes.sum());
+        }
+        return counts;
+    }
+
+    // Replica name -> last measured lag in milliseconds, or null if its last health check failed
+    public Map<String, Long> getReplicaLagMillis() {
+        Map<String, Long> lags = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            lags.put(replica.name, replica.healthy ? replica.lagMillis : null);
+        }
+        return lags;
+    }
+
+    @Override
+    public void destroy() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        closeQuietly(primary);
+        for (Replica replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+    }
+
+    private void logStatisticsPeriodically() {
+        long now = System.nanoTime();
+        if (now - lastStatisticsLogNanos >= STATISTICS_LOG_INTERVAL.toNanos()) {
+            lastStatisticsLogNanos = now;
+            log.info("Datasource routes: {}; replica lag (ms): {}", getRouteCounts(), getReplicaLagMillis());
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.debug("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final LongAdder routes = new LongAdder();
+        // Written by the health check thread, read by request threads
+        private volatile boolean healthy;
+        private volatile boolean usable;
+        private volatile long lagMillis;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -15,6 +15,7 @@ public class ProductVariantDetailDto {
     private Long id;
     private String size;
     private Integer stockQuantity;
+    private Integer availableQuantity; // stockQuantity minus checkout reservations (may be null from older catalog versions)
     private Long productId; // ID of the parent product
 
     // Details from the parent Product, denormalized for convenience
@@ -23,4 +24,9 @@ public class ProductVariantDetailDto {
     private String productImageUrl;
 
     // Lombok generates constructors, getters and setters
+
+    // What a shopper can still add to their cart
+    public int getSellableQuantity() {
+        return availableQuantity != null ? availableQuantity : (stockQuantity != null ? stockQuantity : 0);
+    }
 }
@@ -146,9 +146,9 @@ public class CartServiceImpl implements CartService {
              throw new ResourceNotFoundException("ProductVariant", "id", addItemDto.getProductVariantId());
         }
 
-        if (variantDetail.getStockQuantity() < addItemDto.getQuantity()) {
+        if (variantDetail.getSellableQuantity() < addItemDto.getQuantity()) {
             throw new BadRequestException("Not enough stock for product: " + variantDetail.getProductName() + " - " + variantDetail.getSize() +
-                                          ". Available: " + variantDetail.getStockQuantity() + ", Requested: " + addItemDto.getQuantity());
+                                          ". Available: " + variantDetail.getSellableQuantity() + ", Requested: " + addItemDto.getQuantity());
         }
 
         Optional<CartItem> existingItemOpt = cartItemRepository.findByCartAndProductVariantId(cart, addItemDto.getProductVariantId());
@@ -158,9 +158,9 @@ public class CartServiceImpl implements CartService {
             cartItem = existingItemOpt.get();
             log.debug("Variant {} already in cart. Updating quantity.", addItemDto.getProductVariantId());
             int newQuantity = cartItem.getQuantity() + addItemDto.getQuantity();
-            if (variantDetail.getStockQuantity() < newQuantity) {
+            if (variantDetail.getSellableQuantity() < newQuantity) {
                  throw new BadRequestException("Not enough stock to add more of product: " + variantDetail.getProductName() + " - " + variantDetail.getSize() +
-                                          ". Available: " + variantDetail.getStockQuantity() + ", Current in cart: " + cartItem.getQuantity() + ", Requested additional: " + addItemDto.getQuantity());
+                                          ". Available: " + variantDetail.getSellableQuantity() + ", Current in cart: " + cartItem.getQuantity() + ", Requested additional: " + addItemDto.getQuantity());
             }
             cartItem.setQuantity(newQuantity);
         } else {
@@ -200,9 +200,9 @@ public class CartServiceImpl implements CartService {
              if (variantDetail == null) throw new ResourceNotFoundException("ProductVariant", "id", productVariantId);
 
 
-            if (variantDetail.getStockQuantity() < updateQuantityDto.getQuantity()) {
+            if (variantDetail.getSellableQuantity() < updateQuantityDto.getQuantity()) {
                 throw new BadRequestException("Not enough stock for product: " + variantDetail.getProductName() + " - " + variantDetail.getSize() +
-                                              ". Available: " + variantDetail.getStockQuantity() + ", Requested: " + updateQuantityDto.getQuantity());
+                                              ". Available: " + variantDetail.getSellableQuantity() + ", Requested: " + updateQuantityDto.getQuantity());
             }
             cartItem.setQuantity(updateQuantityDto.getQuantity());
             cartItemRepository.save(cartItem);
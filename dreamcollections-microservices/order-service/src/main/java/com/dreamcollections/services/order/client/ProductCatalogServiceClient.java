@@ -1,8 +1,13 @@
 package com.dreamcollections.services.order.client;
 
 import com.dreamcollections.services.order.dto.client.ProductVariantDetailDto;
+import com.dreamcollections.services.order.dto.client.SalesReportDto;
+import com.dreamcollections.services.order.dto.client.StockDecrementRequestDto;
+import com.dreamcollections.services.order.dto.client.StockReservationRequestDto;
+import com.dreamcollections.services.order.dto.client.StockReservationResultDto;
 import com.dreamcollections.services.order.dto.client.UpdateStockRequestDto; // Renamed from Product Catalog's DTO to avoid confusion
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,4 +28,26 @@ public interface ProductCatalogServiceClient {
     ProductVariantDetailDto updateStock(
             @PathVariable("variantId") Long variantId,
             @RequestBody UpdateStockRequestDto stockRequest); // DTO for updating stock
+
+    // Decrement stock for all order lines in one call. All-or-nothing on the catalog side:
+    // responds 409 Conflict (surfaced as FeignException.Conflict) without changing anything if any line is short.
+    @PostMapping("/products/variants/stock/decrement")
+    void decrementStock(@RequestBody StockDecrementRequestDto request);
+
+    // Stock holds: reserve at checkout, confirm once paid, release on cancellation.
+    // Create responds 409 (FeignException.Conflict) if any line cannot be held; confirm/release respond 404
+    // (FeignException.NotFound) once the hold has expired.
+    @PostMapping("/products/variants/reservations")
+    StockReservationResultDto createStockReservation(@RequestBody StockReservationRequestDto request);
+
+    @PostMapping("/products/variants/reservations/{reservationId}/confirm")
+    void confirmStockReservation(@PathVariable("reservationId") String reservationId);
+
+    @DeleteMapping("/products/variants/reservations/{reservationId}")
+    void releaseStockReservation(@PathVariable("reservationId") String reservationId);
+
+    // Units sold per variant over one window, feeding the catalog's best-seller ranking (sort=popularity).
+    // Sent from a background thread, which has no request for FeignClientInterceptor to copy the token from.
+    @PostMapping("/products/variants/sales")
+    void recordSales(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization, @RequestBody SalesReportDto report);
 }
@@ -2,6 +2,7 @@ package com.dreamcollections.services.order.controller;
 
 import com.dreamcollections.services.order.dto.AdminOrderDetailDto;
 import com.dreamcollections.services.order.dto.AdminOrderSummaryDto;
+import com.dreamcollections.services.order.dto.CursorPageDto;
 import com.dreamcollections.services.order.dto.OrderStatusUpdateDto;
 import com.dreamcollections.services.order.model.Order;
 import com.dreamcollections.services.order.model.OrderStatus;
@@ -28,6 +29,7 @@ import java.util.Optional;
 public class AdminOrderController {
 
     private static final Logger log = LoggerFactory.getLogger(AdminOrderController.class);
+    private static final int MAX_SCROLL_SIZE = 500;
 
     private final OrderService orderService;
 
@@ -55,7 +57,32 @@ public class AdminOrderController {
         log.info("Admin request: Get all orders. Page: {}, Size: {}, Sort: {}, Status Filter: {}, UserId Filter: {}",
                 pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(), status, userId);
 
-        // Build Specification dynamically based on request parameters
+        Specification<Order> spec = buildOrderSpecification(status, userId);
+
+        Page<AdminOrderSummaryDto> orders = orderService.getAllOrdersForAdmin(spec, pageable);
+        return ResponseEntity.ok(orders);
+    }
+
+    /**
+     * Cursor (keyset) variant of the order listing, newest first. Intended for deep paging and exports:
+     * there is no COUNT query and each slice costs the same regardless of how far in it is.
+     * Pass the returned nextCursor to fetch the following slice.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<AdminOrderSummaryDto>> scrollOrdersForAdmin(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long userId
+    ) {
+        log.info("Admin request: Scroll orders. Cursor: {}, Size: {}, Status Filter: {}, UserId Filter: {}", cursor, size, status, userId);
+        int boundedSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        CursorPageDto<AdminOrderSummaryDto> orders = orderService.scrollOrdersForAdmin(buildOrderSpecification(status, userId), cursor, boundedSize);
+        return ResponseEntity.ok(orders);
+    }
+
+    // Build Specification dynamically based on request parameters
+    private Specification<Order> buildOrderSpecification(String status, Long userId) {
         Specification<Order> spec = Specification.where(null); // Start with a no-op spec
 
         if (status != null && !status.isEmpty()) {
@@ -83,10 +110,7 @@ public class AdminOrderController {
         //     spec = spec.and((root, query, criteriaBuilder) ->
         //             criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), endDate.atTime(23, 59, 59)));
         // }
-
-
-        Page<AdminOrderSummaryDto> orders = orderService.getAllOrdersForAdmin(spec, pageable);
-        return ResponseEntity.ok(orders);
+        return spec;
     }
 
     // Endpoints for GET /{orderId}, PUT /{orderId}/status, POST /{orderId}/notes will be added next.
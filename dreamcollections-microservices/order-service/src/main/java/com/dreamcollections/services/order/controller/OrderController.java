@@ -1,5 +1,6 @@
 package com.dreamcollections.services.order.controller;
 
+import com.dreamcollections.services.order.dto.CursorPageDto;
 import com.dreamcollections.services.order.dto.request.CreateOrderRequestDto;
 import com.dreamcollections.services.order.dto.response.OrderResponseDto;
 import com.dreamcollections.services.order.security.UserPrincipal; // Custom principal
@@ -71,6 +72,19 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/my-orders/scroll") // Cursor-paginated variant of /my-orders, newest first, without a count query
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CursorPageDto<OrderResponseDto>> scrollMyOrders(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Long userId = principal.getId();
+        log.info("Request from user ID {} to scroll their orders. Cursor: {}, Size: {}", userId, cursor, size);
+        int boundedSize = Math.max(1, Math.min(size, 100));
+        return ResponseEntity.ok(orderService.scrollOrdersByUserId(userId, cursor, boundedSize));
+    }
+
     // Example Admin endpoint (if needed)
     // @GetMapping("/admin/user/{userId}")
     // @PreAuthorize("hasRole('ADMIN')")
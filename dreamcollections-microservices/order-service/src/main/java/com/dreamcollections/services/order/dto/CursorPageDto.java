@@ -0,0 +1,18 @@
+package com.dreamcollections.services.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One slice of a keyset-paginated listing. Pass nextCursor back to fetch the following slice;
+// it is null once the end has been reached. No total count is computed.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
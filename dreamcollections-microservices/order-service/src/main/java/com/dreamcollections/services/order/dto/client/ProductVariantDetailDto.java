@@ -7,6 +7,7 @@ public class ProductVariantDetailDto {
     private Long id;
     private String size;
     private Integer stockQuantity;
+    private Integer availableQuantity; // stockQuantity minus active reservations (null from older catalog versions)
     private Long productId;
     private String productName;
     private BigDecimal productPrice;
@@ -19,6 +20,8 @@ public class ProductVariantDetailDto {
     public void setSize(String size) { this.size = size; }
     public Integer getStockQuantity() { return stockQuantity; }
     public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
+    public Integer getAvailableQuantity() { return availableQuantity; }
+    public void setAvailableQuantity(Integer availableQuantity) { this.availableQuantity = availableQuantity; }
     public Long getProductId() { return productId; }
     public void setProductId(Long productId) { this.productId = productId; }
     public String getProductName() { return productName; }
@@ -0,0 +1,43 @@
+package com.dreamcollections.services.order.dto.client;
+
+import java.time.Instant;
+import java.util.List;
+
+// Request body for ProductCatalogService's best-seller ranking: units sold per variant over one window
+public class SalesReportDto {
+    private Instant windowStart;
+    private Instant windowEnd;
+    private List<UnitsSoldLineDto> items;
+
+    public SalesReportDto() {}
+
+    public SalesReportDto(Instant windowStart, Instant windowEnd, List<UnitsSoldLineDto> items) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.items = items;
+    }
+
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(Instant windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public Instant getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(Instant windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public List<UnitsSoldLineDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UnitsSoldLineDto> items) {
+        this.items = items;
+    }
+}
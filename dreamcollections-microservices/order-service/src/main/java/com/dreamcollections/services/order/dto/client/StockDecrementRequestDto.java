@@ -0,0 +1,22 @@
+package com.dreamcollections.services.order.dto.client;
+
+import java.util.List;
+
+// Request body for ProductCatalogService's all-or-nothing batch stock decrement
+public class StockDecrementRequestDto {
+    private List<StockLineDto> items;
+
+    public StockDecrementRequestDto() {}
+
+    public StockDecrementRequestDto(List<StockLineDto> items) {
+        this.items = items;
+    }
+
+    public List<StockLineDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockLineDto> items) {
+        this.items = items;
+    }
+}
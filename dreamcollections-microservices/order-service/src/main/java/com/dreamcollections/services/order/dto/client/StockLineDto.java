@@ -0,0 +1,30 @@
+package com.dreamcollections.services.order.dto.client;
+
+// One (variant, quantity) line of a batch stock request to ProductCatalogService
+public class StockLineDto {
+    private Long variantId;
+    private Integer quantity;
+
+    public StockLineDto() {}
+
+    public StockLineDto(Long variantId, Integer quantity) {
+        this.variantId = variantId;
+        this.quantity = quantity;
+    }
+
+    public Long getVariantId() {
+        return variantId;
+    }
+
+    public void setVariantId(Long variantId) {
+        this.variantId = variantId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
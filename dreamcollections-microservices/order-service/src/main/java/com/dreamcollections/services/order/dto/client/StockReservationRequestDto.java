@@ -0,0 +1,32 @@
+package com.dreamcollections.services.order.dto.client;
+
+import java.util.List;
+
+// Request body for placing a stock hold in ProductCatalogService
+public class StockReservationRequestDto {
+    private List<StockLineDto> items;
+    private Long ttlSeconds; // null = catalog default
+
+    public StockReservationRequestDto() {}
+
+    public StockReservationRequestDto(List<StockLineDto> items, Long ttlSeconds) {
+        this.items = items;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public List<StockLineDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockLineDto> items) {
+        this.items = items;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
@@ -0,0 +1,36 @@
+package com.dreamcollections.services.order.dto.client;
+
+import java.time.Instant;
+
+// Subset of ProductCatalogService's reservation response that order-service needs
+public class StockReservationResultDto {
+    private String reservationId;
+    private Instant expiresAt;
+    private boolean reserved;
+
+    public StockReservationResultDto() {}
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isReserved() {
+        return reserved;
+    }
+
+    public void setReserved(boolean reserved) {
+        this.reserved = reserved;
+    }
+}
@@ -0,0 +1,30 @@
+package com.dreamcollections.services.order.dto.client;
+
+// Net units of one variant sold during a sales window; negative when returns outweigh sales
+public class UnitsSoldLineDto {
+    private Long variantId;
+    private Integer units;
+
+    public UnitsSoldLineDto() {}
+
+    public UnitsSoldLineDto(Long variantId, Integer units) {
+        this.variantId = variantId;
+        this.units = units;
+    }
+
+    public Long getVariantId() {
+        return variantId;
+    }
+
+    public void setVariantId(Long variantId) {
+        this.variantId = variantId;
+    }
+
+    public Integer getUnits() {
+        return units;
+    }
+
+    public void setUnits(Integer units) {
+        this.units = units;
+    }
+}
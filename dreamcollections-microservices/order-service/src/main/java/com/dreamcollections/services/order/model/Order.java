@@ -11,7 +11,11 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "orders") // "order" is often a reserved keyword in SQL
+@Table(name = "orders", indexes = { // "order" is often a reserved keyword in SQL
+        // Keyset scrolling on (createdAt, id), overall and per user
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_user_created_at_id", columnList = "user_id, created_at, id")
+})
 public class Order {
 
     @Id
@@ -82,6 +86,10 @@ public class Order {
     @Column(name = "tracking_number")
     private String trackingNumber;
 
+    // Stock hold in ProductCatalogService while the order awaits payment; cleared once confirmed or released
+    @Column(name = "stock_reservation_id", length = 36)
+    private String stockReservationId;
+
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private Set<OrderItem> items = new HashSet<>();
@@ -0,0 +1,178 @@
+package com.dreamcollections.services.order.sales;
+
+import com.dreamcollections.services.order.client.ProductCatalogServiceClient;
+import com.dreamcollections.services.order.dto.client.SalesReportDto;
+import com.dreamcollections.services.order.dto.client.UnitsSoldLineDto;
+import com.dreamcollections.services.order.model.Order;
+import com.dreamcollections.services.order.model.OrderItem;
+import com.dreamcollections.services.order.model.OrderStatus;
+import feign.FeignException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds ProductCatalogService's best-seller ranking with units sold per variant, so the catalog never has to
+ * aggregate {@code order_items} itself.
+ * <p>
+ * An order counts as sold while it is in one of {@link #SOLD_STATUSES}: paying adds its units, cancelling or
+ * refunding a paid order takes them back. Committed changes are tallied per variant, and a background thread sends
+ * the tally as one report per window, so the window's last units go out even when order activity stops and no
+ * request waits on the catalog call. The thread has no caller of its own: each report carries the bearer token of
+ * the latest request that changed the tally. A report that fails is merged back and retried with the next window.
+ * The tally is process-local, so units not yet reported are lost if the process dies; the ranking is a soft signal
+ * and tolerates that.
+ */
+@Component
+public class SalesWindowReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesWindowReporter.class);
+
+    // Statuses in which an order's units count as sold
+    static final Set<OrderStatus> SOLD_STATUSES = EnumSet.of(
+            OrderStatus.PAID, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED, OrderStatus.REFUND_PENDING);
+
+    private final ProductCatalogServiceClient productCatalogServiceClient;
+    private final Duration window;
+    private ScheduledExecutorService sender;
+
+    // Guarded by this
+    private Map<Long, Integer> unitsByVariant = new HashMap<>();
+    private Instant windowStart = Instant.now();
+    private String authorization;
+
+    @Autowired
+    public SalesWindowReporter(ProductCatalogServiceClient productCatalogServiceClient,
+                               @Value("${sales.report.window:PT1M}") Duration window) {
+        this.productCatalogServiceClient = productCatalogServiceClient;
+        this.window = window;
+    }
+
+    @PostConstruct
+    public void start() {
+        sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-window-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long windowMillis = window.toMillis();
+        sender.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Sends what the open window has tallied so far, then stops
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Tallies the units of an order whose status changes from {@code oldStatus} to {@code newStatus}, once the
+     * surrounding transaction commits. Changes that do not cross into or out of a sold status are ignored.
+     */
+    public void onStatusChange(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        int sign = (SOLD_STATUSES.contains(newStatus) ? 1 : 0) - (SOLD_STATUSES.contains(oldStatus) ? 1 : 0);
+        if (sign == 0) {
+            return;
+        }
+        Map<Long, Integer> units = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            units.merge(item.getProductVariantId(), sign * item.getQuantity(), Integer::sum);
+        }
+        String requestAuthorization = currentAuthorization();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(units, requestAuthorization);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(units, requestAuthorization);
+            }
+        });
+    }
+
+    // Only merges into the tally; the sender thread reports it
+    private synchronized void record(Map<Long, Integer> units, String requestAuthorization) {
+        units.forEach((variantId, quantity) -> unitsByVariant.merge(variantId, quantity, Integer::sum));
+        if (requestAuthorization != null) {
+            authorization = requestAuthorization;
+        }
+    }
+
+    /** Closes the current window and reports its tally. Called by the sender thread; safe to call directly. */
+    public void flush() {
+        SalesReportDto report;
+        String reportAuthorization;
+        synchronized (this) {
+            report = takeWindow();
+            reportAuthorization = authorization;
+        }
+        if (report != null) {
+            send(report, reportAuthorization);
+        }
+    }
+
+    // Caller holds this. Returns the tally as a report and starts a new window, or null if nothing was sold.
+    private SalesReportDto takeWindow() {
+        Instant now = Instant.now();
+        List<UnitsSoldLineDto> lines = new ArrayList<>(unitsByVariant.size());
+        unitsByVariant.forEach((variantId, quantity) -> {
+            if (quantity != 0) {
+                lines.add(new UnitsSoldLineDto(variantId, quantity));
+            }
+        });
+        SalesReportDto report = lines.isEmpty() ? null : new SalesReportDto(windowStart, now, lines);
+        unitsByVariant = new HashMap<>();
+        windowStart = now;
+        return report;
+    }
+
+    private void send(SalesReportDto report, String reportAuthorization) {
+        try {
+            productCatalogServiceClient.recordSales(reportAuthorization, report);
+            log.debug("Reported sales of {} variants for window {} - {}.", report.getItems().size(), report.getWindowStart(), report.getWindowEnd());
+        } catch (FeignException e) {
+            // Keep the units for the next window rather than dropping them
+            log.warn("Failed to report sales for window {} - {}, will retry with the next window: {}",
+                    report.getWindowStart(), report.getWindowEnd(), e.getMessage());
+            synchronized (this) {
+                for (UnitsSoldLineDto line : report.getItems()) {
+                    unitsByVariant.merge(line.getVariantId(), line.getUnits(), Integer::sum);
+                }
+            }
+        }
+    }
+
+    // The bearer token of the request being served, as FeignClientInterceptor would forward it
+    private static String currentAuthorization() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String header = attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+            if (header != null && header.startsWith("Bearer ")) {
+                return header;
+            }
+        }
+        return null;
+    }
+}
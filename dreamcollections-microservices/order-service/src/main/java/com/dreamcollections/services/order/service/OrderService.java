@@ -2,6 +2,7 @@ package com.dreamcollections.services.order.service;
 
 import com.dreamcollections.services.order.dto.AdminOrderDetailDto;
 import com.dreamcollections.services.order.dto.AdminOrderSummaryDto;
+import com.dreamcollections.services.order.dto.CursorPageDto;
 // import com.dreamcollections.services.order.dto.OrderStatusUpdateDto; // This DTO is for request, service method might just take string
 import com.dreamcollections.services.order.dto.request.CreateOrderRequestDto;
 import com.dreamcollections.services.order.dto.response.OrderResponseDto;
@@ -18,6 +19,8 @@ public interface OrderService {
     OrderResponseDto createOrder(Long userId, CreateOrderRequestDto createOrderRequestDto);
     Optional<OrderResponseDto> getOrderByIdAndUserId(Long orderId, Long userId);
     Page<OrderResponseDto> getOrdersByUserId(Long userId, Pageable pageable);
+    // Keyset pagination, newest first; cursor is null for the first slice
+    CursorPageDto<OrderResponseDto> scrollOrdersByUserId(Long userId, String cursor, int size);
 
     // --- Admin Facing Methods ---
     /**
@@ -28,6 +31,16 @@ public interface OrderService {
      */
     Page<AdminOrderSummaryDto> getAllOrdersForAdmin(Specification<Order> spec, Pageable pageable);
 
+    /**
+     * Keyset-paginated variant of {@link #getAllOrdersForAdmin}, ordered newest first by (createdAt, id).
+     * Does not run a count query, so deep pages and exports stay as fast as the first page.
+     * @param spec Specification for dynamic filtering.
+     * @param cursor Opaque cursor returned by the previous call, or null for the first slice.
+     * @param size Maximum number of orders to return.
+     * @return A {@link CursorPageDto} of {@link AdminOrderSummaryDto}.
+     */
+    CursorPageDto<AdminOrderSummaryDto> scrollOrdersForAdmin(Specification<Order> spec, String cursor, int size);
+
     /**
      * Retrieves detailed information for a specific order for administrators.
      * @param orderId The ID of the order.
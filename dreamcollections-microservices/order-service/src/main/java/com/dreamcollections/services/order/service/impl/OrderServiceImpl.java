@@ -5,10 +5,14 @@ import com.dreamcollections.services.order.client.ProductCatalogServiceClient;
 import com.dreamcollections.services.order.dto.AddressDto;
 import com.dreamcollections.services.order.dto.AdminOrderDetailDto;
 import com.dreamcollections.services.order.dto.AdminOrderSummaryDto;
+import com.dreamcollections.services.order.dto.CursorPageDto;
 import com.dreamcollections.services.order.dto.client.CartDataDto;
 import com.dreamcollections.services.order.dto.client.CartItemForOrderDto;
 import com.dreamcollections.services.order.dto.client.ProductVariantDetailDto;
-import com.dreamcollections.services.order.dto.client.UpdateStockRequestDto;
+import com.dreamcollections.services.order.dto.client.StockDecrementRequestDto;
+import com.dreamcollections.services.order.dto.client.StockLineDto;
+import com.dreamcollections.services.order.dto.client.StockReservationRequestDto;
+import com.dreamcollections.services.order.dto.client.StockReservationResultDto;
 import com.dreamcollections.services.order.dto.request.CreateOrderRequestDto;
 import com.dreamcollections.services.order.dto.response.OrderItemResponseDto;
 import com.dreamcollections.services.order.dto.response.OrderResponseDto;
@@ -20,23 +24,35 @@ import com.dreamcollections.services.order.model.OrderItem;
 import com.dreamcollections.services.order.model.OrderStatus;
 import com.dreamcollections.services.order.model.OrderStatusLog;
 import com.dreamcollections.services.order.repository.OrderRepository;
+import com.dreamcollections.services.order.sales.SalesWindowReporter;
 import com.dreamcollections.services.order.service.OrderService;
 
 import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -58,6 +74,9 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private ProductCatalogServiceClient productCatalogServiceClient;
 
+    @Autowired
+    private SalesWindowReporter salesWindowReporter;
+
     // ISSUE-5: Inject RabbitMQ template for event publishing
     // @Autowired
     // private RabbitTemplate rabbitTemplate;
@@ -164,9 +183,11 @@ public class OrderServiceImpl implements OrderService {
                 throw new BadRequestException("Details for product variant ID " + cartItem.getProductVariantId() + " not found. Order cannot be processed.");
             }
 
-            if (productDetail.getStockQuantity() < cartItem.getQuantity()) {
+            // Early check only; the stock reservation below is authoritative
+            int available = productDetail.getAvailableQuantity() != null ? productDetail.getAvailableQuantity() : productDetail.getStockQuantity();
+            if (available < cartItem.getQuantity()) {
                 log.warn("Insufficient stock for product variant ID {}: Name '{}', Size '{}'. Requested: {}, Available: {}",
-                         productDetail.getId(), productDetail.getProductName(), productDetail.getSize(), cartItem.getQuantity(), productDetail.getStockQuantity());
+                         productDetail.getId(), productDetail.getProductName(), productDetail.getSize(), cartItem.getQuantity(), available);
                 throw new BadRequestException("Insufficient stock for product: " + productDetail.getProductName() + " (" + productDetail.getSize() + ").");
             }
 
@@ -217,32 +238,14 @@ public class OrderServiceImpl implements OrderService {
 
         orderItems.forEach(order::addItem); // Sets bidirectional relationship
 
+        // 5. Hold the stock for this checkout. The catalog checks stock minus other holds for all lines at once,
+        //    so concurrent shoppers cannot both win the last unit. The hold is confirmed when the order is paid
+        //    (see updateOrderStatus) and expires on its own if that never happens.
+        order.setStockReservationId(reserveStock(order));
+
         Order savedOrder = orderRepository.save(order);
         log.info("Order {} created successfully for user ID {} with status {}.", savedOrder.getId(), userId, savedOrder.getStatus());
 
-        // 5. Update Stock in Product Catalog Service (critical step, consider resilience)
-        // For now, direct REST call. Later, this could be event-driven.
-        try {
-            log.debug("Updating stock for order {}.", savedOrder.getId());
-            for (OrderItem item : savedOrder.getItems()) {
-                ProductVariantDetailDto productDetail = productVariantDetailsMap.get(item.getProductVariantId()); // Should still be in map
-                int newStock = productDetail.getStockQuantity() - item.getQuantity();
-                productCatalogServiceClient.updateStock(item.getProductVariantId(), new UpdateStockRequestDto(newStock));
-                log.info("Stock updated for variant ID {}: new stock {}.", item.getProductVariantId(), newStock);
-            }
-        } catch (FeignException e) {
-            log.error("Critical: Failed to update stock for order {}. Manual intervention may be required. Error: {}", savedOrder.getId(), e.getMessage(), e);
-            // This is a critical failure. Options:
-            // 1. Compensating transaction: Try to cancel/rollback the order (complex).
-            // 2. Mark order as requiring attention.
-            // 3. Rely on eventual consistency if using events.
-            // For now, we log the error. The order is created, but stock might be inconsistent.
-            // Consider changing order status to FAILED or AWAITING_STOCK_CONFIRMATION.
-            savedOrder.setStatus(OrderStatus.FAILED); // Or a specific status indicating issues
-            orderRepository.save(savedOrder); // Save updated status
-            throw new BadRequestException("Order created, but failed to update product stock. Please contact support. Error: " + e.getMessage());
-        }
-
         // 6. Clear Cart in Cart Service
         try {
             log.debug("Clearing cart for user ID {} after order {} creation.", userId, savedOrder.getId());
@@ -275,6 +278,48 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable).map(this::mapOrderToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderResponseDto> scrollOrdersByUserId(Long userId, String cursor, int size) {
+        log.debug("Scrolling orders for user ID {}. Cursor: {}, Size: {}", userId, cursor, size);
+        Specification<Order> byUser = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("userId"), userId);
+        Window<Order> window = scrollNewestFirst(byUser, cursor, size);
+        List<OrderResponseDto> content = window.stream().map(this::mapOrderToDto).collect(Collectors.toList());
+        return new CursorPageDto<>(content, nextCursor(window), window.hasNext());
+    }
+
+    // --- Keyset pagination helpers ---
+    // Orders are scrolled newest first on (createdAt, id). The cursor is the key of the last order returned,
+    // encoded as opaque URL-safe Base64. No COUNT query is issued.
+
+    private Window<Order> scrollNewestFirst(Specification<Order> spec, String cursor, int size) {
+        ScrollPosition position = cursor == null || cursor.isBlank() ? ScrollPosition.keyset() : decodeOrderCursor(cursor);
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        return orderRepository.findBy(spec, query -> query.sortBy(newestFirst).limit(size).scroll(position));
+    }
+
+    private static String nextCursor(Window<Order> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        String raw = position.getKeys().get("id") + "|" + position.getKeys().get("createdAt");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ScrollPosition decodeOrderCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", LocalDateTime.parse(raw.substring(separator + 1)));
+            keys.put("id", Long.valueOf(raw.substring(0, separator)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
     // --- Helper to map AddressDto to Address entity ---
     private Address mapAddressDtoToEntity(AddressDto addressDto) {
         if (addressDto == null) {
@@ -368,6 +413,15 @@ public class OrderServiceImpl implements OrderService {
         return orderRepository.findAll(spec, pageable).map(this::mapOrderToAdminSummaryDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<AdminOrderSummaryDto> scrollOrdersForAdmin(Specification<Order> spec, String cursor, int size) {
+        log.debug("Admin request: Scrolling orders with spec. Cursor: {}, Size: {}", cursor, size);
+        Window<Order> window = scrollNewestFirst(spec, cursor, size);
+        List<AdminOrderSummaryDto> content = window.stream().map(this::mapOrderToAdminSummaryDto).collect(Collectors.toList());
+        return new CursorPageDto<>(content, nextCursor(window), window.hasNext());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<AdminOrderDetailDto> getOrderDetailsForAdmin(Long orderId) {
@@ -403,7 +457,10 @@ public class OrderServiceImpl implements OrderService {
             throw new BadRequestException("Invalid status transition from " + oldStatus + " to " + newStatus + ".");
         }
 
+        applyStockReservationTransition(order, newStatus);
         order.setStatus(newStatus);
+        // Paid orders feed the catalog's best-seller ranking; cancelling or refunding one takes its units back
+        salesWindowReporter.onStatusChange(order, oldStatus, newStatus);
 
         // Log the status change
         String notes = "Status changed by admin: " + adminUsername;
@@ -421,6 +478,88 @@ public class OrderServiceImpl implements OrderService {
         return mapOrderToAdminDetailDto(updatedOrder);
     }
 
+    // --- Stock reservation helpers ---
+
+    private String reserveStock(Order order) {
+        StockReservationResultDto reservation;
+        try {
+            reservation = productCatalogServiceClient.createStockReservation(new StockReservationRequestDto(toStockLines(order), null));
+        } catch (FeignException.Conflict e) {
+            log.warn("Stock reservation rejected for user ID {}: {}", order.getUserId(), e.contentUTF8());
+            throw new BadRequestException("Insufficient stock for one or more items in your cart. Please review your cart and try again.");
+        } catch (FeignException e) {
+            log.error("Error reserving stock for user ID {}: Status {}, Body {}", order.getUserId(), e.status(), e.contentUTF8(), e);
+            throw new BadRequestException("Failed to reserve stock: " + e.getMessage());
+        }
+        String reservationId = reservation.getReservationId();
+        log.info("Stock reservation {} placed for user ID {}, expires at {}.", reservationId, order.getUserId(), reservation.getExpiresAt());
+
+        // If the order never commits, give the stock back immediately instead of waiting for the hold to expire
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    releaseStockQuietly(reservationId);
+                }
+            }
+        });
+        return reservationId;
+    }
+
+    // Paying converts the hold into a real decrement; cancelling or failing an unpaid order gives the stock back.
+    private void applyStockReservationTransition(Order order, OrderStatus newStatus) {
+        String reservationId = order.getStockReservationId();
+        if (newStatus == OrderStatus.PAID) {
+            try {
+                if (reservationId == null || !confirmStockReservation(order, reservationId)) {
+                    // No live hold (order re-opened after FAILED, or payment outlasted the hold): decrement
+                    // directly, all-or-nothing. The catalog leaves units held for other shoppers alone, so this
+                    // only succeeds out of stock nobody else has reserved.
+                    productCatalogServiceClient.decrementStock(new StockDecrementRequestDto(toStockLines(order)));
+                }
+            } catch (FeignException.Conflict e) {
+                log.warn("Stock decrement rejected for order {}: {}", order.getId(), e.contentUTF8());
+                throw new BadRequestException("Insufficient stock to fulfil order " + order.getId() + ".");
+            } catch (FeignException e) {
+                log.error("Error confirming stock for order {}: Status {}, Body {}", order.getId(), e.status(), e.contentUTF8(), e);
+                throw new BadRequestException("Failed to confirm stock for order " + order.getId() + ": " + e.getMessage());
+            }
+            order.setStockReservationId(null);
+        } else if (reservationId != null && (newStatus == OrderStatus.CANCELLED || newStatus == OrderStatus.FAILED)) {
+            releaseStockQuietly(reservationId);
+            order.setStockReservationId(null);
+        }
+    }
+
+    // False if the catalog no longer knows the hold (expired or unknown), leaving the stock to be taken directly
+    private boolean confirmStockReservation(Order order, String reservationId) {
+        try {
+            productCatalogServiceClient.confirmStockReservation(reservationId);
+            return true;
+        } catch (FeignException.NotFound e) {
+            log.warn("Stock reservation {} for order {} expired before payment; decrementing stock directly.", reservationId, order.getId());
+            return false;
+        }
+    }
+
+    private void releaseStockQuietly(String reservationId) {
+        try {
+            productCatalogServiceClient.releaseStockReservation(reservationId);
+            log.info("Stock reservation {} released.", reservationId);
+        } catch (FeignException.NotFound e) {
+            log.debug("Stock reservation {} already expired or released.", reservationId);
+        } catch (FeignException e) {
+            // The hold expires on its own; nothing else to do
+            log.warn("Failed to release stock reservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    private static List<StockLineDto> toStockLines(Order order) {
+        return order.getItems().stream()
+                .map(item -> new StockLineDto(item.getProductVariantId(), item.getQuantity()))
+                .collect(Collectors.toList());
+    }
+
     private static final Map<OrderStatus, Set<OrderStatus>> validTransitions = new HashMap<>();
 
     static {
@@ -2,8 +2,10 @@ package com.dreamcollections.services.product;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Flash-sale stock reconciliation
 public class ProductCatalogServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,188 @@
+package com.dreamcollections.services.product.cache;
+
+import com.dreamcollections.services.product.dto.CategoryResponseDto;
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.event.CategoryTreeChangedEvent;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product counts per category, both direct and for the whole subtree, kept in memory so category menus
+ * ("Rings (124)") render without COUNT queries.
+ * <p>
+ * Counts are derived from a product -> category assignment map loaded once and updated from
+ * {@link ProductChangedEvent}s, so an event seen twice (or racing the initial load) cannot skew them.
+ * A create, move or delete adjusts the two affected categories and their ancestors; subtree totals are
+ * recomputed from the direct counts only when the shape of the category tree changes. Category writes are
+ * rare and deleting a category can cascade to products, so they trigger a full reload.
+ */
+@Component
+public class CategoryProductCounts {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryProductCounts.class);
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Written while holding this; null until loaded
+    private volatile Map<Long, Long> categoryByProduct;
+    // Read without locking, written while holding this. Replaced wholesale on (re)load and recompute so readers
+    // never see a half-built map.
+    private volatile Map<Long, Long> directCounts = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> subtreeCounts = new ConcurrentHashMap<>();
+    // Version of the category tree snapshot subtreeCounts was computed against
+    private volatile long subtreeVersion = -1;
+
+    @Autowired
+    public CategoryProductCounts(ProductRepository productRepository, CategoryTreeCache categoryTreeCache,
+                                 PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long started = System.currentTimeMillis();
+        List<Object[]> rows = readOnlyTransaction.execute(status -> productRepository.findAllCategoryAssignments());
+        Map<Long, Long> assignments = new HashMap<>(rows.size() * 2);
+        Map<Long, Long> counts = new ConcurrentHashMap<>();
+        for (Object[] row : rows) {
+            Long categoryId = (Long) row[1];
+            assignments.put((Long) row[0], categoryId);
+            counts.merge(categoryId, 1L, Long::sum);
+        }
+        directCounts = counts;
+        subtreeVersion = -1;
+        categoryByProduct = assignments;
+        log.info("Category product counts loaded for {} products in {} ms.", assignments.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (categoryByProduct == null) {
+            return; // The initial load reads the committed state, this change included
+        }
+        ProductResponseDto product = event.getProduct();
+        Long newCategoryId = event.getChangeType() != ProductChangedEvent.ChangeType.DELETED && product != null
+                && product.getCategory() != null ? product.getCategory().getId() : null;
+        assign(event.getProductId(), newCategoryId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductsImported(ProductsImportedEvent event) {
+        if (categoryByProduct == null) {
+            return;
+        }
+        for (ProductResponseDto product : event.getProducts()) {
+            assign(product.getId(), product.getCategory() != null ? product.getCategory().getId() : null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryTreeChanged(CategoryTreeChangedEvent event) {
+        load();
+    }
+
+    // Products directly in the category
+    public long getProductCount(Long categoryId) {
+        ensureLoaded();
+        return directCounts.getOrDefault(categoryId, 0L);
+    }
+
+    // Products in the category and all of its subcategories
+    public long getTotalProductCount(Long categoryId) {
+        ensureLoaded();
+        CategoryTreeSnapshot snapshot = categoryTreeCache.getSnapshot();
+        if (subtreeVersion != snapshot.getVersion()) {
+            recomputeSubtreeCounts(snapshot);
+        }
+        return subtreeCounts.getOrDefault(categoryId, 0L);
+    }
+
+    // Fills in both counts on the given categories and, recursively, their subcategories
+    public void applyTo(List<CategoryResponseDto> categories) {
+        if (categories == null) {
+            return;
+        }
+        for (CategoryResponseDto category : categories) {
+            category.setProductCount(getProductCount(category.getId()));
+            category.setTotalProductCount(getTotalProductCount(category.getId()));
+            applyTo(category.getSubCategories());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (categoryByProduct == null) {
+            synchronized (this) {
+                if (categoryByProduct == null) {
+                    load();
+                }
+            }
+        }
+    }
+
+    // Caller holds this. A null category removes the product.
+    private void assign(Long productId, Long newCategoryId) {
+        Long oldCategoryId = newCategoryId != null
+                ? categoryByProduct.put(productId, newCategoryId)
+                : categoryByProduct.remove(productId);
+        if (!Objects.equals(oldCategoryId, newCategoryId)) {
+            adjust(oldCategoryId, -1);
+            adjust(newCategoryId, 1);
+        }
+    }
+
+    // Caller holds this
+    private void adjust(Long categoryId, long delta) {
+        if (categoryId == null) {
+            return;
+        }
+        directCounts.merge(categoryId, delta, Long::sum);
+        CategoryTreeSnapshot snapshot = categoryTreeCache.getSnapshot();
+        if (subtreeVersion != snapshot.getVersion()) {
+            return; // Stale anyway; recomputed in full on the next read
+        }
+        addToAncestors(subtreeCounts, snapshot, categoryId, delta);
+    }
+
+    private synchronized void recomputeSubtreeCounts(CategoryTreeSnapshot snapshot) {
+        if (subtreeVersion == snapshot.getVersion()) {
+            return;
+        }
+        Map<Long, Long> rebuilt = new ConcurrentHashMap<>();
+        for (Map.Entry<Long, Long> entry : directCounts.entrySet()) {
+            addToAncestors(rebuilt, snapshot, entry.getKey(), entry.getValue());
+        }
+        subtreeCounts = rebuilt;
+        subtreeVersion = snapshot.getVersion();
+    }
+
+    // Adds delta to the category itself and every ancestor up to the root
+    private static void addToAncestors(Map<Long, Long> target, CategoryTreeSnapshot snapshot, Long categoryId, long delta) {
+        Long current = categoryId;
+        // Bounded by the tree size as a guard against a corrupt (cyclic) parent chain
+        for (int depth = 0; current != null && depth <= snapshot.size(); depth++) {
+            target.merge(current, delta, Long::sum);
+            current = snapshot.getParentId(current);
+        }
+    }
+}
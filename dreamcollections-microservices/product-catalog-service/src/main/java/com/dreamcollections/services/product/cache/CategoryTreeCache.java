@@ -0,0 +1,62 @@
+package com.dreamcollections.services.product.cache;
+
+import com.dreamcollections.services.product.dto.CategoryDto;
+import com.dreamcollections.services.product.event.CategoryTreeChangedEvent;
+import com.dreamcollections.services.product.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link CategoryTreeSnapshot}.
+ * The snapshot is loaded lazily with one query and replaced atomically after every committed category write,
+ * so category reads never hit the database.
+ */
+@Component
+public class CategoryTreeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryTreeCache.class);
+
+    private final CategoryRepository categoryRepository;
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private volatile CategoryTreeSnapshot snapshot;
+
+    @Autowired
+    public CategoryTreeCache(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    public CategoryTreeSnapshot getSnapshot() {
+        CategoryTreeSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    public synchronized CategoryTreeSnapshot reload() {
+        List<CategoryDto> rows = categoryRepository.findAllAsFlatDtos();
+        CategoryTreeSnapshot rebuilt = CategoryTreeSnapshot.build(versionSequence.incrementAndGet(), rows);
+        snapshot = rebuilt;
+        log.debug("Category tree snapshot v{} loaded with {} categories.", rebuilt.getVersion(), rebuilt.size());
+        return rebuilt;
+    }
+
+    // Runs after the writing transaction commits so the reload sees the new state.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryTreeChanged(CategoryTreeChangedEvent event) {
+        log.debug("Category {} changed, rebuilding category tree snapshot.", event.getCategoryId());
+        reload();
+    }
+}
@@ -0,0 +1,156 @@
+package com.dreamcollections.services.product.cache;
+
+import com.dreamcollections.services.product.dto.CategoryDto;
+import com.dreamcollections.services.product.dto.CategoryResponseDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned view of the whole category tree.
+ * Built from a single flat query and never modified afterwards; a new snapshot is swapped in on every category write.
+ * DTOs handed out by this class are fresh copies, so callers may mutate them freely.
+ */
+public final class CategoryTreeSnapshot {
+
+    private final long version;
+    private final Map<Long, Node> nodesById;
+    private final Map<String, Node> nodesByName;
+    private final List<Node> topLevel;
+
+    private CategoryTreeSnapshot(long version, Map<Long, Node> nodesById, Map<String, Node> nodesByName, List<Node> topLevel) {
+        this.version = version;
+        this.nodesById = nodesById;
+        this.nodesByName = nodesByName;
+        this.topLevel = topLevel;
+    }
+
+    public static CategoryTreeSnapshot build(long version, List<CategoryDto> rows) {
+        Map<Long, Node> byId = new HashMap<>(rows.size() * 2);
+        Map<String, Node> byName = new HashMap<>(rows.size() * 2);
+        for (CategoryDto row : rows) {
+            Node node = new Node(row.getId(), row.getName(), row.getDescription(), row.getParentId());
+            byId.put(node.id, node);
+            byName.put(node.name, node);
+        }
+
+        List<Node> roots = new ArrayList<>();
+        for (Node node : byId.values()) {
+            Node parent = node.parentId != null ? byId.get(node.parentId) : null;
+            if (parent != null) {
+                parent.children.add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+
+        // Stable ordering so repeated reads render the tree identically
+        Comparator<Node> byIdOrder = Comparator.comparing(n -> n.id);
+        roots.sort(byIdOrder);
+        for (Node node : byId.values()) {
+            node.children.sort(byIdOrder);
+        }
+
+        return new CategoryTreeSnapshot(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName),
+                Collections.unmodifiableList(roots));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+
+    public boolean contains(Long id) {
+        return id != null && nodesById.containsKey(id);
+    }
+
+    public boolean containsName(String name) {
+        return name != null && nodesByName.containsKey(name);
+    }
+
+    public Optional<CategoryResponseDto> getById(Long id) {
+        Node node = id != null ? nodesById.get(id) : null;
+        return Optional.ofNullable(node).map(this::toResponseDto);
+    }
+
+    // Parent of the given category; null for top-level or unknown categories
+    public Long getParentId(Long id) {
+        Node node = id != null ? nodesById.get(id) : null;
+        return node != null ? node.parentId : null;
+    }
+
+    public Optional<String> getName(Long id) {
+        Node node = id != null ? nodesById.get(id) : null;
+        return Optional.ofNullable(node).map(n -> n.name);
+    }
+
+    public Optional<CategoryDto> getByName(String name) {
+        Node node = name != null ? nodesByName.get(name) : null;
+        return Optional.ofNullable(node).map(n -> new CategoryDto(n.id, n.name, n.description, n.parentId));
+    }
+
+    public List<CategoryResponseDto> getTopLevel() {
+        return toResponseDtos(topLevel);
+    }
+
+    public List<CategoryResponseDto> getChildren(Long parentId) {
+        Node parent = nodesById.get(parentId);
+        return parent != null ? toResponseDtos(parent.children) : Collections.emptyList();
+    }
+
+    // Category names from the root down to the given category, e.g. [Jewellery, Rings]; empty if unknown
+    public List<String> getPath(Long id) {
+        List<String> path = new ArrayList<>();
+        Node node = id != null ? nodesById.get(id) : null;
+        // Bounded by the map size as a guard against a corrupt (cyclic) parent chain
+        for (int depth = 0; node != null && depth < nodesById.size(); depth++) {
+            path.add(node.name);
+            node = node.parentId != null ? nodesById.get(node.parentId) : null;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private List<CategoryResponseDto> toResponseDtos(List<Node> nodes) {
+        List<CategoryResponseDto> dtos = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            dtos.add(toResponseDto(node));
+        }
+        return dtos;
+    }
+
+    private CategoryResponseDto toResponseDto(Node node) {
+        Node parent = node.parentId != null ? nodesById.get(node.parentId) : null;
+        CategoryResponseDto dto = new CategoryResponseDto(
+                node.id,
+                node.name,
+                node.description,
+                parent != null ? parent.id : null,
+                parent != null ? parent.name : null);
+        dto.setSubCategories(node.children.isEmpty() ? Collections.emptyList() : toResponseDtos(node.children));
+        return dto;
+    }
+
+    private static final class Node {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Long parentId;
+        private final List<Node> children = new ArrayList<>();
+
+        private Node(Long id, String name, String description, Long parentId) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.parentId = parentId;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.dreamcollections.services.product.cache;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.dto.ResponseCacheStatisticsDto;
+import com.dreamcollections.services.product.event.CategoryTreeChangedEvent;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductPricesChangedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.flashsale.FlashSaleStockCounters;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Serialized JSON bodies of {@code GET /products/{id}}, so hot products are served without a database read,
+ * DTO mapping or Jackson pass.
+ * <p>
+ * Product writes, price updates, stock changes and category changes evict the affected entries and bump an invalidation
+ * version. A load remembers the version it started under and is only stored if the version has not moved since,
+ * so a load racing a write can never put stale bytes back. The available quantity shown per variant
+ * also depends on checkout holds and flash-sale counters, which change without events: a hit recomputes it from
+ * those in-memory counters and reloads if it no longer matches what the bytes say.
+ * <p>
+ * Events only reach the instance that made the change. Entries are therefore also reloaded once older than the
+ * configured TTL, which bounds how long another instance's writes go unseen, as the second-level cache TTLs do.
+ * <p>
+ * Memory is bounded by the total body size; past the limit the least recently read entries are evicted.
+ */
+@Component
+public class ProductDetailResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductDetailResponseCache.class);
+
+    // Eviction frees down to this fraction of the limit so that it does not run on every insert
+    private static final double EVICT_TO = 0.9;
+
+    private final ObjectMapper objectMapper;
+    private final StockReservationStore stockReservationStore;
+    private final FlashSaleStockCounters flashSaleStockCounters;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Variant ID -> product ID of cached entries, for stock change events. Guarded by this.
+    private final Map<Long, Long> productByVariant = new HashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong sizeBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public ProductDetailResponseCache(ObjectMapper objectMapper, StockReservationStore stockReservationStore,
+                                      FlashSaleStockCounters flashSaleStockCounters,
+                                      @Value("${catalog.response-cache.max-bytes:16777216}") long maxBytes,
+                                      @Value("${catalog.response-cache.ttl:PT1M}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.stockReservationStore = stockReservationStore;
+        this.flashSaleStockCounters = flashSaleStockCounters;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the product's JSON body, from the cache if current, otherwise from {@code loader} (and caches it).
+     * Empty if the loader finds no product; misses are not cached.
+     */
+    public Optional<byte[]> get(Long productId, Function<Long, Optional<ProductResponseDto>> loader) {
+        Entry entry = entries.get(productId);
+        if (entry != null && System.nanoTime() - entry.loadedNanos < ttlNanos && availabilityUnchanged(entry)) {
+            entry.lastReadNanos = System.nanoTime();
+            hits.increment();
+            return Optional.of(entry.body);
+        }
+        misses.increment();
+        long loadedUnder = version.get();
+        Optional<ProductResponseDto> product = loader.apply(productId);
+        if (product.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] body = serialize(product.get());
+        if (maxBytes > 0 && body.length <= maxBytes) {
+            put(new Entry(productId, body, product.get().getVariants()), loadedUnder);
+        }
+        return Optional.of(body);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+        invalidate(event.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        version.incrementAndGet();
+        for (Long productId : event.getPricesByProductId().keySet()) {
+            invalidate(productId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        version.incrementAndGet();
+        invalidateVariants(event.getVariantIds());
+    }
+
+    // Category names are embedded in every body; category writes are rare, so drop everything
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryTreeChanged(CategoryTreeChangedEvent event) {
+        clear();
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        for (Long productId : new ArrayList<>(entries.keySet())) {
+            invalidate(productId);
+        }
+    }
+
+    public ResponseCacheStatisticsDto getStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long reads = hitCount + missCount;
+        return new ResponseCacheStatisticsDto(entries.size(), sizeBytes.get(), maxBytes, hitCount, missCount,
+                reads == 0 ? null : (double) hitCount / reads, evictions.sum(), invalidations.sum());
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        invalidations.reset();
+    }
+
+    // Entries and their variant mappings only change while holding this
+    private synchronized void put(Entry entry, long loadedUnder) {
+        if (version.get() != loadedUnder) {
+            return; // Something changed while loading; the bytes may already be stale
+        }
+        // Events bump the version before looking up variants under this lock, so a stock event either sees
+        // this mapping or has already made the check above fail
+        for (long variantId : entry.variantIds) {
+            productByVariant.put(variantId, entry.productId);
+        }
+        Entry previous = entries.put(entry.productId, entry);
+        sizeBytes.addAndGet(entry.body.length - (previous != null ? previous.body.length : 0));
+        if (sizeBytes.get() > maxBytes) {
+            evictLeastRecentlyRead();
+        }
+    }
+
+    private synchronized void invalidate(Long productId) {
+        Entry removed = entries.remove(productId);
+        if (removed != null) {
+            sizeBytes.addAndGet(-removed.body.length);
+            invalidations.increment();
+            for (long variantId : removed.variantIds) {
+                productByVariant.remove(variantId, productId);
+            }
+        }
+    }
+
+    private synchronized void invalidateVariants(List<Long> variantIds) {
+        for (Long variantId : variantIds) {
+            Long productId = productByVariant.get(variantId);
+            if (productId != null) {
+                invalidate(productId);
+            }
+        }
+    }
+
+    // Caller holds this
+    private void evictLeastRecentlyRead() {
+        List<Entry> byLastRead = new ArrayList<>(entries.values());
+        byLastRead.sort(Comparator.comparingLong(entry -> entry.lastReadNanos));
+        long target = (long) (maxBytes * EVICT_TO);
+        for (Entry entry : byLastRead) {
+            if (sizeBytes.get() <= target) {
+                break;
+            }
+            if (entries.remove(entry.productId, entry)) {
+                sizeBytes.addAndGet(-entry.body.length);
+                evictions.increment();
+                for (long variantId : entry.variantIds) {
+                    productByVariant.remove(variantId, entry.productId);
+                }
+            }
+        }
+        log.debug("Product response cache evicted down to {} bytes in {} entries.", sizeBytes.get(), entries.size());
+    }
+
+    // Same computation as the service's availableQuantity, from the committed stock the body was built with
+    private boolean availabilityUnchanged(Entry entry) {
+        for (int i = 0; i < entry.variantIds.length; i++) {
+            long variantId = entry.variantIds[i];
+            int sellable = flashSaleStockCounters.approximateAvailable(variantId).orElse(entry.stockQuantities[i]);
+            int available = Math.max(0, sellable - stockReservationStore.heldQuantity(variantId));
+            if (available != entry.availableQuantities[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] serialize(ProductResponseDto product) {
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+    }
+
+    private static final class Entry {
+        private final Long productId;
+        private final byte[] body;
+        private final long[] variantIds;
+        private final int[] stockQuantities;
+        private final int[] availableQuantities;
+        private final long loadedNanos = System.nanoTime();
+        private volatile long lastReadNanos = loadedNanos;
+
+        Entry(Long productId, byte[] body, List<ProductVariantDto> variants) {
+            this.productId = productId;
+            this.body = body;
+            int count = variants != null ? variants.size() : 0;
+            this.variantIds = new long[count];
+            this.stockQuantities = new int[count];
+            this.availableQuantities = new int[count];
+            for (int i = 0; i < count; i++) {
+                ProductVariantDto variant = variants.get(i);
+                variantIds[i] = variant.getId();
+                stockQuantities[i] = variant.getStockQuantity() != null ? variant.getStockQuantity() : 0;
+                availableQuantities[i] = variant.getAvailableQuantity() != null ? variant.getAvailableQuantity() : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.dreamcollections.services.product.catalogimport;
+
+public enum CatalogImportFormat {
+    // One product per line, as written by GET /products/export
+    NDJSON,
+    // One variant per row under a header row; consecutive rows of the same product are grouped
+    CSV
+}
@@ -0,0 +1,95 @@
+package com.dreamcollections.services.product.catalogimport;
+
+import com.dreamcollections.services.product.dto.ProductRequestDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.rowset.serial.SerialClob;
+import java.math.RoundingMode;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Inserts imported products and their variants with plain JDBC batches.
+ * <p>
+ * The entities use IDENTITY columns, which would make Hibernate insert row by row to read back each generated key.
+ * Instead, IDs for a whole chunk are taken from the sequences behind those columns in one query per table and
+ * the rows are inserted with explicit IDs, so every insert can be batched. The ID queries are PostgreSQL-specific.
+ */
+@Component
+public class CatalogImportWriter {
+
+    private static final String NEXT_PRODUCT_IDS =
+            "SELECT nextval(pg_get_serial_sequence('products', 'id')) FROM generate_series(1, ?)";
+    private static final String NEXT_VARIANT_IDS =
+            "SELECT nextval(pg_get_serial_sequence('product_variants', 'id')) FROM generate_series(1, ?)";
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (id, name, description, price, image_url, video_url, category_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_VARIANT =
+            "INSERT INTO product_variants (id, product_id, size, stock_quantity) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public CatalogImportWriter(JdbcTemplate jdbcTemplate, @Value("${catalog.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts validated products (category ID resolved) and their variants. Must run inside a transaction.
+     * Returns the new product IDs in input order; the variant DTOs get their new IDs and product IDs set.
+     */
+    public List<Long> insert(List<? extends ProductRequestDto> products) {
+        List<Long> productIds = allocateIds(NEXT_PRODUCT_IDS, products.size());
+        List<ProductVariantDto> variants = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            for (ProductVariantDto variant : products.get(i).getVariants()) {
+                variant.setProductId(productIds.get(i));
+                variants.add(variant);
+            }
+        }
+        List<Long> variantIds = allocateIds(NEXT_VARIANT_IDS, variants.size());
+        for (int i = 0; i < variants.size(); i++) {
+            variants.get(i).setId(variantIds.get(i));
+        }
+
+        List<Integer> positions = IntStream.range(0, products.size()).boxed().collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, positions, batchSize, (statement, i) -> {
+            ProductRequestDto product = products.get(i);
+            statement.setLong(1, productIds.get(i));
+            statement.setString(2, product.getName());
+            // The description is a @Lob (a large object column on PostgreSQL), so it is bound as a Clob
+            if (product.getDescription() != null) {
+                statement.setClob(3, new SerialClob(product.getDescription().toCharArray()));
+            } else {
+                statement.setNull(3, Types.CLOB);
+            }
+            statement.setBigDecimal(4, product.getPrice().setScale(2, RoundingMode.HALF_UP));
+            statement.setString(5, product.getImageUrl());
+            statement.setString(6, product.getVideoUrl());
+            statement.setLong(7, product.getCategoryId());
+        });
+        jdbcTemplate.batchUpdate(INSERT_VARIANT, variants, batchSize, (statement, variant) -> {
+            statement.setLong(1, variant.getId());
+            statement.setLong(2, variant.getProductId());
+            statement.setString(3, variant.getSize());
+            statement.setInt(4, variant.getStockQuantity());
+        });
+        return productIds;
+    }
+
+    private List<Long> allocateIds(String query, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(query, Long.class, count);
+    }
+}
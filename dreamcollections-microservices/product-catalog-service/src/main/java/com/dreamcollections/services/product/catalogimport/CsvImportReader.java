@@ -0,0 +1,230 @@
+package com.dreamcollections.services.product.catalogimport;
+
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads products from RFC 4180 CSV with a header row. Recognised columns (any order, case-insensitive):
+ * name, description, price, imageUrl, videoUrl, categoryId, category, size, stockQuantity.
+ * <p>
+ * Each row is one variant; consecutive rows with the same name and category make up one product, whose other
+ * fields are taken from its first row. A row with an empty size adds no variant.
+ */
+public class CsvImportReader implements ImportRecordReader {
+
+    private static final List<String> COLUMNS = List.of(
+            "name", "description", "price", "imageUrl", "videoUrl", "categoryId", "category", "size", "stockQuantity");
+
+    private final BufferedReader in;
+    private Map<String, Integer> columns;
+    // Physical line the reader is on (fields may span lines inside quotes)
+    private int line = 1;
+    // First row of the next product, read while looking for the end of the current one
+    private Row pending;
+    private boolean unreadable;
+
+    public CsvImportReader(InputStream in) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (unreadable) {
+            return null;
+        }
+        if (columns == null) {
+            Row header = readRow();
+            if (header == null) {
+                return null;
+            }
+            if (header.error != null) {
+                unreadable = true;
+                return ImportRecord.failed(header.line, header.error);
+            }
+            columns = mapColumns(header.fields);
+            if (!columns.containsKey("name") || !columns.containsKey("price")
+                    || !(columns.containsKey("category") || columns.containsKey("categoryid"))) {
+                // Nothing below the header can be read without these
+                unreadable = true;
+                return ImportRecord.failed(header.line, "Header must name the columns name, price and category or categoryId; found " + header.fields + ".");
+            }
+        }
+
+        Row first = pending != null ? pending : readRow();
+        pending = null;
+        if (first == null) {
+            return null;
+        }
+        if (first.error != null) {
+            return ImportRecord.failed(first.line, first.error);
+        }
+
+        ImportedProduct product = new ImportedProduct();
+        product.setVariants(new ArrayList<>());
+        String error = fillProduct(product, first);
+        if (error == null) {
+            error = addVariant(product, first);
+        }
+        Row row;
+        while ((row = readRow()) != null) {
+            if (row.error != null || !sameProduct(first, row)) {
+                pending = row;
+                break;
+            }
+            if (error == null) {
+                error = addVariant(product, row);
+            }
+        }
+        return error == null ? ImportRecord.of(first.line, product) : ImportRecord.failed(first.line, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String fillProduct(ImportedProduct product, Row row) {
+        product.setName(value(row, "name"));
+        product.setDescription(value(row, "description"));
+        product.setImageUrl(value(row, "imageurl"));
+        product.setVideoUrl(value(row, "videourl"));
+        product.setCategory(value(row, "category"));
+        String price = value(row, "price");
+        String categoryId = value(row, "categoryid");
+        try {
+            product.setPrice(price != null ? new BigDecimal(price) : null);
+        } catch (NumberFormatException e) {
+            return "Invalid price '" + price + "'.";
+        }
+        try {
+            product.setCategoryId(categoryId != null ? Long.valueOf(categoryId) : null);
+        } catch (NumberFormatException e) {
+            return "Invalid categoryId '" + categoryId + "'.";
+        }
+        return null;
+    }
+
+    private String addVariant(ImportedProduct product, Row row) {
+        String size = value(row, "size");
+        if (size == null) {
+            return null;
+        }
+        String stock = value(row, "stockquantity");
+        try {
+            product.getVariants().add(new ProductVariantDto(null, size, stock != null ? Integer.valueOf(stock) : null));
+            return null;
+        } catch (NumberFormatException e) {
+            return "Invalid stockQuantity '" + stock + "' on line " + row.line + ".";
+        }
+    }
+
+    private boolean sameProduct(Row first, Row row) {
+        return Objects.equals(value(first, "name"), value(row, "name"))
+                && Objects.equals(value(first, "category"), value(row, "category"))
+                && Objects.equals(value(first, "categoryid"), value(row, "categoryid"));
+    }
+
+    // Trimmed cell of the given (lower-case) column; null if the column is absent or the cell is empty
+    private String value(Row row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.fields.size()) {
+            return null;
+        }
+        String value = row.fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Map<String, Integer> mapColumns(List<String> header) {
+        Map<String, Integer> mapped = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Spreadsheet exports often start with a byte order mark
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            for (String column : COLUMNS) {
+                if (column.toLowerCase(Locale.ROOT).equals(name)) {
+                    mapped.putIfAbsent(name, i);
+                }
+            }
+        }
+        return mapped;
+    }
+
+    // Next non-blank record; null at the end of the input
+    private Row readRow() throws IOException {
+        while (true) {
+            int startLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            boolean endOfRecord = false;
+            int c;
+            while (!endOfRecord && (c = in.read()) != -1) {
+                read = true;
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        int next = in.read();
+                        if (next == '"') {
+                            field.append('"'); // Escaped quote
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                in.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    endOfRecord = true;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            if (quoted) {
+                return new Row(startLine, fields, "Unterminated quoted field starting on line " + startLine + ".");
+            }
+            fields.add(field.toString());
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue; // Blank line
+            }
+            return new Row(startLine, fields, null);
+        }
+    }
+
+    private static final class Row {
+        private final int line;
+        private final List<String> fields;
+        private final String error;
+
+        Row(int line, List<String> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+}
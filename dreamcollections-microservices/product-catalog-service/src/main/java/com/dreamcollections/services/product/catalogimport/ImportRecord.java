@@ -0,0 +1,39 @@
+package com.dreamcollections.services.product.catalogimport;
+
+// A product read from an import file, or the reason it could not be read. The line is where the product starts.
+public final class ImportRecord {
+
+    private final int line;
+    private final ImportedProduct product;
+    private final String error;
+
+    private ImportRecord(int line, ImportedProduct product, String error) {
+        this.line = line;
+        this.product = product;
+        this.error = error;
+    }
+
+    public static ImportRecord of(int line, ImportedProduct product) {
+        return new ImportRecord(line, product, null);
+    }
+
+    public static ImportRecord failed(int line, String error) {
+        return new ImportRecord(line, null, error);
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public ImportedProduct getProduct() {
+        return product;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
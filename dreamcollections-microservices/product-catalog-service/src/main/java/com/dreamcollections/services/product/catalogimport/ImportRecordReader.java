@@ -0,0 +1,10 @@
+package com.dreamcollections.services.product.catalogimport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Pulls products from an import stream one at a time, so memory use does not depend on the file size
+public interface ImportRecordReader extends Closeable {
+    // The next product (or unreadable entry); null at the end of the input
+    ImportRecord next() throws IOException;
+}
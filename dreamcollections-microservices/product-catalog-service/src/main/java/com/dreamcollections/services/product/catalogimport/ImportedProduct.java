@@ -0,0 +1,20 @@
+package com.dreamcollections.services.product.catalogimport;
+
+import com.dreamcollections.services.product.dto.ProductRequestDto;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+// One product read from an import file. Same fields and validation as a create request, except that the
+// category may also be given by name or by its path from the root (as exported); the last path element is used.
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ImportedProduct extends ProductRequestDto {
+    private String category;
+    private List<String> categoryPath;
+}
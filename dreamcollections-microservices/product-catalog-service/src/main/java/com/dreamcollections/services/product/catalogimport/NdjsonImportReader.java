@@ -0,0 +1,46 @@
+package com.dreamcollections.services.product.catalogimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// Parses each line on its own, so a malformed line is reported and skipped without losing the rest of the file
+public class NdjsonImportReader implements ImportRecordReader {
+
+    private final BufferedReader in;
+    private final ObjectReader productReader;
+    private int line;
+
+    public NdjsonImportReader(InputStream in, ObjectMapper objectMapper) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.productReader = objectMapper.readerFor(ImportedProduct.class);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        String text;
+        while ((text = in.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                return ImportRecord.of(line, productReader.readValue(text));
+            } catch (JsonProcessingException e) {
+                return ImportRecord.failed(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,169 @@
+package com.dreamcollections.services.product.changefeed;
+
+import com.dreamcollections.services.product.dto.CatalogChangeDto;
+import com.dreamcollections.services.product.dto.CatalogChangesDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductPricesChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.model.CatalogChange;
+import com.dreamcollections.services.product.repository.CatalogChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Read side of the catalog change log. Serves "changes since N" requests, optionally long-polling: a request
+ * with nothing new is parked and completed as soon as a catalog write commits, or answered empty on timeout.
+ * <p>
+ * Sequence numbers are drawn before commit, so a number can be missing because its transaction is still committing.
+ * A reader is never moved past such a gap until the change after it is older than {@code catalog.changes.commit-grace};
+ * by then the missing number has committed or was rolled back for good. That wait is what keeps a
+ * {@code since} cursor from skipping a late commit.
+ */
+@Component
+public class CatalogChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeFeed.class);
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    @Value("${catalog.changes.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${catalog.changes.commit-grace:PT5S}")
+    private Duration commitGrace;
+
+    @Autowired
+    public CatalogChangeFeed(CatalogChangeRepository catalogChangeRepository, PlatformTransactionManager transactionManager) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public CatalogChangesDto read(long since, int limit) {
+        LocalDateTime settled = LocalDateTime.now().minus(commitGrace);
+        long latest = catalogChangeRepository.findLatestSequence().orElse(0L);
+        Optional<CatalogChange> oldest = catalogChangeRepository.findFirstByOrderBySequenceAsc();
+        // Numbers missing below the oldest row were pruned, unless that row is recent enough for them to still commit
+        boolean pruned = oldest.isPresent() && since < oldest.get().getSequence() - 1 && !oldest.get().getChangedAt().isAfter(settled);
+        if (since > latest || pruned) {
+            return new CatalogChangesDto(Collections.emptyList(), latest, latest, false, true);
+        }
+        List<CatalogChange> changes = catalogChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(since, PageRequest.of(0, limit + 1));
+        List<CatalogChangeDto> visible = new ArrayList<>(changes.size());
+        boolean heldBack = false;
+        long expected = since + 1;
+        for (CatalogChange change : changes) {
+            if (change.getSequence() != expected && change.getChangedAt().isAfter(settled)) {
+                heldBack = true; // The missing numbers may still commit
+                break;
+            }
+            visible.add(toDto(change));
+            expected = change.getSequence() + 1;
+        }
+        boolean hasMore = visible.size() > limit;
+        List<CatalogChangeDto> page = hasMore ? visible.subList(0, limit) : visible;
+        long nextSince = page.isEmpty() ? since : page.get(page.size() - 1).getSequence();
+        // Held back at a gap, the reader is only as far as it can safely continue from
+        return new CatalogChangesDto(page, nextSince, heldBack ? nextSince : Math.max(latest, nextSince), hasMore, false);
+    }
+
+    public DeferredResult<CatalogChangesDto> poll(long since, int limit, long timeoutMillis) {
+        DeferredResult<CatalogChangesDto> result = new DeferredResult<>(timeoutMillis);
+        Waiter waiter = new Waiter(since, limit, result);
+        // Park first, then check: a change committing in between will find this waiter
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        result.onTimeout(() -> result.setResult(new CatalogChangesDto(Collections.emptyList(), since, since, false, false)));
+
+        CatalogChangesDto current = read(since, limit);
+        if (!current.getChanges().isEmpty() || current.isResetRequired()) {
+            result.setResult(current);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        wakeWaiters();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        wakeWaiters();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        wakeWaiters();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        wakeWaiters();
+    }
+
+    @Scheduled(cron = "${catalog.changes.prune-cron:0 30 3 * * *}")
+    public void pruneOldChanges() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> catalogChangeRepository.deleteOlderThan(cutoff));
+        log.info("Pruned {} catalog changes older than {}.", deleted, cutoff);
+    }
+
+    private void wakeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        // Waiters are usually caught up at the same position, so read once per distinct (since, limit)
+        Map<String, CatalogChangesDto> readsByPosition = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.result.isSetOrExpired()) {
+                continue;
+            }
+            CatalogChangesDto changes = readsByPosition.computeIfAbsent(waiter.since + ":" + waiter.limit,
+                    key -> read(waiter.since, waiter.limit));
+            if (!changes.getChanges().isEmpty() || changes.isResetRequired()) {
+                waiter.result.setResult(changes);
+            }
+        }
+    }
+
+    private static CatalogChangeDto toDto(CatalogChange change) {
+        return new CatalogChangeDto(change.getSequence(), change.getEntityType().name(), change.getEntityId(),
+                change.getChangeType().name(), change.getChangedAt());
+    }
+
+    private static final class Waiter {
+        private final long since;
+        private final int limit;
+        private final DeferredResult<CatalogChangesDto> result;
+
+        private Waiter(long since, int limit, DeferredResult<CatalogChangesDto> result) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.dreamcollections.services.product.changefeed;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductPricesChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.model.CatalogChange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes the catalog change log (transactional outbox). Runs in the BEFORE_COMMIT phase of the transaction
+ * that made the change, so the log row commits or rolls back together with it. An event published outside a
+ * transaction is recorded in a transaction of its own.
+ * <p>
+ * Sequence numbers come from the {@code catalog_change_seq} database sequence. Nothing is locked, so catalog writes
+ * commit independently of each other, and a transaction may commit after one holding a higher number.
+ * {@link CatalogChangeFeed} holds readers back at such a gap until the missing number has had time to commit.
+ */
+@Component
+public class CatalogChangeRecorder {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // REQUIRED: joins the committing transaction (Spring rejects @Transactional on these listeners)
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CatalogChangeRecorder(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        CatalogChange.ChangeType changeType = CatalogChange.ChangeType.valueOf(event.getChangeType().name());
+        transactionTemplate.executeWithoutResult(status -> append(CatalogChange.EntityType.PRODUCT, event.getProductId(), changeType));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (ProductResponseDto product : event.getProducts()) {
+                append(CatalogChange.EntityType.PRODUCT, product.getId(), CatalogChange.ChangeType.CREATED);
+            }
+        });
+    }
+
+    // Readers see a repriced product as an ordinary update and re-fetch it
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> event.getPricesByProductId().keySet().stream().sorted()
+                .forEach(productId -> append(CatalogChange.EntityType.PRODUCT, productId, CatalogChange.ChangeType.UPDATED)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long variantId : event.getVariantIds()) {
+                append(CatalogChange.EntityType.VARIANT, variantId, CatalogChange.ChangeType.STOCK_CHANGED);
+            }
+        });
+    }
+
+    private void append(CatalogChange.EntityType entityType, Long entityId, CatalogChange.ChangeType changeType) {
+        entityManager.persist(new CatalogChange(entityType, entityId, changeType, LocalDateTime.now()));
+    }
+}
@@ -62,6 +62,7 @@ public class SecurityConfig {
                     .requestMatchers(
                             "/products/**",
                             "/categories/**",
+                            "/catalog/changes/**", // Change feed for downstream caches
                             "/swagger-ui.html",
                             "/swagger-ui/**",
                             "/v3/api-docs/**",
@@ -0,0 +1,44 @@
+package com.dreamcollections.services.product.controller;
+
+import com.dreamcollections.services.product.dto.CacheStatisticsDto;
+import com.dreamcollections.services.product.payload.response.MessageResponse;
+import com.dreamcollections.services.product.service.CatalogCacheService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+// Operations view of the Hibernate second-level cache (Category, Product, ProductVariant regions) and the
+// serialized product response cache
+@RestController
+@RequestMapping("/catalog/cache")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+public class CatalogCacheController {
+
+    private final CatalogCacheService catalogCacheService;
+
+    @Autowired
+    public CatalogCacheController(CatalogCacheService catalogCacheService) {
+        this.catalogCacheService = catalogCacheService;
+    }
+
+    // Hit/miss/put counters in total and per region, plus response cache size and hit ratio
+    @GetMapping
+    public ResponseEntity<CacheStatisticsDto> getStatistics() {
+        return ResponseEntity.ok(catalogCacheService.getStatistics());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<MessageResponse> evictAll() {
+        catalogCacheService.evictAll();
+        return ResponseEntity.ok(new MessageResponse("All second-level cache regions and cached product responses evicted."));
+    }
+
+    @DeleteMapping("/statistics")
+    public ResponseEntity<MessageResponse> resetStatistics() {
+        catalogCacheService.resetStatistics();
+        return ResponseEntity.ok(new MessageResponse("Cache statistics reset."));
+    }
+}
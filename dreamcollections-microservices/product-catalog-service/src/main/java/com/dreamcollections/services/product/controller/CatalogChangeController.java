@@ -0,0 +1,49 @@
+package com.dreamcollections.services.product.controller;
+
+import com.dreamcollections.services.product.changefeed.CatalogChangeFeed;
+import com.dreamcollections.services.product.dto.CatalogChangesDto;
+import com.dreamcollections.services.product.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Change feed for downstream caches (cart, order, search feeds). Start with since=0 (or the latestSequence of a
+// full refetch) and keep polling with the returned nextSince.
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/catalog/changes")
+public class CatalogChangeController {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeController.class);
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_WAIT_SECONDS = 60;
+
+    private final CatalogChangeFeed catalogChangeFeed;
+
+    @Autowired
+    public CatalogChangeController(CatalogChangeFeed catalogChangeFeed) {
+        this.catalogChangeFeed = catalogChangeFeed;
+    }
+
+    // Long-poll: with waitSeconds > 0 the request is held until a change arrives or the wait elapses
+    @GetMapping
+    public DeferredResult<CatalogChangesDto> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "25") int waitSeconds) {
+        if (since < 0) {
+            throw new BadRequestException("since cannot be negative.");
+        }
+        log.debug("Request for catalog changes since {}. Limit: {}, Wait: {}s", since, limit, waitSeconds);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int boundedWait = Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS));
+        if (boundedWait == 0) {
+            DeferredResult<CatalogChangesDto> immediate = new DeferredResult<>();
+            immediate.setResult(catalogChangeFeed.read(since, boundedLimit));
+            return immediate;
+        }
+        return catalogChangeFeed.poll(since, boundedLimit, boundedWait * 1000L);
+    }
+}
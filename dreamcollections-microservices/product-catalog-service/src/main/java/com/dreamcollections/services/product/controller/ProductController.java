@@ -1,27 +1,64 @@
 package com.dreamcollections.services.product.controller;
 
+import com.dreamcollections.services.product.cache.ProductDetailResponseCache;
+import com.dreamcollections.services.product.catalogimport.CatalogImportFormat;
+import com.dreamcollections.services.product.dto.BulkPriceUpdateRequestDto;
+import com.dreamcollections.services.product.dto.BulkPriceUpdateResultDto;
+import com.dreamcollections.services.product.dto.CatalogImportReportDto;
+import com.dreamcollections.services.product.dto.CursorPageDto;
+import com.dreamcollections.services.product.dto.FacetedProductPageDto;
+import com.dreamcollections.services.product.dto.LowStockVariantDto;
+import com.dreamcollections.services.product.dto.ProductFilterCriteria;
+import com.dreamcollections.services.product.dto.ProductListingField;
 import com.dreamcollections.services.product.dto.ProductRequestDto;
 import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductSummaryDto;
+import com.dreamcollections.services.product.dto.ProductVariantDetailDto;
 import com.dreamcollections.services.product.dto.ProductVariantDto; // For stock update response
+import com.dreamcollections.services.product.dto.SalesReportDto;
+import com.dreamcollections.services.product.dto.StockDecrementRequestDto;
+import com.dreamcollections.services.product.dto.StockDecrementResultDto;
+import com.dreamcollections.services.product.dto.SuggestionDto;
 import com.dreamcollections.services.product.dto.UpdateStockRequestDto; // New DTO for stock update
+import com.dreamcollections.services.product.exception.BadRequestException;
+import com.dreamcollections.services.product.lowstock.LowStockAlertStream;
+import com.dreamcollections.services.product.lowstock.LowStockIndex;
 import com.dreamcollections.services.product.payload.response.MessageResponse;
+import com.dreamcollections.services.product.service.CatalogExportService;
+import com.dreamcollections.services.product.service.CatalogImportService;
+import com.dreamcollections.services.product.service.ProductPriceService;
 import com.dreamcollections.services.product.service.ProductService;
 
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List; // For getProductVariantsByIds
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @SecurityRequirement(name = "bearerAuth")
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -30,10 +67,33 @@ import java.util.Optional;
 public class ProductController {
 
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+    private static final int MAX_SCROLL_SIZE = 200;
+    private static final int MAX_LOW_STOCK_LIMIT = 1000;
 
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private ProductDetailResponseCache productDetailResponseCache;
+
+    @Autowired
+    private ProductPriceService productPriceService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private LowStockAlertStream lowStockAlertStream;
+
+    @Value("${stock.low-stock.default-threshold:5}")
+    private int defaultLowStockThreshold;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductResponseDto> createProduct(@Valid @RequestBody ProductRequestDto productRequestDto) {
@@ -42,59 +102,145 @@ public class ProductController {
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDto> getProductById(@PathVariable Long id) {
+    // Served as pre-serialized JSON from ProductDetailResponseCache; only misses reach the service and Jackson
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ProductResponseDto.class)))
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id) {
         log.debug("Request to get product by ID: {}", id);
-        Optional<ProductResponseDto> productDto = productService.getProductById(id);
-        return productDto.map(ResponseEntity::ok)
-                         .orElse(ResponseEntity.notFound().build());
+        Optional<byte[]> body = productDetailResponseCache.get(id, productService::getProductById);
+        return body.map(bytes -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(bytes))
+                   .orElse(ResponseEntity.notFound().build());
     }
 
+    // sort=popularity lists best sellers first (decayed units sold, see BestSellerRanking); the direction is ignored.
+    // Listings return ProductSummaryDto; fields=description,videoUrl adds those heavy fields (all listing endpoints).
     @GetMapping
-    public ResponseEntity<Page<ProductResponseDto>> getAllProducts(
+    public ResponseEntity<Page<ProductSummaryDto>> getAllProducts(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) List<String> fields,
             @PageableDefault(size = 10, sort = "name") Pageable pageable) {
-        log.debug("Request to get products. CategoryId: {}, Search: {}, MinPrice: {}, MaxPrice: {}, Page: {}, Size: {}",
-                  categoryId, search, minPrice, maxPrice, pageable.getPageNumber(), pageable.getPageSize());
-
-        Page<ProductResponseDto> products;
-
-        if (categoryId != null) {
-            // Use hierarchical filtering for category-based queries
-            products = productService.getProductsByCategoryIdIncludingSubcategories(categoryId, pageable);
-        } else if (search != null && !search.trim().isEmpty()) {
-            // Search by name
-            products = productService.searchProductsByName(search.trim(), pageable);
-        } else {
-            // Get all products
-            products = productService.getAllProducts(pageable);
-        }
+        log.debug("Request to get products. CategoryId: {}, Search: {}, MinPrice: {}, MaxPrice: {}, InStock: {}, Page: {}, Size: {}",
+                  categoryId, search, minPrice, maxPrice, inStock, pageable.getPageNumber(), pageable.getPageSize());
 
+        // All filters are optional and combine with each other (category includes its subcategories)
+        ProductFilterCriteria criteria = new ProductFilterCriteria(categoryId, search, minPrice, maxPrice, inStock);
+        Page<ProductSummaryDto> products = productService.filterProducts(criteria, pageable, parseFields(fields));
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Cursor (keyset) variant of GET /products, ordered by name then id.
+     * Accepts the same filters; pass the returned nextCursor to get the next slice. Skips the COUNT query,
+     * so deep pages cost the same as the first one.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<ProductSummaryDto>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) List<String> fields) {
+        log.debug("Request to scroll products. Cursor: {}, Size: {}, CategoryId: {}, Search: {}", cursor, size, categoryId, search);
+        int boundedSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        ProductFilterCriteria criteria = new ProductFilterCriteria(categoryId, search, minPrice, maxPrice, inStock);
+        return ResponseEntity.ok(productService.scrollProducts(criteria, cursor, boundedSize, parseFields(fields)));
+    }
+
+    /**
+     * Same filters as GET /products plus variant sizes (repeat the parameter to select several), returned with
+     * category, size, price-range and stock facet counts. Sortable by name, price, id or popularity; text searches
+     * keep relevance order unless sorted by popularity.
+     */
+    @GetMapping("/faceted")
+    public ResponseEntity<FacetedProductPageDto> getFacetedProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) List<String> size,
+            @RequestParam(required = false) List<String> fields,
+            @PageableDefault(size = 10, sort = "name") Pageable pageable) {
+        log.debug("Request for faceted products. CategoryId: {}, Search: {}, Sizes: {}, Page: {}", categoryId, search, size, pageable.getPageNumber());
+        ProductFilterCriteria criteria = new ProductFilterCriteria(categoryId, search, minPrice, maxPrice, inStock);
+        return ResponseEntity.ok(productService.searchWithFacets(criteria, size, pageable, parseFields(fields)));
+    }
+
+    // Type-ahead for the search box: served from an in-memory trie, so it is cheap enough to call on every keystroke
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggest(prefix, limit));
+    }
+
+    // Whole catalog as NDJSON (one product per line, with variants and category path) for feeds and indexers.
+    // Streamed from a single database cursor: constant memory, no OFFSET/COUNT queries, first bytes immediately.
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCatalog() {
+        log.info("Request to export the full catalog");
+        StreamingResponseBody body = catalogExportService::exportCatalog;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.ndjson\"")
+                .body(body);
+    }
+
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Page<ProductResponseDto>> getProductsByCategory(
+    public ResponseEntity<Page<ProductSummaryDto>> getProductsByCategory(
             @PathVariable Long categoryId,
+            @RequestParam(required = false) List<String> fields,
             @PageableDefault(size = 10, sort = "name") Pageable pageable) {
         log.debug("Request to get products for category ID: {}. Page: {}, Size: {}", categoryId, pageable.getPageNumber(), pageable.getPageSize());
         // Use hierarchical filtering to include products from subcategories
-        Page<ProductResponseDto> products = productService.getProductsByCategoryIdIncludingSubcategories(categoryId, pageable);
+        Page<ProductSummaryDto> products = productService.getProductsByCategoryIdIncludingSubcategories(categoryId, pageable, parseFields(fields));
         return ResponseEntity.ok(products);
     }
 
+    // Backed by the in-memory search index: results come back in relevance order and the sort parameter is ignored
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductResponseDto>> searchProductsByName(
+    public ResponseEntity<Page<ProductSummaryDto>> searchProductsByName(
             @RequestParam String name,
+            @RequestParam(required = false) List<String> fields,
             @PageableDefault(size = 10, sort = "name") Pageable pageable) {
         log.debug("Request to search products by name: '{}'. Page: {}, Size: {}", name, pageable.getPageNumber(), pageable.getPageSize());
-        Page<ProductResponseDto> products = productService.searchProductsByName(name, pageable);
+        Page<ProductSummaryDto> products = productService.searchProductsByName(name, pageable, parseFields(fields));
         return ResponseEntity.ok(products);
     }
 
+    // Reprices many products in one call: explicit (productId, price) items, or a percentage for a category subtree.
+    // Written with batched/set-based UPDATEs; returns counts only.
+    @PostMapping("/prices/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkPriceUpdateResultDto> updatePrices(@Valid @RequestBody BulkPriceUpdateRequestDto request) {
+        log.info("Request for bulk price update: {} items, category {}, percentage {}",
+                request.getItems() != null ? request.getItems().size() : 0, request.getCategoryId(), request.getPercentage());
+        return ResponseEntity.ok(productPriceService.updatePrices(request));
+    }
+
+    // Bulk import: one product per line (NDJSON) or one variant per row (CSV). The body is parsed as it streams in and
+    // written in chunks that commit independently; the report lists rejected lines and throughput per chunk.
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CatalogImportReportDto> importNdjson(InputStream body) throws IOException {
+        log.info("Request for catalog import (NDJSON)");
+        return ResponseEntity.ok(catalogImportService.importCatalog(body, CatalogImportFormat.NDJSON));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CatalogImportReportDto> importCsv(InputStream body) throws IOException {
+        log.info("Request for catalog import (CSV)");
+        return ResponseEntity.ok(catalogImportService.importCatalog(body, CatalogImportFormat.CSV));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductResponseDto> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductRequestDto productRequestDto) {
@@ -113,7 +259,7 @@ public class ProductController {
 
     // --- Product Variant Specific Endpoints ---
     @GetMapping("/variants/{variantId}")
-    public ResponseEntity<ProductVariantDto> getProductVariantById(@PathVariable Long variantId) {
+    public ResponseEntity<ProductVariantDetailDto> getProductVariantById(@PathVariable Long variantId) {
         log.debug("Request to get product variant by ID: {}", variantId);
         // This endpoint might be used by other services (e.g. CartService, OrderService)
         // or for admin purposes.
@@ -122,18 +268,42 @@ public class ProductController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @PostMapping("/variants/findByIds") // Using POST for request body with list of IDs
-    public ResponseEntity<List<ProductVariantDto>> getProductVariantsByIds(@RequestBody List<Long> variantIds) {
-        log.debug("Request to get product variants by IDs: {}", variantIds);
-        List<ProductVariantDto> variants = productService.getProductVariantsByIds(variantIds);
-        if (variants.isEmpty() && !variantIds.isEmpty()) {
-            // Optional: return 404 if none of the requested variants were found,
-            // or 200 with empty list if some could be valid but not found.
-            // For simplicity, 200 with (potentially empty) list is fine.
+    // Variants with at most `threshold` units available (stock minus checkout holds), lowest first.
+    // Served from the in-memory low-stock index, so this never scans product_variants.
+    @GetMapping("/variants/low-stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<LowStockVariantDto>> getLowStockVariants(
+            @RequestParam(required = false) Integer threshold,
+            @RequestParam(defaultValue = "100") int limit) {
+        int effectiveThreshold = threshold != null ? threshold : defaultLowStockThreshold;
+        if (effectiveThreshold < 0) {
+            throw new BadRequestException("threshold cannot be negative.");
         }
-        return ResponseEntity.ok(variants);
+        log.debug("Request for low-stock variants. Threshold: {}, Limit: {}", effectiveThreshold, limit);
+        lowStockIndex.awaitReady();
+        return ResponseEntity.ok(lowStockIndex.findAtOrBelow(effectiveThreshold, Math.max(1, Math.min(limit, MAX_LOW_STOCK_LIMIT))));
     }
 
+    // Server-sent events: "low" when a variant's available quantity drops to the threshold or below, "recovered" when
+    // it rises above again, "removed" when a low variant is deleted. Fetch the list above first for the current state.
+    @GetMapping(value = "/variants/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamLowStockAlerts(@RequestParam(required = false) Integer threshold) {
+        int effectiveThreshold = threshold != null ? threshold : defaultLowStockThreshold;
+        if (effectiveThreshold < 0) {
+            throw new BadRequestException("threshold cannot be negative.");
+        }
+        log.info("Subscribing to low-stock alerts with threshold {}", effectiveThreshold);
+        return lowStockAlertStream.subscribe(effectiveThreshold);
+    }
+
+    @PostMapping("/variants/findByIds") // Using POST for request body with list of IDs
+    public ResponseEntity<List<ProductVariantDetailDto>> getProductVariantsByIds(@RequestBody long[] variantIds) {
+        // Body is a plain JSON array of IDs, bound to long[] to skip per-element boxing.
+        // Unknown IDs are simply absent from the (200) response.
+        log.debug("Request to get product variants by IDs: {}", Arrays.toString(variantIds));
+        return ResponseEntity.ok(productService.getProductVariantsByIds(variantIds));
+    }
 
     @PutMapping("/variants/{variantId}/stock")
     @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_SERVICE')") // Example, ORDER_SERVICE role for service-to-service
@@ -144,4 +314,56 @@ public class ProductController {
         ProductVariantDto updatedVariant = productService.updateStock(variantId, stockRequest.getStockQuantity());
         return ResponseEntity.ok(updatedVariant);
     }
+
+    // Atomically decrements stock for a batch of variants (checkout). All lines are applied or none are;
+    // the per-line report is returned either way, with 409 Conflict when the batch was rejected.
+    @PostMapping("/variants/stock/decrement")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_SERVICE')")
+    public ResponseEntity<StockDecrementResultDto> decrementStock(@Valid @RequestBody StockDecrementRequestDto request) {
+        log.info("Request to decrement stock for {} lines", request.getItems().size());
+        StockDecrementResultDto result = productService.decrementStock(request.getItems());
+        return ResponseEntity.status(result.isApplied() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
+
+    // Units sold per variant over a window of order activity, reported by order-service for the best-seller ranking
+    @PostMapping("/variants/sales")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_SERVICE')")
+    public ResponseEntity<Void> recordSales(@Valid @RequestBody SalesReportDto report) {
+        log.info("Request to record sales for {} lines", report.getItems().size());
+        productService.recordSales(report);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Flash-sale mode: the variant's stock is served from striped in-memory counters and written back periodically
+    @PutMapping("/variants/{variantId}/flash-sale")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> enableFlashSale(@PathVariable Long variantId) {
+        log.info("Request to enable flash-sale mode for variant ID {}", variantId);
+        productService.setFlashSaleMode(variantId, true);
+        return ResponseEntity.ok(new MessageResponse("Flash-sale mode enabled for variant " + variantId + "."));
+    }
+
+    @DeleteMapping("/variants/{variantId}/flash-sale")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> disableFlashSale(@PathVariable Long variantId) {
+        log.info("Request to disable flash-sale mode for variant ID {}", variantId);
+        productService.setFlashSaleMode(variantId, false);
+        return ResponseEntity.ok(new MessageResponse("Flash-sale mode disabled for variant " + variantId + "."));
+    }
+
+    // Accepts both fields=a,b and repeated fields parameters
+    private static Set<ProductListingField> parseFields(List<String> fields) {
+        Set<ProductListingField> selected = EnumSet.noneOf(ProductListingField.class);
+        if (fields != null) {
+            for (String name : fields) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                selected.add(ProductListingField.fromParameterName(name).orElseThrow(() -> new BadRequestException(
+                        "Unknown field '" + name.trim() + "'. Listings can add: " + Arrays.stream(ProductListingField.values())
+                                .map(ProductListingField::getParameterName).collect(Collectors.joining(", ")) + ".")));
+            }
+        }
+        return selected;
+    }
 }
@@ -0,0 +1,59 @@
+package com.dreamcollections.services.product.controller;
+
+import com.dreamcollections.services.product.dto.StockDecrementResultDto;
+import com.dreamcollections.services.product.dto.StockReservationRequestDto;
+import com.dreamcollections.services.product.dto.StockReservationResultDto;
+import com.dreamcollections.services.product.payload.response.MessageResponse;
+import com.dreamcollections.services.product.service.StockReservationService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Stock holds taken at checkout start and confirmed once the order is paid (service-to-service)
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/products/variants/reservations")
+public class StockReservationController {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationController.class);
+
+    private final StockReservationService stockReservationService;
+
+    @Autowired
+    public StockReservationController(StockReservationService stockReservationService) {
+        this.stockReservationService = stockReservationService;
+    }
+
+    // 201 with the reservation ID, or 409 with per-line results if any line cannot be held
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_SERVICE')")
+    public ResponseEntity<StockReservationResultDto> createReservation(@Valid @RequestBody StockReservationRequestDto request) {
+        log.info("Request to reserve stock for {} lines, TTL {}s", request.getItems().size(), request.getTtlSeconds());
+        StockReservationResultDto result = stockReservationService.createReservation(request.getItems(), request.getTtlSeconds());
+        return ResponseEntity.status(result.isReserved() ? HttpStatus.CREATED : HttpStatus.CONFLICT).body(result);
+    }
+
+    // 404 if the reservation is unknown, already released or expired
+    @PostMapping("/{reservationId}/confirm")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_SERVICE')")
+    public ResponseEntity<StockDecrementResultDto> confirmReservation(@PathVariable String reservationId) {
+        log.info("Request to confirm stock reservation {}", reservationId);
+        StockDecrementResultDto result = stockReservationService.confirmReservation(reservationId);
+        return ResponseEntity.status(result.isApplied() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
+
+    @DeleteMapping("/{reservationId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ORDER_SERVICE')")
+    public ResponseEntity<MessageResponse> releaseReservation(@PathVariable String reservationId) {
+        log.info("Request to release stock reservation {}", reservationId);
+        stockReservationService.releaseReservation(reservationId);
+        return ResponseEntity.ok(new MessageResponse("Stock reservation released successfully."));
+    }
+}
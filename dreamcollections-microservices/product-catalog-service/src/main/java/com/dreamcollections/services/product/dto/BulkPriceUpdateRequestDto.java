@@ -0,0 +1,28 @@
+package com.dreamcollections.services.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Either explicit prices (items) or a percentage rule applied to every product in a category and its
+// subcategories (categoryId + percentage, e.g. -20 for 20% off). Exactly one of the two must be given.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPriceUpdateRequestDto {
+
+    @Valid
+    private List<PriceLineDto> items;
+
+    private Long categoryId;
+
+    @DecimalMin(value = "-99", message = "Percentage cannot be below -99")
+    @DecimalMax(value = "1000", message = "Percentage cannot exceed 1000")
+    private BigDecimal percentage;
+}
@@ -0,0 +1,15 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPriceUpdateResultDto {
+    private int updatedCount;
+    private List<Long> notFoundProductIds; // Explicit items whose product does not exist; empty for a percentage rule
+}
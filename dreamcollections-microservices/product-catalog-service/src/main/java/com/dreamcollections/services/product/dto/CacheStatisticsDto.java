@@ -0,0 +1,23 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// Second-level cache counters since startedAt (startup or the last reset), plus the product response cache
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsDto {
+    private boolean statisticsEnabled;
+    private Instant startedAt;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private Double hitRatio;
+    private List<CacheRegionStatisticsDto> regions;
+    private ResponseCacheStatisticsDto responseCache;
+}
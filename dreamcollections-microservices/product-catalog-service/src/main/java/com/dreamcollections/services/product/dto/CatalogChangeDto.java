@@ -0,0 +1,18 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeDto {
+    private Long sequence;
+    private String entityType; // PRODUCT or VARIANT
+    private Long entityId;
+    private String changeType; // CREATED, UPDATED, DELETED or STOCK_CHANGED
+    private LocalDateTime changedAt;
+}
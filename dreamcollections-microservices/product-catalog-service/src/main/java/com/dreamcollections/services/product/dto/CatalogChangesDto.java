@@ -0,0 +1,21 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One response of the change feed. Poll again with since = nextSince.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesDto {
+    private List<CatalogChangeDto> changes;
+    private long nextSince;
+    private long latestSequence;
+    private boolean hasMore; // more changes are already available; poll again immediately
+    // The requested position is no longer covered by the log (pruned, or the catalog was reset):
+    // drop the local cache, refetch, and continue from latestSequence
+    private boolean resetRequired;
+}
@@ -0,0 +1,19 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportReportDto {
+    private long productsImported;
+    private long variantsImported;
+    private long productsRejected;
+    private long elapsedMillis;
+    private double variantsPerSecond;
+    private List<ImportChunkReportDto> chunks;
+}
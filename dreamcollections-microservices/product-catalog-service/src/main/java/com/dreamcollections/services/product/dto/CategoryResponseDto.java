@@ -14,6 +14,8 @@ public class CategoryResponseDto {
     private Long parentId; // ID of the parent category
     private String parentName; // Name of the parent category
     private List<CategoryResponseDto> subCategories; // List of DTOs for sub-categories
+    private long productCount; // Products directly in this category
+    private long totalProductCount; // Products in this category and all of its sub-categories
 
     public CategoryResponseDto(Long id, String name, String description, Long parentId, String parentName) {
         this.id = id;
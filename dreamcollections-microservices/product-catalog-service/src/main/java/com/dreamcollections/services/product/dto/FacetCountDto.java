@@ -0,0 +1,15 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One value of a facet (e.g. a category or a size) with the number of matching products
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDto {
+    private String value; // What to pass back as the filter parameter
+    private String label; // Display text; same as value where there is nothing better
+    private long count;
+}
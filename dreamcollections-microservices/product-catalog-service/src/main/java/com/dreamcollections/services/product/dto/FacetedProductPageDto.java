@@ -0,0 +1,14 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedProductPageDto {
+    private Page<ProductSummaryDto> products;
+    private ProductFacetsDto facets;
+}
@@ -0,0 +1,25 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of one chunk of a catalog import. Each chunk commits on its own; a chunk whose write failed is
+// rolled back as a whole (committed = false) and all its products count as rejected.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportChunkReportDto {
+    private int chunk;
+    private int firstLine;
+    private int lastLine;
+    private int productsImported;
+    private int variantsImported;
+    private int productsRejected;
+    private boolean committed;
+    private long elapsedMillis; // Parsing, validation and writing
+    private double variantsPerSecond;
+    private List<String> errors; // "line N: reason", capped per chunk
+}
@@ -0,0 +1,30 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Pushed on the low-stock alert stream when a variant's available quantity crosses the subscriber's threshold
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertDto {
+
+    public enum Type {
+        LOW, // Dropped to the threshold or below
+        RECOVERED, // Back above the threshold
+        REMOVED // Was at or below the threshold, and the variant or its product was deleted
+    }
+
+    private Type type;
+    private int threshold;
+    private Long variantId;
+    private Long productId;
+    private String productName;
+    private String size;
+    private Integer previousAvailableQuantity;
+    private Integer availableQuantity; // null for REMOVED
+    private Instant at;
+}
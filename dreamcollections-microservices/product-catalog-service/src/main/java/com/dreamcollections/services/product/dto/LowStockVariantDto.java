@@ -0,0 +1,18 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of the low-stock report, served from the in-memory low-stock index
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockVariantDto {
+    private Long variantId;
+    private Long productId;
+    private String productName;
+    private String size;
+    private Integer stockQuantity; // Committed stock (the live counter for flash-sale variants)
+    private Integer availableQuantity; // stockQuantity minus checkout holds
+}
@@ -0,0 +1,16 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRangeFacetDto {
+    private BigDecimal from; // Inclusive
+    private BigDecimal to; // Exclusive; null for the open-ended top range
+    private long count;
+}
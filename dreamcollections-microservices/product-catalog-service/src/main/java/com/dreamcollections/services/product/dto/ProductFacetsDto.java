@@ -0,0 +1,20 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Facet counts for a product listing. Each facet is counted with every filter applied except its own,
+// so the numbers show what selecting another value of that facet would return.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDto {
+    private List<FacetCountDto> categories; // value = category ID, label = category name
+    private List<FacetCountDto> sizes;
+    private List<PriceRangeFacetDto> priceRanges;
+    private long inStock;
+    private long outOfStock;
+}
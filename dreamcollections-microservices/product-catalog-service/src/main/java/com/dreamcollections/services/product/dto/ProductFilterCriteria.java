@@ -0,0 +1,28 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Optional filters for product listing. Any combination may be set; unset (null) filters are ignored.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilterCriteria {
+    private Long categoryId; // Matches the category and all of its subcategories
+    private String search;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+
+    public boolean hasSearch() {
+        return search != null && !search.trim().isEmpty();
+    }
+
+    // True when anything other than the text search is set
+    public boolean hasStructuredFilters() {
+        return categoryId != null || minPrice != null || maxPrice != null || Boolean.TRUE.equals(inStock);
+    }
+}
@@ -0,0 +1,24 @@
+package com.dreamcollections.services.product.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+// Optional heavy fields a listing request can ask for with ?fields=description,videoUrl
+public enum ProductListingField {
+    DESCRIPTION("description"),
+    VIDEO_URL("videoUrl");
+
+    private final String parameterName;
+
+    ProductListingField(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public static Optional<ProductListingField> fromParameterName(String name) {
+        return Arrays.stream(values()).filter(field -> field.parameterName.equalsIgnoreCase(name.trim())).findFirst();
+    }
+}
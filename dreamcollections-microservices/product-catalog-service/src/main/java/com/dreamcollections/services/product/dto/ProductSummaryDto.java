@@ -0,0 +1,29 @@
+package com.dreamcollections.services.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Product as shown in listings (grids, category pages, search results). The heavy fields are left out unless
+// requested with ?fields=, see ProductListingField; GET /products/{id} returns the full ProductResponseDto.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDto {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private CategoryDto category;
+    private List<ProductVariantDto> variants;
+
+    // Only set when requested; omitted from the JSON otherwise
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String description;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String videoUrl;
+}
@@ -0,0 +1,33 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Variant plus the parent product fields other services need (cart rendering, checkout).
+// Built directly by a JPQL constructor expression, so no entities are hydrated.
+@Data
+@NoArgsConstructor
+public class ProductVariantDetailDto {
+    private Long id;
+    private String size;
+    private Integer stockQuantity;
+    private Integer availableQuantity; // stockQuantity minus active reservations; filled in by the service
+    private Long productId;
+    private String productName;
+    private BigDecimal productPrice;
+    private String productImageUrl;
+
+    // Used by the JPQL projection in ProductVariantRepository
+    public ProductVariantDetailDto(Long id, String size, Integer stockQuantity, Long productId,
+                                   String productName, BigDecimal productPrice, String productImageUrl) {
+        this.id = id;
+        this.size = size;
+        this.stockQuantity = stockQuantity;
+        this.productId = productId;
+        this.productName = productName;
+        this.productPrice = productPrice;
+        this.productImageUrl = productImageUrl;
+    }
+}
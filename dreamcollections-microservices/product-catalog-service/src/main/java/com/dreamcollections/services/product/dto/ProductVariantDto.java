@@ -22,6 +22,9 @@ public class ProductVariantDto {
 
     private Long productId; // Included for context in responses
 
+    // Read-only: stock minus quantities held by active reservations. Ignored on requests.
+    private Integer availableQuantity;
+
     public ProductVariantDto(Long id, String size, Integer stockQuantity, Long productId) {
         this.id = id;
         this.size = size;
@@ -0,0 +1,20 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Serialized product response cache (GET /products/{id}): size and counters since startup or the last reset
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseCacheStatisticsDto {
+    private int entryCount;
+    private long sizeBytes;
+    private long maxBytes;
+    private long hitCount;
+    private long missCount;
+    private Double hitRatio; // null until the cache has been read
+    private long evictionCount;
+    private long invalidationCount;
+}
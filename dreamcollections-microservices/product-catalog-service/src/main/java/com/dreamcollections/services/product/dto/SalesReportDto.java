@@ -0,0 +1,28 @@
+package com.dreamcollections.services.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// Units sold per variant over one window of order activity, reported by order-service
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReportDto {
+
+    @NotNull(message = "Window start cannot be null")
+    private Instant windowStart;
+
+    @NotNull(message = "Window end cannot be null")
+    private Instant windowEnd;
+
+    @NotEmpty(message = "At least one sales line is required")
+    @Valid
+    private List<UnitsSoldLineDto> items;
+}
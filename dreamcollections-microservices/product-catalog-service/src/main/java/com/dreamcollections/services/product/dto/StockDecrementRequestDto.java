@@ -0,0 +1,19 @@
+package com.dreamcollections.services.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDecrementRequestDto {
+
+    @NotEmpty(message = "At least one stock line is required")
+    @Valid
+    private List<StockLineDto> items;
+}
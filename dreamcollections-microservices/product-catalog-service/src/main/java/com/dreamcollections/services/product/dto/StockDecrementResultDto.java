@@ -0,0 +1,15 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDecrementResultDto {
+    private boolean applied; // true only if every line was decremented
+    private List<StockLineResultDto> lines;
+}
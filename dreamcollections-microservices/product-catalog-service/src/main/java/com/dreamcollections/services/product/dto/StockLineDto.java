@@ -0,0 +1,21 @@
+package com.dreamcollections.services.product.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One (variant, quantity) line of a batch stock operation
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLineDto {
+
+    @NotNull(message = "Variant ID cannot be null")
+    private Long variantId;
+
+    @NotNull(message = "Quantity cannot be null")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
@@ -0,0 +1,26 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one line of a batch stock decrement or reservation
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLineResultDto {
+
+    public enum Status {
+        DECREMENTED,
+        RESERVED,
+        // Line could have been applied, but the batch was rejected because another line failed
+        NOT_APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND
+    }
+
+    private Long variantId;
+    private Integer requestedQuantity;
+    private Status status;
+    private Integer availableStock; // Available stock at the time of the failure; null for applied lines and unknown variants
+}
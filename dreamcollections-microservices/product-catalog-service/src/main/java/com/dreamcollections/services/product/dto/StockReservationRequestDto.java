@@ -0,0 +1,23 @@
+package com.dreamcollections.services.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequestDto {
+
+    @NotEmpty(message = "At least one stock line is required")
+    @Valid
+    private List<StockLineDto> items;
+
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Long ttlSeconds; // Optional; server default applies when null, capped at the configured maximum
+}
@@ -0,0 +1,18 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResultDto {
+    private String reservationId; // null if the reservation was rejected
+    private Instant expiresAt;
+    private boolean reserved;
+    private List<StockLineResultDto> lines;
+}
@@ -0,0 +1,17 @@
+package com.dreamcollections.services.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One type-ahead suggestion: a product or a category matching the typed prefix
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    public enum Type { PRODUCT, CATEGORY }
+
+    private Type type;
+    private Long id;
+    private String text;
+}
@@ -0,0 +1,19 @@
+package com.dreamcollections.services.product.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Net units of one variant sold during a sales window; negative when returns outweigh sales
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnitsSoldLineDto {
+
+    @NotNull(message = "Variant ID cannot be null")
+    private Long variantId;
+
+    @NotNull(message = "Units cannot be null")
+    private Integer units;
+}
@@ -0,0 +1,16 @@
+package com.dreamcollections.services.product.event;
+
+// Published by CategoryServiceImpl whenever a category is created, updated or deleted.
+// Listeners that keep in-memory copies of the category tree rebuild them after the transaction commits.
+public class CategoryTreeChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryTreeChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.dreamcollections.services.product.event;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+
+// Published by ProductServiceImpl on every product write (the catalog import publishes ProductsImportedEvent instead).
+// Carries the product state after the write (null for deletions) so in-memory indexes can update
+// themselves without going back to the database.
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long productId;
+    private final ChangeType changeType;
+    private final ProductResponseDto product;
+
+    public ProductChangedEvent(Long productId, ChangeType changeType, ProductResponseDto product) {
+        this.productId = productId;
+        this.changeType = changeType;
+        this.product = product;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public ProductResponseDto getProduct() {
+        return product;
+    }
+}
@@ -0,0 +1,19 @@
+package com.dreamcollections.services.product.event;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Published by bulk price updates, which write prices directly instead of going through a product edit
+public class ProductPricesChangedEvent {
+
+    private final Map<Long, BigDecimal> pricesByProductId;
+
+    public ProductPricesChangedEvent(Map<Long, BigDecimal> pricesByProductId) {
+        this.pricesByProductId = Map.copyOf(pricesByProductId);
+    }
+
+    // Product ID -> new price
+    public Map<Long, BigDecimal> getPricesByProductId() {
+        return pricesByProductId;
+    }
+}
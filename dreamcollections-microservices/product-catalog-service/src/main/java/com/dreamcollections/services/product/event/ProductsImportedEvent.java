@@ -0,0 +1,21 @@
+package com.dreamcollections.services.product.event;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+
+import java.util.List;
+
+// Published by the catalog import once per committed chunk, in place of a ProductChangedEvent per product, so each
+// listener takes its lock, transaction or wake-up once for the chunk. Carries every created product as a create
+// through the API would.
+public class ProductsImportedEvent {
+
+    private final List<ProductResponseDto> products;
+
+    public ProductsImportedEvent(List<ProductResponseDto> products) {
+        this.products = List.copyOf(products);
+    }
+
+    public List<ProductResponseDto> getProducts() {
+        return products;
+    }
+}
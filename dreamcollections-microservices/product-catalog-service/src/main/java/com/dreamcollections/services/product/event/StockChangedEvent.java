@@ -0,0 +1,18 @@
+package com.dreamcollections.services.product.event;
+
+import java.util.List;
+
+// Published whenever committed stock of one or more variants changes outside a product edit
+// (admin stock updates, checkout decrements, flash-sale reconciliation).
+public class StockChangedEvent {
+
+    private final List<Long> variantIds;
+
+    public StockChangedEvent(List<Long> variantIds) {
+        this.variantIds = List.copyOf(variantIds);
+    }
+
+    public List<Long> getVariantIds() {
+        return variantIds;
+    }
+}
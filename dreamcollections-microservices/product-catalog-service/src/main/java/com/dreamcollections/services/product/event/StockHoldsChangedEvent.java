@@ -0,0 +1,18 @@
+package com.dreamcollections.services.product.event;
+
+import java.util.List;
+
+// Published whenever checkout holds on one or more variants are placed or dropped (reserve, release, expiry,
+// completed confirmation). Holds are in memory and take effect immediately, so this is not tied to a transaction.
+public class StockHoldsChangedEvent {
+
+    private final List<Long> variantIds;
+
+    public StockHoldsChangedEvent(List<Long> variantIds) {
+        this.variantIds = List.copyOf(variantIds);
+    }
+
+    public List<Long> getVariantIds() {
+        return variantIds;
+    }
+}
@@ -0,0 +1,217 @@
+package com.dreamcollections.services.product.flashsale;
+
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.exception.ResourceNotFoundException;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flash-sale mode for individual variants.
+ * <p>
+ * While a variant is in flash-sale mode its sellable stock lives in a {@link StripedStockCounter}: decrements are
+ * lock-free CAS operations spread across stripes instead of conditional UPDATEs that all serialize on the same
+ * {@code product_variants} row. Committed decrements are accumulated and written back to the database by a
+ * scheduled reconciliation, one UPDATE per variant per interval, and once more when the mode is switched off.
+ * <p>
+ * Counters are process-local, so flash-sale mode assumes a single catalog instance serves the variant. Decrements
+ * committed since the last reconciliation are lost if the process dies; keep the interval short.
+ * <p>
+ * Switching the mode off closes the variant's entry. Transactions that took units from it and commit afterwards
+ * write their decrement back themselves, since no reconciliation will see the entry again.
+ */
+@Component
+public class FlashSaleStockCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleStockCounters.class);
+
+    private final ProductVariantRepository productVariantRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Closed entries whose final write-back failed; retried by the scheduled reconciliation until drained
+    private final Set<Entry> closing = ConcurrentHashMap.newKeySet();
+
+    @Value("${stock.flash-sale.stripes:16}")
+    private int stripes;
+
+    @Autowired
+    public FlashSaleStockCounters(ProductVariantRepository productVariantRepository, PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.productVariantRepository = productVariantRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Write-backs also run from afterCompletion callbacks, where REQUIRED would join the finished transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public boolean isActive(Long variantId) {
+        return variantId != null && entries.containsKey(variantId);
+    }
+
+    // Seeds the counter from the committed stock. Enable before traffic arrives: in-flight database decrements
+    // that commit after the seed read are not reflected in the counter.
+    public synchronized void enable(Long variantId) {
+        if (entries.containsKey(variantId)) {
+            return;
+        }
+        int stock = productVariantRepository.findStockQuantityById(variantId)
+                .orElseThrow(() -> new ResourceNotFoundException("ProductVariant", "id", variantId));
+        entries.put(variantId, new Entry(variantId, new StripedStockCounter(stock, stripes)));
+        log.info("Flash-sale mode enabled for variant {} with {} units over {} stripes.", variantId, stock, stripes);
+    }
+
+    public synchronized void disable(Long variantId) {
+        Entry entry = entries.remove(variantId);
+        if (entry != null) {
+            // Closed before the final flush: a commit landing after it sees the flag and flushes its own units
+            entry.closed = true;
+            flush(entry);
+            log.info("Flash-sale mode disabled for variant {}.", variantId);
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units from the variant's counter. Inside a transaction, the units are returned to the
+     * counter if it rolls back and queued for reconciliation only once it commits.
+     * <p>
+     * The last {@code held} units are promised to reservations and refused. The stripes have no atomic check of their
+     * sum, so that guard is best effort under contention; the counter itself still never goes below zero.
+     * <p>
+     * A variant that is not in flash-sale mode, including one switched off since the caller last checked, is
+     * reported as {@link Outcome#NOT_ACTIVE} and left untouched; its stock is decremented in the database instead.
+     */
+    public Outcome tryDecrement(Long variantId, int quantity, int held) {
+        Entry entry = variantId != null ? entries.get(variantId) : null;
+        if (entry == null) {
+            return Outcome.NOT_ACTIVE;
+        }
+        if (held > 0 && entry.counter.approximateSum() - held < quantity) {
+            return Outcome.INSUFFICIENT_STOCK;
+        }
+        if (!entry.counter.tryDecrement(quantity)) {
+            return Outcome.INSUFFICIENT_STOCK;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        commit(entry, quantity);
+                    } else {
+                        entry.counter.increment(quantity);
+                    }
+                }
+            });
+        } else {
+            commit(entry, quantity);
+        }
+        return Outcome.DECREMENTED;
+    }
+
+    private void commit(Entry entry, int quantity) {
+        entry.unreconciled.addAndGet(quantity);
+        if (entry.closed) {
+            flush(entry);
+        }
+    }
+
+    // Sum of the stripes; may lag concurrent decrements by a few units
+    public OptionalInt approximateAvailable(Long variantId) {
+        Entry entry = variantId != null ? entries.get(variantId) : null;
+        return entry != null ? OptionalInt.of(entry.counter.approximateSum()) : OptionalInt.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${stock.flash-sale.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        entries.values().forEach(this::flush);
+        for (Entry entry : closing) {
+            flush(entry);
+            // A failing flush from a late commit may re-add the entry concurrently; only drop it once drained
+            if (closing.remove(entry) && entry.unreconciled.get() != 0) {
+                closing.add(entry);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        reconcile();
+    }
+
+    private void flush(Entry entry) {
+        Long variantId = entry.variantId;
+        int delta = entry.unreconciled.getAndSet(0);
+        if (delta == 0) {
+            return;
+        }
+        try {
+            Integer updated = transactionTemplate.execute(status -> {
+                // These units are already sold, so holds placed since then do not apply
+                int rows = productVariantRepository.decrementStockIfAvailable(variantId, delta, 0);
+                if (rows > 0) {
+                    eventPublisher.publishEvent(new StockChangedEvent(List.of(variantId)));
+                }
+                return rows;
+            });
+            if (updated == null || updated == 0) {
+                // The counter was seeded from this row, so this only happens if stock was changed outside flash-sale
+                // mode. The units are sold all the same: keep them until the row can take them.
+                retryLater(entry, delta);
+                log.error("Flash-sale reconciliation for variant {} could not apply -{}: database stock is lower than expected or the variant is gone. Will retry.",
+                        variantId, delta);
+            } else {
+                log.debug("Flash-sale reconciliation applied -{} to variant {}.", delta, variantId);
+            }
+        } catch (RuntimeException e) {
+            retryLater(entry, delta);
+            log.warn("Flash-sale reconciliation for variant {} failed, will retry: {}", variantId, e.getMessage());
+        }
+    }
+
+    // Keeps the delta for the next scheduled run, which also covers closed entries through the closing set
+    private void retryLater(Entry entry, int delta) {
+        entry.unreconciled.addAndGet(delta);
+        if (entry.closed) {
+            closing.add(entry);
+        }
+    }
+
+    public enum Outcome {
+        DECREMENTED,
+        INSUFFICIENT_STOCK,
+        NOT_ACTIVE // Not in flash-sale mode: decrement the database row instead
+    }
+
+    private static final class Entry {
+        private final Long variantId;
+        private final StripedStockCounter counter;
+        // Committed decrements not yet written to product_variants
+        private final AtomicInteger unreconciled = new AtomicInteger();
+        // Set once the entry is removed by disable(); never cleared
+        private volatile boolean closed;
+
+        private Entry(Long variantId, StripedStockCounter counter) {
+            this.variantId = variantId;
+            this.counter = counter;
+        }
+    }
+}
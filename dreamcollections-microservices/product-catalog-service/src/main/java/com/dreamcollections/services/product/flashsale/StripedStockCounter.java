@@ -0,0 +1,92 @@
+package com.dreamcollections.services.product.flashsale;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stock for one hot variant split across independent stripes, so concurrent buyers CAS different cache lines
+ * instead of queueing on a single row lock or counter.
+ * <p>
+ * Every stripe stays non-negative, so a successful {@link #tryDecrement} can never oversell. Near sell-out a request
+ * may be refused while other threads are moving units between stripes; it never succeeds wrongly.
+ * {@link #approximateSum} reads the stripes without a global lock and is only exact when the counter is quiescent.
+ */
+public final class StripedStockCounter {
+
+    // One stripe per 64-byte cache line (16 ints) to avoid false sharing between neighbouring stripes
+    private static final int CELL_SPACING = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    public StripedStockCounter(int initialStock, int stripes) {
+        if (initialStock < 0 || stripes < 1) {
+            throw new IllegalArgumentException("initialStock must be >= 0 and stripes >= 1");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * CELL_SPACING);
+        int base = initialStock / stripes;
+        int remainder = initialStock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(cell(i), base + (i < remainder ? 1 : 0));
+        }
+    }
+
+    public boolean tryDecrement(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        // Fast path: a single stripe covers the whole quantity
+        for (int i = 0; i < stripes; i++) {
+            int index = cell((start + i) % stripes);
+            for (int current = cells.get(index); current >= quantity; current = cells.get(index)) {
+                if (cells.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        // Slow path: gather the quantity from several stripes, handing everything back if there is not enough
+        int[] takenPerStripe = new int[stripes];
+        int taken = 0;
+        for (int i = 0; i < stripes && taken < quantity; i++) {
+            int stripe = (start + i) % stripes;
+            int index = cell(stripe);
+            for (int current = cells.get(index); current > 0; current = cells.get(index)) {
+                int take = Math.min(current, quantity - taken);
+                if (cells.compareAndSet(index, current, current - take)) {
+                    takenPerStripe[stripe] = take;
+                    taken += take;
+                    break;
+                }
+            }
+        }
+        if (taken == quantity) {
+            return true;
+        }
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (takenPerStripe[stripe] > 0) {
+                cells.addAndGet(cell(stripe), takenPerStripe[stripe]);
+            }
+        }
+        return false;
+    }
+
+    // Returns units, e.g. when the transaction that took them rolls back
+    public void increment(int quantity) {
+        cells.addAndGet(cell(ThreadLocalRandom.current().nextInt(stripes)), quantity);
+    }
+
+    public int approximateSum() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(cell(i));
+        }
+        return sum;
+    }
+
+    private static int cell(int stripe) {
+        return stripe * CELL_SPACING;
+    }
+}
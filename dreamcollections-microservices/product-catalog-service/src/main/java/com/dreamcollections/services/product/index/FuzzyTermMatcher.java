@@ -0,0 +1,189 @@
+package com.dreamcollections.services.product.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds vocabulary terms within a small edit distance of a (probably misspelled) query term.
+ * <p>
+ * Candidates come from a trigram index bucketed by term length: one edit (an adjacent swap included) changes
+ * at most four trigrams, so a term within {@code d} edits shares at least {@code trigrams - 4d} of them and
+ * differs in length by at most {@code d}. Every candidate must share at least one trigram, which keeps long
+ * typos from scanning the whole vocabulary. Only those candidates are verified with a bounded edit distance
+ * (Levenshtein plus adjacent transpositions), which gives up as soon as a whole row exceeds the bound.
+ * <p>
+ * Not thread-safe: owned by one search index segment and guarded by its lock.
+ */
+final class FuzzyTermMatcher {
+
+    // Shorter terms are matched exactly only: one edit in a three-letter word is usually a different word
+    static final int MIN_FUZZY_LENGTH = 4;
+    // Terms of these lengths and longer tolerate two and three edits ("neckless" is three away from "necklace")
+    static final int TWO_EDIT_LENGTH = 6;
+    static final int THREE_EDIT_LENGTH = 8;
+
+    private static final char PADDING = '$';
+
+    // term length -> trigram -> terms of that length containing it
+    private final Map<Integer, Map<String, Set<String>>> trigramsByLength = new HashMap<>();
+    private int size;
+
+    static int maxEditsFor(int length) {
+        if (length < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        if (length < TWO_EDIT_LENGTH) {
+            return 1;
+        }
+        return length < THREE_EDIT_LENGTH ? 2 : 3;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(String term) {
+        Map<String, Set<String>> trigrams = trigramsByLength.computeIfAbsent(term.length(), length -> new HashMap<>());
+        boolean added = false;
+        for (String trigram : trigramsOf(term)) {
+            added |= trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+        }
+        if (added) {
+            size++;
+        }
+    }
+
+    void remove(String term) {
+        Map<String, Set<String>> trigrams = trigramsByLength.get(term.length());
+        if (trigrams == null) {
+            return;
+        }
+        boolean removed = false;
+        for (String trigram : trigramsOf(term)) {
+            Set<String> terms = trigrams.get(trigram);
+            if (terms != null) {
+                removed |= terms.remove(term);
+                if (terms.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+        if (removed) {
+            size--;
+        }
+        if (trigrams.isEmpty()) {
+            trigramsByLength.remove(term.length());
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} vocabulary terms within the allowed edit distance of {@code term}
+     * (see {@link #maxEditsFor(int)}), closest first. The term itself is included if it is in the vocabulary.
+     */
+    List<Match> match(String term, int limit) {
+        int maxEdits = maxEditsFor(term.length());
+        if (maxEdits == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<String> queryTrigrams = trigramsOf(term);
+        int minShared = Math.max(1, queryTrigrams.size() - 4 * maxEdits);
+
+        List<Match> matches = new ArrayList<>();
+        for (int length = term.length() - maxEdits; length <= term.length() + maxEdits; length++) {
+            Map<String, Set<String>> trigrams = trigramsByLength.get(length);
+            if (trigrams == null) {
+                continue;
+            }
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Set<String> terms = trigrams.get(trigram);
+                if (terms != null) {
+                    for (String candidate : terms) {
+                        shared.merge(candidate, 1, Integer::sum);
+                    }
+                }
+            }
+            for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+                if (entry.getValue() >= minShared) {
+                    int distance = distance(term, entry.getKey(), maxEdits);
+                    if (distance <= maxEdits) {
+                        matches.add(new Match(entry.getKey(), distance));
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getTerm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Optimal string alignment distance (insert, delete, substitute, swap adjacent) between a and b,
+     * or {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Trigrams of the term padded on both sides, so the first and last letters carry extra weight
+    private static List<String> trigramsOf(String term) {
+        String padded = PADDING + term + PADDING;
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    static final class Match {
+        private final String term;
+        private final int distance;
+
+        Match(String term, int distance) {
+            this.term = term;
+            this.distance = distance;
+        }
+
+        String getTerm() {
+            return term;
+        }
+
+        int getDistance() {
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,608 @@
+package com.dreamcollections.services.product.index;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductPricesChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-process columnar index for faceted navigation.
+ * <p>
+ * Each product is a dense document number with primitive-array columns (category, price in cents) plus
+ * one bitset per category, per variant size and for "has stock". A query walks the live documents once and
+ * produces both the matching products and every facet count. Counts are multi-select: a facet is counted
+ * with all filters applied except its own, so shoppers can see what widening that filter would add.
+ * <p>
+ * Built at startup and kept current from {@link ProductChangedEvent}s, {@link ProductPricesChangedEvent}s and
+ * {@link StockChangedEvent}s.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public enum SortKey { NAME, PRICE, ID }
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Upper bounds (exclusive, in cents) of every price bucket but the last, open-ended one
+    private final long[] priceBucketBounds;
+
+    private Segment segment = new Segment();
+    private volatile boolean ready;
+    // Changes that arrive while a full rebuild is running, replayed onto the rebuilt segment
+    private List<Consumer<Segment>> pendingDuringRebuild;
+
+    @Autowired
+    public ProductFacetIndex(ProductRepository productRepository,
+                             ProductVariantRepository productVariantRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${catalog.facets.price-bucket-bounds:25,50,100,250,500}") BigDecimal[] priceBucketBounds) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.priceBucketBounds = Arrays.stream(priceBucketBounds).mapToLong(ProductFacetIndex::toCents).sorted().distinct().toArray();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Segment rebuilt = new Segment();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Rows arrive grouped by product (one row per variant), so each product is added once its group ends
+            try (Stream<Object[]> rows = productRepository.streamCatalogRows()) {
+                ProductRowGroup group = new ProductRowGroup();
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    Long productId = (Long) row[0];
+                    if (!productId.equals(group.productId)) {
+                        group.flushInto(rebuilt);
+                        group.start(productId, (String) row[1], (BigDecimal) row[3], (Long) row[6]);
+                    }
+                    if (row[7] != null) {
+                        group.addVariant((String) row[8], (Integer) row[9]);
+                    }
+                }
+                group.flushInto(rebuilt);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Segment> change : pendingDuringRebuild) {
+                change.accept(rebuilt);
+            }
+            pendingDuringRebuild = null;
+            segment = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product facet index built with {} products and {} sizes in {} ms.",
+                rebuilt.docByProductId.size(), rebuilt.sizeValues.size(), System.currentTimeMillis() - started);
+    }
+
+    // Blocks until the index has been built at least once; builds it on the caller's thread if startup has not yet
+    public void awaitReady() {
+        if (!ready) {
+            synchronized (this) {
+                if (!ready) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponseDto product = event.getProduct();
+        boolean deleted = event.getChangeType() == ProductChangedEvent.ChangeType.DELETED || product == null;
+        applyChange(target -> {
+            target.remove(event.getProductId());
+            if (!deleted) {
+                add(target, product);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        applyChange(target -> {
+            for (ProductResponseDto product : event.getProducts()) {
+                target.remove(product.getId());
+                add(target, product);
+            }
+        });
+    }
+
+    // Stock events only carry variant IDs, so the affected products' stock flags are re-read in one query
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.getVariantIds().isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = productVariantRepository.findMaxStockByProductsOfVariants(event.getVariantIds());
+        applyChange(target -> {
+            for (Object[] row : rows) {
+                Integer maxStock = (Integer) row[1];
+                target.setInStock((Long) row[0], maxStock != null && maxStock > 0);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        applyChange(target -> event.getPricesByProductId().forEach(
+                (productId, price) -> target.setPriceCents(productId, toCents(price))));
+    }
+
+    private static void add(Segment target, ProductResponseDto product) {
+        target.add(product.getId(), product.getName(), product.getPrice(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                variantSizes(product), hasStock(product));
+    }
+
+    private void applyChange(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (segment.deadCount() > Math.max(INITIAL_CAPACITY, segment.docByProductId.size())) {
+                segment = segment.compact();
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates the filters and computes all facet counts in a single pass over the index.
+     *
+     * @param query filters and ordering; {@link Query#rankedProductIds} restricts (and orders) the candidates
+     */
+    public Result query(Query query) {
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            BitSet categoryFilter = query.categoryIds != null ? current.union(query.categoryIds, current.docsByCategory) : null;
+            BitSet sizeFilter = query.sizes != null ? current.unionSizes(query.sizes) : null;
+            BitSet candidates = query.rankedProductIds != null ? current.docsOf(query.rankedProductIds) : current.live;
+            long minCents = query.minPrice != null ? toCents(query.minPrice) : Long.MIN_VALUE;
+            long maxCents = query.maxPrice != null ? toCents(query.maxPrice) : Long.MAX_VALUE;
+
+            Map<Long, Integer> categoryCounts = new HashMap<>();
+            int[] sizeCounts = new int[current.sizeValues.size()];
+            long[] priceCounts = new long[priceBucketBounds.length + 1];
+            long inStockCount = 0;
+            long outOfStockCount = 0;
+            BitSet matched = new BitSet(current.docCount);
+
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                boolean categoryOk = categoryFilter == null || categoryFilter.get(doc);
+                boolean sizeOk = sizeFilter == null || sizeFilter.get(doc);
+                long price = current.priceCents[doc];
+                boolean priceOk = price >= minCents && price <= maxCents;
+                boolean stockOk = !query.inStockOnly || current.inStock.get(doc);
+                int failed = (categoryOk ? 0 : 1) + (sizeOk ? 0 : 1) + (priceOk ? 0 : 1) + (stockOk ? 0 : 1);
+                if (failed > 1) {
+                    continue;
+                }
+                // A document failing exactly one filter still counts towards that filter's own facet
+                if (failed == 0) {
+                    matched.set(doc);
+                }
+                if (sizeOk && priceOk && stockOk) {
+                    categoryCounts.merge(current.categoryIds[doc], 1, Integer::sum);
+                }
+                if (categoryOk && priceOk && stockOk) {
+                    for (int ordinal : current.sizeOrdinals[doc]) {
+                        sizeCounts[ordinal]++;
+                    }
+                }
+                if (categoryOk && sizeOk && stockOk) {
+                    priceCounts[priceBucket(price)]++;
+                }
+                if (categoryOk && sizeOk && priceOk) {
+                    if (current.inStock.get(doc)) {
+                        inStockCount++;
+                    } else {
+                        outOfStockCount++;
+                    }
+                }
+            }
+
+            Map<String, Integer> sizes = new LinkedHashMap<>();
+            for (int ordinal = 0; ordinal < sizeCounts.length; ordinal++) {
+                if (sizeCounts[ordinal] > 0) {
+                    sizes.put(current.sizeValues.get(ordinal), sizeCounts[ordinal]);
+                }
+            }
+            return new Result(orderedProductIds(current, matched, query), sortByCountDescending(categoryCounts),
+                    sortByCountDescending(sizes), priceCounts, inStockCount, outOfStockCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Price bucket bounds in whole currency units, matching the counts returned in Result#priceBucketCounts
+    public List<BigDecimal> getPriceBucketBounds() {
+        List<BigDecimal> bounds = new ArrayList<>(priceBucketBounds.length);
+        for (long cents : priceBucketBounds) {
+            bounds.add(BigDecimal.valueOf(cents, 2));
+        }
+        return bounds;
+    }
+
+    private int priceBucket(long cents) {
+        int position = Arrays.binarySearch(priceBucketBounds, cents);
+        // Bounds are exclusive upper limits, so a price equal to a bound belongs to the next bucket
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    private static List<Long> orderedProductIds(Segment current, BitSet matched, Query query) {
+        List<Long> ids = new ArrayList<>(matched.cardinality());
+        if (query.rankedProductIds != null) {
+            // Keep the relevance order of the text search
+            for (Long productId : query.rankedProductIds) {
+                Integer doc = current.docByProductId.get(productId);
+                if (doc != null && matched.get(doc)) {
+                    ids.add(productId);
+                }
+            }
+            return ids;
+        }
+
+        Integer[] docs = new Integer[matched.cardinality()];
+        int n = 0;
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            docs[n++] = doc;
+        }
+        Comparator<Integer> byId = Comparator.comparingLong(doc -> current.productIds[doc]);
+        Comparator<Integer> order = switch (query.sortKey) {
+            case PRICE -> Comparator.<Integer>comparingLong(doc -> current.priceCents[doc]).thenComparing(byId);
+            case NAME -> Comparator.<Integer, String>comparing(doc -> current.names[doc], String.CASE_INSENSITIVE_ORDER).thenComparing(byId);
+            case ID -> byId;
+        };
+        Arrays.sort(docs, query.descending ? order.reversed() : order);
+        for (Integer doc : docs) {
+            ids.add(current.productIds[doc]);
+        }
+        return ids;
+    }
+
+    private static <K> Map<K, Integer> sortByCountDescending(Map<K, Integer> counts) {
+        List<Map.Entry<K, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<K, Integer>comparingByValue().reversed());
+        Map<K, Integer> sorted = new LinkedHashMap<>();
+        for (Map.Entry<K, Integer> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        return sorted;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static Set<String> variantSizes(ProductResponseDto product) {
+        if (product.getVariants() == null) {
+            return Collections.emptySet();
+        }
+        Set<String> sizes = new LinkedHashSet<>();
+        for (ProductVariantDto variant : product.getVariants()) {
+            if (variant.getSize() != null) {
+                sizes.add(variant.getSize());
+            }
+        }
+        return sizes;
+    }
+
+    private static boolean hasStock(ProductResponseDto product) {
+        return product.getVariants() != null && product.getVariants().stream()
+                .anyMatch(variant -> variant.getStockQuantity() != null && variant.getStockQuantity() > 0);
+    }
+
+    /**
+     * Facet query. Null filters are ignored; {@code rankedProductIds}, when set, limits candidates to the
+     * given products and keeps their order instead of applying the sort key.
+     */
+    public static final class Query {
+        private final Collection<Long> categoryIds;
+        private final Collection<String> sizes;
+        private final BigDecimal minPrice;
+        private final BigDecimal maxPrice;
+        private final boolean inStockOnly;
+        private final List<Long> rankedProductIds;
+        private final SortKey sortKey;
+        private final boolean descending;
+
+        public Query(Collection<Long> categoryIds, Collection<String> sizes, BigDecimal minPrice, BigDecimal maxPrice,
+                     boolean inStockOnly, List<Long> rankedProductIds, SortKey sortKey, boolean descending) {
+            this.categoryIds = categoryIds;
+            this.sizes = sizes;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.inStockOnly = inStockOnly;
+            this.rankedProductIds = rankedProductIds;
+            this.sortKey = sortKey;
+            this.descending = descending;
+        }
+    }
+
+    public static final class Result {
+        private final List<Long> productIds;
+        private final Map<Long, Integer> categoryCounts;
+        private final Map<String, Integer> sizeCounts;
+        private final long[] priceBucketCounts;
+        private final long inStockCount;
+        private final long outOfStockCount;
+
+        private Result(List<Long> productIds, Map<Long, Integer> categoryCounts, Map<String, Integer> sizeCounts,
+                       long[] priceBucketCounts, long inStockCount, long outOfStockCount) {
+            this.productIds = productIds;
+            this.categoryCounts = categoryCounts;
+            this.sizeCounts = sizeCounts;
+            this.priceBucketCounts = priceBucketCounts;
+            this.inStockCount = inStockCount;
+            this.outOfStockCount = outOfStockCount;
+        }
+
+        // All matching product IDs in result order
+        public List<Long> getProductIds() {
+            return productIds;
+        }
+
+        // Category ID -> matching products directly in that category, highest count first
+        public Map<Long, Integer> getCategoryCounts() {
+            return categoryCounts;
+        }
+
+        // Variant size -> matching products offering that size, highest count first
+        public Map<String, Integer> getSizeCounts() {
+            return sizeCounts;
+        }
+
+        // One count per price bucket; bucket i ends (exclusive) at getPriceBucketBounds().get(i), the last one is open
+        public long[] getPriceBucketCounts() {
+            return priceBucketCounts;
+        }
+
+        public long getInStockCount() {
+            return inStockCount;
+        }
+
+        public long getOutOfStockCount() {
+            return outOfStockCount;
+        }
+    }
+
+    // One consistent generation of the index. Only mutated under the write lock. Updates append a new document
+    // and tombstone the old one; the segment is compacted once tombstones outnumber live documents.
+    private static final class Segment {
+        private int docCount;
+        private long[] productIds = new long[INITIAL_CAPACITY];
+        private long[] categoryIds = new long[INITIAL_CAPACITY];
+        private long[] priceCents = new long[INITIAL_CAPACITY];
+        private String[] names = new String[INITIAL_CAPACITY];
+        private int[][] sizeOrdinals = new int[INITIAL_CAPACITY][];
+        private final BitSet live = new BitSet();
+        private final BitSet inStock = new BitSet();
+        private final Map<Long, Integer> docByProductId = new HashMap<>();
+        private final Map<Long, BitSet> docsByCategory = new HashMap<>();
+        private final Map<String, Integer> sizeOrdinalByValue = new HashMap<>();
+        private final List<String> sizeValues = new ArrayList<>();
+        private final List<BitSet> docsBySize = new ArrayList<>();
+
+        private void add(Long productId, String name, BigDecimal price, Long categoryId, Collection<String> sizes, boolean hasStock) {
+            if (productId == null || price == null || categoryId == null) {
+                return;
+            }
+            ensureCapacity(docCount + 1);
+            int doc = docCount++;
+            productIds[doc] = productId;
+            categoryIds[doc] = categoryId;
+            priceCents[doc] = toCents(price);
+            names[doc] = name != null ? name : "";
+            int[] ordinals = new int[sizes.size()];
+            int i = 0;
+            for (String size : sizes) {
+                int ordinal = sizeOrdinalByValue.computeIfAbsent(size, value -> {
+                    sizeValues.add(value);
+                    docsBySize.add(new BitSet());
+                    return sizeValues.size() - 1;
+                });
+                ordinals[i++] = ordinal;
+                docsBySize.get(ordinal).set(doc);
+            }
+            sizeOrdinals[doc] = ordinals;
+            docsByCategory.computeIfAbsent(categoryId, id -> new BitSet()).set(doc);
+            inStock.set(doc, hasStock);
+            live.set(doc);
+            docByProductId.put(productId, doc);
+        }
+
+        private void remove(Long productId) {
+            Integer doc = docByProductId.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            live.clear(doc);
+            inStock.clear(doc);
+            BitSet categoryDocs = docsByCategory.get(categoryIds[doc]);
+            if (categoryDocs != null) {
+                categoryDocs.clear(doc);
+                if (categoryDocs.isEmpty()) {
+                    docsByCategory.remove(categoryIds[doc]);
+                }
+            }
+            for (int ordinal : sizeOrdinals[doc]) {
+                docsBySize.get(ordinal).clear(doc);
+            }
+            names[doc] = null;
+        }
+
+        private void setInStock(Long productId, boolean hasStock) {
+            Integer doc = docByProductId.get(productId);
+            if (doc != null) {
+                inStock.set(doc, hasStock);
+            }
+        }
+
+        private void setPriceCents(Long productId, long cents) {
+            Integer doc = docByProductId.get(productId);
+            if (doc != null) {
+                priceCents[doc] = cents;
+            }
+        }
+
+        private int deadCount() {
+            return docCount - docByProductId.size();
+        }
+
+        private Segment compact() {
+            Segment compacted = new Segment();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                List<String> sizes = new ArrayList<>(sizeOrdinals[doc].length);
+                for (int ordinal : sizeOrdinals[doc]) {
+                    sizes.add(sizeValues.get(ordinal));
+                }
+                compacted.add(productIds[doc], names[doc], BigDecimal.valueOf(priceCents[doc], 2), categoryIds[doc],
+                        sizes, inStock.get(doc));
+            }
+            return compacted;
+        }
+
+        private BitSet union(Collection<Long> keys, Map<Long, BitSet> bitsets) {
+            BitSet result = new BitSet(docCount);
+            for (Long key : keys) {
+                BitSet docs = bitsets.get(key);
+                if (docs != null) {
+                    result.or(docs);
+                }
+            }
+            return result;
+        }
+
+        private BitSet unionSizes(Collection<String> sizes) {
+            BitSet result = new BitSet(docCount);
+            for (String size : sizes) {
+                Integer ordinal = sizeOrdinalByValue.get(size);
+                if (ordinal != null) {
+                    result.or(docsBySize.get(ordinal));
+                }
+            }
+            return result;
+        }
+
+        private BitSet docsOf(Collection<Long> productIdsToFind) {
+            BitSet result = new BitSet(docCount);
+            for (Long productId : productIdsToFind) {
+                Integer doc = docByProductId.get(productId);
+                if (doc != null) {
+                    result.set(doc);
+                }
+            }
+            return result;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= productIds.length) {
+                return;
+            }
+            int capacity = Math.max(required, productIds.length * 2);
+            productIds = Arrays.copyOf(productIds, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            names = Arrays.copyOf(names, capacity);
+            sizeOrdinals = Arrays.copyOf(sizeOrdinals, capacity);
+        }
+    }
+
+    // Accumulates the variant rows of one product while streaming the catalog
+    private static final class ProductRowGroup {
+        private Long productId;
+        private String name;
+        private BigDecimal price;
+        private Long categoryId;
+        private final Set<String> sizes = new LinkedHashSet<>();
+        private boolean hasStock;
+
+        private void start(Long productId, String name, BigDecimal price, Long categoryId) {
+            this.productId = productId;
+            this.name = name;
+            this.price = price;
+            this.categoryId = categoryId;
+            this.sizes.clear();
+            this.hasStock = false;
+        }
+
+        private void addVariant(String size, Integer stockQuantity) {
+            if (size != null) {
+                sizes.add(size);
+            }
+            if (stockQuantity != null && stockQuantity > 0) {
+                hasStock = true;
+            }
+        }
+
+        private void flushInto(Segment target) {
+            if (productId != null) {
+                // Copy: the set is reused for the next product
+                target.add(productId, name, price, categoryId, new ArrayList<>(sizes), hasStock);
+            }
+        }
+    }
+}
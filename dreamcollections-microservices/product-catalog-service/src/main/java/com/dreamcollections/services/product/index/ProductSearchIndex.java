@@ -0,0 +1,306 @@
+package com.dreamcollections.services.product.index;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process inverted index over product name and description, scored with BM25.
+ * <p>
+ * Built once at startup and kept current from {@link ProductChangedEvent}s and {@link ProductsImportedEvent}s; callers fall back to the LIKE query
+ * while it is not ready or still empty. Every query term must match
+ * (AND semantics, like the LIKE query it replaces); the last term is treated as a prefix so results
+ * stay useful while the shopper is still typing.
+ * <p>
+ * A term with no exact (or prefix) match in the vocabulary is treated as a typo and expanded to the closest
+ * vocabulary terms via {@link FuzzyTermMatcher}, scored lower the more edits they need. Terms that do match
+ * are never expanded, so exact matches always win and correctly spelled queries pay nothing extra.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // BM25 parameters (standard defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // A term in the name counts as much as this many occurrences in the description
+    private static final int NAME_WEIGHT = 3;
+    // Upper bound on vocabulary terms a trailing prefix may expand to
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    // Upper bound on vocabulary terms a misspelled term may expand to
+    private static final int MAX_FUZZY_EXPANSIONS = 8;
+    // Score multiplier per edit of a fuzzy expansion
+    private static final double FUZZY_EDIT_PENALTY = 0.5;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment segment = new Segment();
+    private volatile boolean ready;
+    // Changes that arrive while a full rebuild is running, replayed onto the rebuilt segment
+    private List<Consumer<Segment>> pendingDuringRebuild;
+
+    @Autowired
+    public ProductSearchIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // True until the first product is indexed: a segment built before the catalog had rows, or whose products
+    // were written without going through the service, cannot answer for what the table holds
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return segment.documents.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Segment rebuilt = new Segment();
+        List<Object[]> rows = readOnlyTransaction.execute(status -> productRepository.findAllSearchableFields());
+        for (Object[] row : rows) {
+            rebuilt.index((Long) row[0], (String) row[1], (String) row[2]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Segment> change : pendingDuringRebuild) {
+                change.accept(rebuilt);
+            }
+            pendingDuringRebuild = null;
+            segment = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built with {} products and {} terms in {} ms.",
+                rebuilt.documents.size(), rebuilt.postings.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponseDto product = event.getProduct();
+        boolean deleted = event.getChangeType() == ProductChangedEvent.ChangeType.DELETED || product == null;
+        applyChange(target -> {
+            target.remove(event.getProductId());
+            if (!deleted) {
+                target.index(product.getId(), product.getName(), product.getDescription());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        applyChange(target -> {
+            for (ProductResponseDto product : event.getProducts()) {
+                target.remove(product.getId());
+                target.index(product.getId(), product.getName(), product.getDescription());
+            }
+        });
+    }
+
+    private void applyChange(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of all products matching every term of the query, best match first.
+     */
+    public List<Long> search(String query) {
+        List<String> terms = TextTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            int documentCount = current.documents.size();
+            if (documentCount == 0) {
+                return Collections.emptyList();
+            }
+            double averageLength = (double) current.totalLength / documentCount;
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(current, terms.get(i), prefix, documentCount, averageLength);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND semantics: keep only documents matching every term so far
+                    Map<Long, Double> intersected = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        Double termScore = termScores.get(entry.getKey());
+                        if (termScore != null) {
+                            intersected.put(entry.getKey(), entry.getValue() + termScore);
+                        }
+                    }
+                    scores = intersected;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int byScore = Double.compare(b.getValue(), a.getValue());
+                return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+            });
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Double> entry : ranked) {
+                ids.add(entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(Segment current, String term, boolean prefix, int documentCount, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Integer>> matchingTerms;
+        if (prefix) {
+            matchingTerms = current.postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        } else {
+            Map<Long, Integer> exact = current.postings.get(term);
+            matchingTerms = exact != null ? Collections.singletonMap(term, exact) : Collections.emptyMap();
+        }
+
+        if (matchingTerms.isEmpty()) {
+            // Nothing in the vocabulary starts with or equals the term: look for a misspelling instead
+            for (FuzzyTermMatcher.Match match : current.fuzzyTerms.match(term, MAX_FUZZY_EXPANSIONS)) {
+                double penalty = Math.pow(FUZZY_EDIT_PENALTY, match.getDistance());
+                scorePostings(current, current.postings.get(match.getTerm()), penalty, documentCount, averageLength, scores);
+            }
+            return scores;
+        }
+
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> entry : matchingTerms.entrySet()) {
+            if (expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            scorePostings(current, entry.getValue(), 1.0, documentCount, averageLength, scores);
+        }
+        return scores;
+    }
+
+    private static void scorePostings(Segment current, Map<Long, Integer> postingList, double weight, int documentCount,
+                                      double averageLength, Map<Long, Double> scores) {
+        if (postingList == null) {
+            return;
+        }
+        double idf = Math.log(1 + (documentCount - postingList.size() + 0.5) / (postingList.size() + 0.5));
+        for (Map.Entry<Long, Integer> posting : postingList.entrySet()) {
+            int length = current.documents.get(posting.getKey()).length;
+            double tf = posting.getValue();
+            double score = weight * idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / averageLength));
+            // A document matching several expansions of the term keeps its best one
+            scores.merge(posting.getKey(), score, Math::max);
+        }
+    }
+
+    // One consistent generation of the index. Only mutated under the write lock.
+    private static final class Segment {
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final FuzzyTermMatcher fuzzyTerms = new FuzzyTermMatcher();
+        private long totalLength;
+
+        private void index(Long productId, String name, String description) {
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            for (String token : TextTokenizer.tokenize(name)) {
+                termFrequencies.merge(token, NAME_WEIGHT, Integer::sum);
+            }
+            for (String token : TextTokenizer.tokenize(description)) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> {
+                    fuzzyTerms.add(term);
+                    return new HashMap<>();
+                }).put(productId, entry.getValue());
+                length += entry.getValue();
+            }
+            documents.put(productId, new Document(length, termFrequencies.keySet().toArray(new String[0])));
+            totalLength += length;
+        }
+
+        private void remove(Long productId) {
+            Document document = documents.remove(productId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList != null) {
+                    postingList.remove(productId);
+                    if (postingList.isEmpty()) {
+                        postings.remove(term);
+                        fuzzyTerms.remove(term);
+                    }
+                }
+            }
+            totalLength -= document.length;
+        }
+    }
+
+    private static final class Document {
+        private final int length;
+        private final String[] terms;
+
+        private Document(int length, String[] terms) {
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+}
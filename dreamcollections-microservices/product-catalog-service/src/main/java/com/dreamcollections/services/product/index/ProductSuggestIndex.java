@@ -0,0 +1,453 @@
+package com.dreamcollections.services.product.index;
+
+import com.dreamcollections.services.product.dto.CategoryDto;
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.SuggestionDto;
+import com.dreamcollections.services.product.event.CategoryTreeChangedEvent;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.repository.CategoryRepository;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Type-ahead suggestions over product and category names.
+ * <p>
+ * A character trie keyed by every word start of each name ("rose gold ring", "gold ring", "ring"), so a
+ * prefix matches at any word boundary. Every node stores its best {@link #TOP_K} entries, so a lookup is a
+ * walk of at most {@link #MAX_KEY_LENGTH} nodes and never visits the subtree. Writes recompute the stored
+ * lists bottom-up along the touched paths only.
+ * <p>
+ * Built at startup and kept current from {@link ProductChangedEvent}s and {@link CategoryTreeChangedEvent}s.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    public static final int TOP_K = 10;
+    // Keys are cut here: deeper prefixes are rare and would multiply node count for long names
+    private static final int MAX_KEY_LENGTH = 24;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final char[] NO_LABELS = new char[0];
+
+    // Categories first, then shorter (more general) names, then alphabetical; the ID keeps the order total
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparing((Entry entry) -> entry.type != SuggestionDto.Type.CATEGORY)
+            .thenComparingInt(entry -> entry.normalized.length())
+            .thenComparing(entry -> entry.normalized)
+            .thenComparingLong(entry -> entry.id);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Trie trie = new Trie();
+    private volatile boolean ready;
+    // Changes that arrive while a full rebuild is running, replayed onto the rebuilt trie
+    private List<Consumer<Trie>> pendingDuringRebuild;
+
+    @Autowired
+    public ProductSuggestIndex(ProductRepository productRepository, CategoryRepository categoryRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Trie rebuilt = new Trie();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (Object[] row : productRepository.findAllSearchableFields()) {
+                rebuilt.insertTerminal(new Entry(SuggestionDto.Type.PRODUCT, (Long) row[0], (String) row[1]));
+            }
+            for (CategoryDto category : categoryRepository.findAllAsFlatDtos()) {
+                rebuilt.insertTerminal(new Entry(SuggestionDto.Type.CATEGORY, category.getId(), category.getName()));
+            }
+        });
+        // One post-order pass instead of recomputing the paths after every insert
+        rebuilt.recomputeAll();
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Trie> change : pendingDuringRebuild) {
+                change.accept(rebuilt);
+            }
+            pendingDuringRebuild = null;
+            trie = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product suggest index built with {} entries and {} nodes in {} ms.",
+                rebuilt.entries.size(), rebuilt.nodeCount, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponseDto product = event.getProduct();
+        boolean deleted = event.getChangeType() == ProductChangedEvent.ChangeType.DELETED || product == null;
+        applyChange(target -> {
+            target.remove(SuggestionDto.Type.PRODUCT, event.getProductId());
+            if (!deleted) {
+                target.insert(new Entry(SuggestionDto.Type.PRODUCT, product.getId(), product.getName()));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        applyChange(target -> {
+            for (ProductResponseDto product : event.getProducts()) {
+                target.remove(SuggestionDto.Type.PRODUCT, product.getId());
+                target.insert(new Entry(SuggestionDto.Type.PRODUCT, product.getId(), product.getName()));
+            }
+        });
+    }
+
+    // Category writes are rare; all category entries are swapped for the committed set
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryTreeChanged(CategoryTreeChangedEvent event) {
+        List<CategoryDto> categories = categoryRepository.findAllAsFlatDtos();
+        applyChange(target -> {
+            target.removeAll(SuggestionDto.Type.CATEGORY);
+            for (CategoryDto category : categories) {
+                target.insert(new Entry(SuggestionDto.Type.CATEGORY, category.getId(), category.getName()));
+            }
+        });
+    }
+
+    private void applyChange(Consumer<Trie> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(trie);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} (at most {@link #TOP_K}) names with a word starting with the given prefix.
+     * A multi-word prefix matches consecutive words, the last one as a prefix.
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(TextTokenizer.tokenize(prefix));
+        int max = Math.min(limit, TOP_K);
+        if (key.isEmpty() || max <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = trie.root;
+            int depth = Math.min(key.length(), MAX_KEY_LENGTH);
+            for (int i = 0; i < depth && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            List<SuggestionDto> suggestions = new ArrayList<>(max);
+            if (key.length() <= MAX_KEY_LENGTH) {
+                for (int i = 0; i < node.top.length && suggestions.size() < max; i++) {
+                    suggestions.add(node.top[i].toDto());
+                }
+                return suggestions;
+            }
+            // Longer than the stored keys: the node is a leaf, so check the full names of its entries
+            List<Entry> matching = new ArrayList<>();
+            for (Entry entry : node.terminal) {
+                if (entry.normalized.startsWith(key) || entry.normalized.contains(" " + key)) {
+                    matching.add(entry);
+                }
+            }
+            matching.sort(RANKING);
+            for (int i = 0; i < matching.size() && i < max; i++) {
+                suggestions.add(matching.get(i).toDto());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Nodes in the current trie; removals prune the nodes they leave empty, so this returns to its earlier value
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return trie.nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(List<String> tokens) {
+        return String.join(" ", tokens);
+    }
+
+    // Every word start of the name, cut to the maximum key length
+    private static Set<String> keysOf(Entry entry) {
+        List<String> tokens = TextTokenizer.tokenize(entry.text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String key = normalize(tokens.subList(i, tokens.size()));
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+        return keys;
+    }
+
+    // One consistent generation of the trie. Only mutated under the write lock.
+    private static final class Trie {
+        private final Node root = new Node();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private int nodeCount = 1;
+
+        // Adds the entry to the terminal lists only; callers must recompute the top lists afterwards
+        private void insertTerminal(Entry entry) {
+            entries.put(entry.mapKey(), entry);
+            for (String key : keysOf(entry)) {
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.childOrCreate(key.charAt(i), this);
+                }
+                node.addTerminal(entry);
+            }
+        }
+
+        private void insert(Entry entry) {
+            insertTerminal(entry);
+            for (String key : keysOf(entry)) {
+                recomputePath(key, false);
+            }
+        }
+
+        private void remove(SuggestionDto.Type type, Long id) {
+            Entry entry = entries.remove(Entry.mapKey(type, id));
+            if (entry == null) {
+                return;
+            }
+            for (String key : keysOf(entry)) {
+                Node node = root;
+                for (int i = 0; i < key.length() && node != null; i++) {
+                    node = node.child(key.charAt(i));
+                }
+                if (node != null) {
+                    node.removeTerminal(entry);
+                }
+                recomputePath(key, true);
+            }
+        }
+
+        private void removeAll(SuggestionDto.Type type) {
+            List<Entry> matching = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                if (entry.type == type) {
+                    matching.add(entry);
+                }
+            }
+            for (Entry entry : matching) {
+                remove(entry.type, entry.id);
+            }
+        }
+
+        // Recomputes the top lists from the end of the key up to the root, dropping nodes left empty
+        private void recomputePath(String key, boolean prune) {
+            Deque<Node> path = new ArrayDeque<>(key.length() + 1);
+            Node node = root;
+            path.push(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                path.push(node);
+            }
+            int depth = path.size() - 1;
+            while (!path.isEmpty()) {
+                Node current = path.pop();
+                current.recomputeTop();
+                if (prune && current != root && current.isEmpty()) {
+                    path.peek().removeChild(key.charAt(depth - 1));
+                    nodeCount--;
+                }
+                depth--;
+            }
+        }
+
+        private void recomputeAll() {
+            // Iterative post-order walk: names can be long enough that recursion depth is worth avoiding
+            Deque<Node> stack = new ArrayDeque<>();
+            List<Node> order = new ArrayList<>(nodeCount);
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                order.add(node);
+                for (Node child : node.children) {
+                    stack.push(child);
+                }
+            }
+            // Children always come after their parent in the pre-order list, so walk it backwards
+            for (int i = order.size() - 1; i >= 0; i--) {
+                order.get(i).recomputeTop();
+            }
+        }
+    }
+
+    private static final class Node {
+        // Sorted labels with the matching children at the same positions
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_NODES;
+        private List<Entry> terminal = Collections.emptyList();
+        private Entry[] top = NO_ENTRIES;
+
+        private Node child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node childOrCreate(char label, Trie owner) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -position - 1;
+            Node created = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = created;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            owner.nodeCount++;
+            return created;
+        }
+
+        private void removeChild(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(labels, position + 1, newLabels, position, labels.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        private void addTerminal(Entry entry) {
+            if (terminal.isEmpty()) {
+                terminal = new ArrayList<>(1);
+            }
+            terminal.add(entry);
+        }
+
+        private void removeTerminal(Entry entry) {
+            terminal.remove(entry);
+        }
+
+        private boolean isEmpty() {
+            return terminal.isEmpty() && children.length == 0;
+        }
+
+        // Best TOP_K of this node's own entries and its children's lists; an entry reached by several keys counts once
+        private void recomputeTop() {
+            List<Entry> candidates = new ArrayList<>(terminal);
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            if (candidates.isEmpty()) {
+                top = NO_ENTRIES;
+                return;
+            }
+            candidates.sort(RANKING);
+            List<Entry> best = new ArrayList<>(Math.min(TOP_K, candidates.size()));
+            Entry previous = null;
+            for (Entry candidate : candidates) {
+                if (candidate != previous) {
+                    best.add(candidate);
+                    if (best.size() == TOP_K) {
+                        break;
+                    }
+                }
+                previous = candidate;
+            }
+            top = best.toArray(NO_ENTRIES);
+        }
+    }
+
+    private static final class Entry {
+        private final SuggestionDto.Type type;
+        private final long id;
+        private final String text;
+        private final String normalized;
+
+        private Entry(SuggestionDto.Type type, Long id, String text) {
+            this.type = type;
+            this.id = id;
+            this.text = text != null ? text : "";
+            this.normalized = normalize(TextTokenizer.tokenize(this.text));
+        }
+
+        private String mapKey() {
+            return mapKey(type, id);
+        }
+
+        private static String mapKey(SuggestionDto.Type type, Long id) {
+            return type.name() + ':' + id;
+        }
+
+        private SuggestionDto toDto() {
+            return new SuggestionDto(type, id, text);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.dreamcollections.services.product.lowstock;
+
+import com.dreamcollections.services.product.dto.LowStockAlertDto;
+import com.dreamcollections.services.product.dto.LowStockVariantDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent event stream of low-stock threshold crossings. Each subscriber picks its own threshold; every level
+ * change reported by {@link LowStockIndex} is checked against it, so alerts cost nothing while stock stays on one
+ * side of the line and there is no polling of the table.
+ * <p>
+ * Alerts are written by one background thread, keeping slow clients away from the stock update paths. If the
+ * clients fall too far behind, further alerts are dropped (and counted) rather than queued without bound.
+ */
+@Component
+public class LowStockAlertStream {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockAlertStream.class);
+
+    private static final int MAX_QUEUED_ALERTS = 10_000;
+
+    private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+    private final AtomicLong droppedAlerts = new AtomicLong();
+    private final ThreadPoolExecutor sender;
+    private final Duration timeout;
+
+    @Autowired
+    public LowStockAlertStream(@Value("${stock.low-stock.stream-timeout:PT30M}") Duration timeout) {
+        this.timeout = timeout;
+        this.sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(MAX_QUEUED_ALERTS),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "low-stock-alerts");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    long dropped = droppedAlerts.incrementAndGet();
+                    if (dropped == 1 || dropped % 1000 == 0) {
+                        log.warn("Low-stock alert subscribers are not keeping up; {} alerts dropped so far.", dropped);
+                    }
+                });
+    }
+
+    // The emitter completes after the stream timeout; clients are expected to reconnect (EventSource does so itself)
+    public SseEmitter subscribe(int threshold) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(threshold, emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        log.debug("Low-stock alert subscriber added with threshold {} ({} subscribers).", threshold, subscribers.size());
+        return emitter;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * Called by the index for every change of a variant's level, with null for a variant that was not indexed
+     * before or is no longer indexed. Only queues work; never blocks on the network.
+     */
+    void levelChanged(LowStockVariantDto previous, LowStockVariantDto current) {
+        Instant at = Instant.now();
+        sender.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                LowStockAlertDto.Type type = crossing(subscriber.threshold,
+                        previous != null ? previous.getAvailableQuantity() : null,
+                        current != null ? current.getAvailableQuantity() : null);
+                if (type != null) {
+                    LowStockVariantDto variant = current != null ? current : previous;
+                    send(subscriber, new LowStockAlertDto(type, subscriber.threshold, variant.getVariantId(), variant.getProductId(),
+                            variant.getProductName(), variant.getSize(),
+                            previous != null ? previous.getAvailableQuantity() : null,
+                            current != null ? current.getAvailableQuantity() : null, at));
+                }
+            }
+        });
+    }
+
+    // Which alert, if any, a move from previous to current available quantity means at the given threshold
+    static LowStockAlertDto.Type crossing(int threshold, Integer previous, Integer current) {
+        boolean wasLow = previous != null && previous <= threshold;
+        if (current == null) {
+            return wasLow ? LowStockAlertDto.Type.REMOVED : null;
+        }
+        boolean isLow = current <= threshold;
+        if (isLow && !wasLow) {
+            return LowStockAlertDto.Type.LOW;
+        }
+        if (wasLow && !isLow) {
+            return LowStockAlertDto.Type.RECOVERED;
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void send(Subscriber subscriber, LowStockAlertDto alert) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .name(alert.getType().name().toLowerCase(Locale.ROOT))
+                    .data(alert, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed)
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            log.debug("Low-stock alert subscriber dropped: {}", e.getMessage());
+        }
+    }
+
+    private static final class Subscriber {
+        private final int threshold;
+        private final SseEmitter emitter;
+
+        private Subscriber(int threshold, SseEmitter emitter) {
+            this.threshold = threshold;
+            this.emitter = emitter;
+        }
+    }
+}
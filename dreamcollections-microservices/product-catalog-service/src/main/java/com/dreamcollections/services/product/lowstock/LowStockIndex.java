@@ -0,0 +1,323 @@
+package com.dreamcollections.services.product.lowstock;
+
+import com.dreamcollections.services.product.dto.LowStockVariantDto;
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductVariantDetailDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.event.StockHoldsChangedEvent;
+import com.dreamcollections.services.product.flashsale.FlashSaleStockCounters;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Every variant ordered by available quantity (committed stock, or the flash-sale counter, minus checkout holds),
+ * so "everything at or below N" is a walk from the start of a sorted set that stops at N.
+ * <p>
+ * Built once at startup and kept current from {@link ProductChangedEvent}s, {@link StockChangedEvent}s and
+ * {@link StockHoldsChangedEvent}s; no periodic scans. Flash-sale decrements are not evented one by one, so those
+ * variants catch up at each reconciliation. Every change of a variant's level is reported to the
+ * {@link LowStockAlertStream}.
+ */
+@Component
+public class LowStockIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockIndex.class);
+
+    private static final Comparator<Level> BY_AVAILABLE = Comparator.<Level>comparingInt(level -> level.available)
+            .thenComparingLong(level -> level.variantId);
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final StockReservationStore stockReservationStore;
+    private final FlashSaleStockCounters flashSaleStockCounters;
+    private final LowStockAlertStream alertStream;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Levels levels = new Levels();
+    private volatile boolean ready;
+    // Changes that arrive while a full rebuild is running, replayed onto the rebuilt levels
+    private List<Consumer<Levels>> pendingDuringRebuild;
+
+    @Autowired
+    public LowStockIndex(ProductRepository productRepository,
+                         ProductVariantRepository productVariantRepository,
+                         StockReservationStore stockReservationStore,
+                         FlashSaleStockCounters flashSaleStockCounters,
+                         LowStockAlertStream alertStream,
+                         PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.stockReservationStore = stockReservationStore;
+        this.flashSaleStockCounters = flashSaleStockCounters;
+        this.alertStream = alertStream;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Levels rebuilt = new Levels();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Same cursor as the catalog export: one row per variant, grouped by product
+            try (Stream<Object[]> rows = productRepository.streamCatalogRows()) {
+                Iterator<Object[]> iterator = rows.iterator();
+                String productName = null;
+                Long productId = null;
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    if (!row[0].equals(productId)) {
+                        productId = (Long) row[0];
+                        productName = (String) row[1]; // One String per product, not per variant
+                    }
+                    if (row[7] != null) {
+                        rebuilt.put(level((Long) row[7], productId, productName, (String) row[8], (Integer) row[9]));
+                    }
+                }
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Levels> change : pendingDuringRebuild) {
+                change.accept(rebuilt);
+            }
+            pendingDuringRebuild = null;
+            // Variants already low when the index is (re)built are not alerted; the report lists them
+            rebuilt.alerting = true;
+            levels = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Low-stock index built with {} variants in {} ms.", rebuilt.byVariantId.size(), System.currentTimeMillis() - started);
+    }
+
+    // Blocks until the index has been built at least once; builds it on the caller's thread if startup has not yet
+    public void awaitReady() {
+        if (!ready) {
+            synchronized (this) {
+                if (!ready) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /** Variants with at most {@code threshold} units available, lowest first, then by variant ID. */
+    public List<LowStockVariantDto> findAtOrBelow(int threshold, int limit) {
+        lock.readLock().lock();
+        try {
+            List<LowStockVariantDto> result = new ArrayList<>();
+            // The probe sorts after every real entry with the same quantity, so the head set includes them
+            for (Level level : levels.ordered.headSet(new Level(Long.MAX_VALUE, null, null, null, 0, 0, threshold), true)) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(level.toDto());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponseDto product = event.getProduct();
+        boolean deleted = event.getChangeType() == ProductChangedEvent.ChangeType.DELETED || product == null;
+        List<Level> current = deleted ? List.of() : levelsOf(product);
+        applyChange(target -> target.replaceProduct(event.getProductId(), current));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        Map<Long, List<Level>> current = new HashMap<>();
+        for (ProductResponseDto product : event.getProducts()) {
+            current.put(product.getId(), levelsOf(product));
+        }
+        applyChange(target -> current.forEach(target::replaceProduct));
+    }
+
+    // Stock events only carry variant IDs, so the variants are re-read in one query; missing ones were deleted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.getVariantIds().isEmpty()) {
+            return;
+        }
+        List<Level> current = new ArrayList<>();
+        Set<Long> missing = new HashSet<>(event.getVariantIds());
+        for (ProductVariantDetailDto variant : productVariantRepository.findDetailsByIdIn(event.getVariantIds())) {
+            missing.remove(variant.getId());
+            current.add(level(variant.getId(), variant.getProductId(), variant.getProductName(), variant.getSize(), variant.getStockQuantity()));
+        }
+        applyChange(target -> {
+            current.forEach(target::put);
+            missing.forEach(target::remove);
+        });
+    }
+
+    // Holds change outside transactions and take effect immediately; stock is unchanged, only availability moves
+    @EventListener
+    public void onHoldsChanged(StockHoldsChangedEvent event) {
+        applyChange(target -> {
+            for (Long variantId : event.getVariantIds()) {
+                Level previous = target.byVariantId.get(variantId);
+                if (previous != null) {
+                    target.put(level(variantId, previous.productId, previous.productName, previous.size, previous.stock));
+                }
+            }
+        });
+    }
+
+    private void applyChange(Consumer<Levels> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(levels);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Level> levelsOf(ProductResponseDto product) {
+        List<Level> current = new ArrayList<>();
+        if (product.getVariants() != null) {
+            for (ProductVariantDto variant : product.getVariants()) {
+                current.add(level(variant.getId(), product.getId(), product.getName(), variant.getSize(), variant.getStockQuantity()));
+            }
+        }
+        return current;
+    }
+
+    // Same computation as the service's availableQuantity, except that holds of checkouts being confirmed are
+    // left out: their decrement lands first, and counting both would report a dip that is not there
+    private Level level(Long variantId, Long productId, String productName, String size, Integer stock) {
+        int committed = stock != null ? stock : 0;
+        int sellable = flashSaleStockCounters.approximateAvailable(variantId).orElse(committed);
+        int available = Math.max(0, sellable - stockReservationStore.heldQuantityExcludingConfirming(variantId));
+        return new Level(variantId, productId, productName, size, committed, sellable, available);
+    }
+
+    private final class Levels {
+        private final TreeSet<Level> ordered = new TreeSet<>(BY_AVAILABLE);
+        private final Map<Long, Level> byVariantId = new HashMap<>();
+        private final Map<Long, Set<Long>> variantIdsByProduct = new HashMap<>();
+        // Off until the levels are installed by a rebuild: before the first build nothing is known about the
+        // previous quantities, and a rebuild's replay repeats changes that the live levels already alerted on
+        private boolean alerting;
+
+        private void put(Level level) {
+            Level previous = byVariantId.put(level.variantId, level);
+            if (previous != null) {
+                ordered.remove(previous);
+                if (!previous.productId.equals(level.productId)) {
+                    removeFromProduct(previous);
+                }
+            }
+            ordered.add(level);
+            variantIdsByProduct.computeIfAbsent(level.productId, id -> new HashSet<>()).add(level.variantId);
+            if (previous == null || previous.available != level.available) {
+                alert(previous, level);
+            }
+        }
+
+        private void remove(Long variantId) {
+            Level previous = byVariantId.remove(variantId);
+            if (previous != null) {
+                ordered.remove(previous);
+                removeFromProduct(previous);
+                alert(previous, null);
+            }
+        }
+
+        private void replaceProduct(Long productId, List<Level> current) {
+            Set<Long> previousIds = variantIdsByProduct.get(productId);
+            if (previousIds != null) {
+                Set<Long> currentIds = new HashSet<>();
+                current.forEach(level -> currentIds.add(level.variantId));
+                for (Long variantId : new ArrayList<>(previousIds)) {
+                    if (!currentIds.contains(variantId)) {
+                        remove(variantId);
+                    }
+                }
+            }
+            current.forEach(this::put);
+        }
+
+        private void removeFromProduct(Level level) {
+            Set<Long> variantIds = variantIdsByProduct.get(level.productId);
+            if (variantIds != null && variantIds.remove(level.variantId) && variantIds.isEmpty()) {
+                variantIdsByProduct.remove(level.productId);
+            }
+        }
+
+        private void alert(Level previous, Level current) {
+            if (alerting && alertStream.hasSubscribers()) {
+                alertStream.levelChanged(previous != null ? previous.toDto() : null, current != null ? current.toDto() : null);
+            }
+        }
+    }
+
+    // Immutable: a change replaces the entry, since its position in the sorted set depends on the quantity
+    private static final class Level {
+        private final long variantId;
+        private final Long productId;
+        private final String productName;
+        private final String size;
+        private final int stock; // Committed, as read from product_variants
+        private final int sellable; // The live counter for flash-sale variants, otherwise stock
+        private final int available;
+
+        private Level(long variantId, Long productId, String productName, String size, int stock, int sellable, int available) {
+            this.variantId = variantId;
+            this.productId = productId;
+            this.productName = productName;
+            this.size = size;
+            this.stock = stock;
+            this.sellable = sellable;
+            this.available = available;
+        }
+
+        private LowStockVariantDto toDto() {
+            return new LowStockVariantDto(variantId, productId, productName, size, sellable, available);
+        }
+    }
+}
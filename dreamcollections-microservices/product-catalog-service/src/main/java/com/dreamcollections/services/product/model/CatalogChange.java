@@ -0,0 +1,58 @@
+package com.dreamcollections.services.product.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outbox row of the catalog change feed. Written in the same transaction as the change it describes;
+// the sequence is drawn from catalog_change_seq when the row is written.
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "catalog_changes", indexes = {
+        // Retention pruning
+        @Index(name = "idx_catalog_changes_changed_at", columnList = "changed_at")
+})
+public class CatalogChange {
+
+    public enum EntityType {
+        PRODUCT,
+        VARIANT
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        STOCK_CHANGED
+    }
+
+    // One value per row rather than a pooled block per instance, so numbers are drawn close to commit time
+    // (see CatalogChangeFeed for how readers handle a number whose transaction has not committed yet)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_change_seq")
+    @SequenceGenerator(name = "catalog_change_seq", sequenceName = "catalog_change_seq", allocationSize = 1)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public CatalogChange(EntityType entityType, Long entityId, ChangeType changeType, LocalDateTime changedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeType = changeType;
+        this.changedAt = changedAt;
+    }
+}
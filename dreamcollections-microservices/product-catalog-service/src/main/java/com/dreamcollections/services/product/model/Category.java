@@ -3,6 +3,8 @@ package com.dreamcollections.services.product.model; // Updated package
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Data;
@@ -13,7 +15,12 @@ import lombok.ToString;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.category")
+@Table(name = "categories", indexes = {
+        // Drives the recursive subtree lookup in CategoryRepository.findSubtreeIds
+        @Index(name = "idx_categories_parent_category_id", columnList = "parent_category_id")
+})
 public class
 Category {
 
@@ -34,6 +41,7 @@ Category {
     private Category parentCategory;
 
     @OneToMany(mappedBy = "parentCategory", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.category.subCategories")
     @JsonManagedReference // To handle children side of the relationship during JSON serialization
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
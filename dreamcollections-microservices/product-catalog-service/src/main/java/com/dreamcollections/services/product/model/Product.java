@@ -1,16 +1,28 @@
 package com.dreamcollections.services.product.model; // Updated package
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.util.HashSet; // Initialize collections
 import java.util.Set;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.product")
+@Table(name = "products", indexes = {
+        // Category (subtree) browsing with an optional price range
+        @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        // Default listing sort
+        @Index(name = "idx_products_name", columnList = "name")
+})
 public class Product {
 
     @Id
@@ -20,7 +32,12 @@ public class Product {
     @Column(nullable = false)
     private String name;
 
+    // Lazy (needs the build-time bytecode enhancement configured in pom.xml): listings never read it, so product
+    // rows are loaded without the LOB and it is only fetched when a detail view calls getDescription()
     @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String description;
 
     @Column(nullable = false, precision = 10, scale = 2)
@@ -37,6 +54,7 @@ public class Product {
     private Category category;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.product.variants")
     private Set<ProductVariant> variants = new HashSet<>(); // Initialize
 
     // Constructors
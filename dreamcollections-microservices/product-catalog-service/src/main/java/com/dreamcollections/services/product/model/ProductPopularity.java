@@ -0,0 +1,31 @@
+package com.dreamcollections.services.product.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Checkpoint of a product's decayed best-seller score (see BestSellerRanking). The score is the value as of
+// scoredAt; it keeps decaying from there, so readers must age it before use.
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "product_popularity")
+public class ProductPopularity {
+
+    @Id // The product's ID, not generated
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "scored_at", nullable = false)
+    private LocalDateTime scoredAt;
+
+    public ProductPopularity(Long productId, double score, LocalDateTime scoredAt) {
+        this.productId = productId;
+        this.score = score;
+        this.scoredAt = scoredAt;
+    }
+}
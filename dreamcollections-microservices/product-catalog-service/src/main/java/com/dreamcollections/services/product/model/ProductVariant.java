@@ -1,13 +1,24 @@
 package com.dreamcollections.services.product.model; // Updated package
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "product_variants")
+@Cacheable
+// Checkout decrements are bulk JPQL updates, which make Hibernate evict this region (and Product.variants)
+// around the transaction; entity writes such as PUT .../stock update the cached entry in place.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog.variant")
+@Table(name = "product_variants", indexes = {
+        // Covers the in-stock EXISTS filter and variant lookups per product
+        @Index(name = "idx_product_variants_product_stock", columnList = "product_id, stock_quantity")
+})
 public class ProductVariant {
 
     @Id
@@ -16,6 +27,8 @@ public class ProductVariant {
 
     @ManyToOne(fetch = FetchType.LAZY) // Eager fetch might be useful if product is always needed with variant
     @JoinColumn(name = "product_id", nullable = false)
+    @ToString.Exclude // Product's toString/hashCode include its variants; excluding the back-reference prevents recursion
+    @EqualsAndHashCode.Exclude
     private Product product;
 
     @Column(nullable = false)
@@ -0,0 +1,255 @@
+package com.dreamcollections.services.product.popularity;
+
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.model.ProductPopularity;
+import com.dreamcollections.services.product.repository.ProductPopularityRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Best-seller scores per product, fed incrementally with the units sold reported by order-service and read by
+ * {@code sort=popularity} listings without touching order data.
+ * <p>
+ * A score is the sum of units sold, each sale decaying exponentially with the configured half-life, so recent
+ * sales outweigh old ones without keeping any per-sale history. Scores are stored relative to a fixed epoch
+ * ({@code units * 2^((soldAt - epoch) / halfLife)}): decay then never needs to touch existing entries, only new
+ * sales are scaled, and the ordering is the same as that of the current decayed values. Once the scale factor
+ * grows large, all entries are rebased to a new epoch in one pass and negligible ones are dropped.
+ * <p>
+ * Scores live in a primitive long-keyed map and are checkpointed to {@code product_popularity} periodically;
+ * sales reported since the last checkpoint are lost if the process dies.
+ */
+@Component
+public class BestSellerRanking {
+
+    private static final Logger log = LoggerFactory.getLogger(BestSellerRanking.class);
+
+    // Rebase once stored scores carry a factor of 2^40 (~1e12), well within double range
+    private static final double REBASE_AFTER_HALF_LIVES = 40;
+    // Decayed scores below this (a fraction of one unit) are treated as no sales at all
+    private static final double MIN_SCORE = 1e-3;
+
+    private final ProductVariantRepository productVariantRepository;
+    private final ProductPopularityRepository productPopularityRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double halfLifeMillis;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private final LongDoubleHashMap scores = new LongDoubleHashMap(1024);
+    private final Set<Long> dirty = new HashSet<>();
+    private long epochMillis = System.currentTimeMillis();
+    private boolean loaded;
+
+    @Autowired
+    public BestSellerRanking(ProductVariantRepository productVariantRepository,
+                             ProductPopularityRepository productPopularityRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${catalog.popularity.half-life:P7D}") Duration halfLife) {
+        this.productVariantRepository = productVariantRepository;
+        this.productPopularityRepository = productPopularityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.halfLifeMillis = halfLife.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        List<ProductPopularity> checkpoints = transactionTemplate.execute(status -> productPopularityRepository.findAll());
+        boolean applied = false;
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                // Sales recorded before the load finished were added on top of an empty map; keep them
+                for (ProductPopularity checkpoint : checkpoints) {
+                    long scoredAt = checkpoint.getScoredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    scores.addTo(checkpoint.getProductId(), checkpoint.getScore() * scale(scoredAt));
+                }
+                loaded = true;
+                applied = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (applied) {
+            log.info("Best-seller scores loaded for {} products in {} ms.", checkpoints.size(), System.currentTimeMillis() - started);
+        } else {
+            log.debug("Best-seller scores were already loaded; {} checkpoints ignored.", checkpoints.size());
+        }
+    }
+
+    /**
+     * Adds the units sold per variant to their products' scores, as of {@code soldAt}. Negative units (returns)
+     * lower the score, never below zero.
+     */
+    public void recordUnitsSold(Map<Long, Integer> unitsByVariant, Instant soldAt) {
+        if (unitsByVariant.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> unitsByProduct = new HashMap<>();
+        for (Object[] row : productVariantRepository.findProductIdsByIdIn(unitsByVariant.keySet())) {
+            unitsByProduct.merge((Long) row[1], (long) unitsByVariant.get((Long) row[0]), Long::sum);
+        }
+        // A report for a window that ends in the future is counted as of now
+        long soldAtMillis = Math.min(soldAt.toEpochMilli(), System.currentTimeMillis());
+
+        lock.writeLock().lock();
+        try {
+            rebaseIfNeeded(soldAtMillis);
+            double factor = scale(soldAtMillis);
+            unitsByProduct.forEach((productId, units) -> {
+                if (units != 0 && scores.addTo(productId, units * factor) <= 0) {
+                    scores.remove(productId);
+                }
+                dirty.add(productId);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Current decayed score: roughly the units sold in the last half-life, plus half of those in the one before...
+    public double getScore(Long productId) {
+        lock.readLock().lock();
+        try {
+            return scores.get(productId) / scale(System.currentTimeMillis());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the given product IDs ordered best-selling first. The sort is stable, so products with equal scores
+     * (such as those that never sold) keep their relative input order.
+     */
+    public List<Long> sortByPopularity(Collection<Long> productIds) {
+        Long[] ids = productIds.toArray(new Long[0]);
+        double[] stored = new double[ids.length];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                stored[i] = scores.get(ids[i]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(stored[b], stored[a]));
+        List<Long> sorted = new ArrayList<>(ids.length);
+        for (Integer i : order) {
+            sorted.add(ids[i]);
+        }
+        return sorted;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getChangeType() != ProductChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            scores.remove(event.getProductId());
+            dirty.add(event.getProductId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Writes the scores changed since the last checkpoint, aged to now
+    @Scheduled(fixedDelayString = "${catalog.popularity.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        Map<Long, Double> changed = new HashMap<>();
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (!loaded || dirty.isEmpty()) {
+                return;
+            }
+            double factor = scale(now);
+            for (Long productId : dirty) {
+                changed.put(productId, scores.get(productId) / factor);
+            }
+            dirty.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDateTime scoredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, ProductPopularity> existing = new HashMap<>();
+                productPopularityRepository.findAllById(changed.keySet()).forEach(row -> existing.put(row.getProductId(), row));
+                List<ProductPopularity> created = new ArrayList<>();
+                changed.forEach((productId, score) -> {
+                    ProductPopularity row = existing.get(productId);
+                    if (score < MIN_SCORE) {
+                        if (row != null) {
+                            productPopularityRepository.delete(row);
+                        }
+                    } else if (row != null) {
+                        row.setScore(score);
+                        row.setScoredAt(scoredAt);
+                    } else {
+                        created.add(new ProductPopularity(productId, score, scoredAt));
+                    }
+                });
+                productPopularityRepository.saveAll(created);
+            });
+            log.debug("Best-seller checkpoint wrote {} scores.", changed.size());
+        } catch (RuntimeException e) {
+            // Retry these with the next checkpoint
+            lock.writeLock().lock();
+            try {
+                dirty.addAll(changed.keySet());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Best-seller checkpoint failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Factor that converts a score as of timeMillis into the stored, epoch-relative form
+    private double scale(long timeMillis) {
+        return Math.pow(2, (timeMillis - epochMillis) / halfLifeMillis);
+    }
+
+    // Caller holds the write lock
+    private void rebaseIfNeeded(long nowMillis) {
+        if ((nowMillis - epochMillis) / halfLifeMillis < REBASE_AFTER_HALF_LIVES) {
+            return;
+        }
+        double factor = 1 / scale(nowMillis);
+        scores.scaleAndPrune(factor, MIN_SCORE);
+        epochMillis = nowMillis;
+        log.info("Best-seller scores rebased; {} products still have recent sales.", scores.size());
+    }
+}
@@ -0,0 +1,27 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.model.CatalogChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+    List<CatalogChange> findBySequenceGreaterThanOrderBySequenceAsc(Long since, Pageable pageable);
+
+    Optional<CatalogChange> findFirstByOrderBySequenceAsc();
+
+    @Query("SELECT MAX(c.sequence) FROM CatalogChange c")
+    Optional<Long> findLatestSequence();
+
+    // The newest row is always kept, so the latest sequence survives a quiet retention period
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.changedAt < :cutoff AND c.sequence < (SELECT MAX(m.sequence) FROM CatalogChange m)")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
@@ -1,7 +1,9 @@
 package com.dreamcollections.services.product.repository;
 
+import com.dreamcollections.services.product.dto.CategoryDto;
 import com.dreamcollections.services.product.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +19,19 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     // Method to find sub-categories of a given parent category ID
     List<Category> findByParentCategoryId(Long parentCategoryId);
+
+    // Whole tree as flat rows in a single query, used to build the in-memory category snapshot
+    @Query("SELECT new com.dreamcollections.services.product.dto.CategoryDto(c.id, c.name, c.description, p.id) " +
+           "FROM Category c LEFT JOIN c.parentCategory p")
+    List<CategoryDto> findAllAsFlatDtos();
+
+    // Category ID plus the IDs of all its descendants, resolved in one round trip with a recursive CTE.
+    // Supported by both PostgreSQL and H2.
+    @Query(value = "WITH RECURSIVE subtree(id) AS (" +
+                   "  SELECT c.id FROM categories c WHERE c.id = :categoryId" +
+                   "  UNION ALL" +
+                   "  SELECT child.id FROM categories child JOIN subtree s ON child.parent_category_id = s.id" +
+                   ") SELECT id FROM subtree",
+           nativeQuery = true)
+    List<Long> findSubtreeIds(Long categoryId);
 }
@@ -0,0 +1,13 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+// Phase 1 of the two-phase listing for ad-hoc filters: JpaSpecificationExecutor.findAll(spec, pageable) can only
+// return entities, so this pages over IDs alone, like the @Query variants in ProductRepository.
+public interface ProductIdQueries {
+
+    Page<Long> findPageIds(Specification<Product> spec, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.model.ProductPopularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductPopularityRepository extends JpaRepository<ProductPopularity, Long> {
+}
@@ -1,18 +1,26 @@
 package com.dreamcollections.services.product.repository;
 
 import com.dreamcollections.services.product.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 // import com.dreamcollections.services.product.model.Category; // Not strictly needed if using findByCategoryId
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductIdQueries {
     // Fetch product with variants and category eagerly for detail views
     @Query("SELECT p FROM Product p JOIN FETCH p.category LEFT JOIN FETCH p.variants WHERE p.id = :id")
     Optional<Product> findByIdWithDetails(Long id);
@@ -20,9 +28,66 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // For listing, default lazy loading is fine, or specific projections can be used.
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
 
+    // --- Two-phase listing ---
+    // Phase 1 pages over product IDs only (plus the count query); phase 2 hydrates just that page,
+    // with category and variants, in a single fetch-join query. This keeps listing at three queries per page
+    // instead of 1 + 2N lazy loads.
+
+    @Query(value = "SELECT p.id FROM Product p",
+           countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<Long> findPageIds(Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Product p WHERE p.category.id = :categoryId",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
+    Page<Long> findPageIdsByCategoryId(Long categoryId, Pageable pageable);
+
     // Find products by category ID including all subcategories (hierarchical filtering)
-    @Query("SELECT p FROM Product p WHERE p.category.id IN :categoryIds")
-    Page<Product> findByCategoryIdIn(List<Long> categoryIds, Pageable pageable);
+    @Query(value = "SELECT p.id FROM Product p WHERE p.category.id IN :categoryIds",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id IN :categoryIds")
+    Page<Long> findPageIdsByCategoryIdIn(Collection<Long> categoryIds, Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Page<Long> findPageIdsByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    @Query("SELECT DISTINCT p FROM Product p JOIN FETCH p.category LEFT JOIN FETCH p.variants WHERE p.id IN :ids")
+    List<Product> findAllWithDetailsByIdIn(Collection<Long> ids);
+
+    // Rows of (id, description) for a listing page that asked for descriptions. The description is a lazy LOB,
+    // so reading it from each hydrated entity would cost one extra SELECT per product.
+    @Query("SELECT p.id, p.description FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findDescriptionsByIdIn(Collection<Long> ids);
+
+    // Percentage repricing of a category subtree in one statement. Rounds to cents and never goes below 0.01.
+    // As a bulk update it also evicts the Product region of the second-level cache when the transaction completes.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.price = CASE WHEN ROUND(p.price * :factor, 2) < 0.01 THEN 0.01 " +
+           "ELSE ROUND(p.price * :factor, 2) END WHERE p.category.id IN :categoryIds")
+    int scalePricesByCategoryIdIn(Collection<Long> categoryIds, BigDecimal factor);
+
+    @Query("SELECT MAX(p.price) FROM Product p WHERE p.category.id IN :categoryIds")
+    Optional<BigDecimal> findMaxPriceByCategoryIdIn(Collection<Long> categoryIds);
+
+    // Rows of (id, price) of a category subtree, to report prices after a bulk update without loading entities
+    @Query("SELECT p.id, p.price FROM Product p WHERE p.category.id IN :categoryIds")
+    List<Object[]> findPricesByCategoryIdIn(Collection<Long> categoryIds);
+
+    // Rows of (product id, category id) used to build the per-category product counts at startup
+    @Query("SELECT p.id, p.category.id FROM Product p")
+    List<Object[]> findAllCategoryAssignments();
+
+    // Rows of (id, name, description) used to build the in-memory search index at startup
+    @Query("SELECT p.id, p.name, p.description FROM Product p")
+    List<Object[]> findAllSearchableFields();
 
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    // Full-catalog export: one forward-only cursor over scalar rows (one row per variant, products without variants
+    // once), ordered so each product's rows are contiguous. Scalars keep the persistence context empty, and the
+    // fetch size keeps the driver from buffering the whole result. Must be consumed inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p.id, p.name, p.description, p.price, p.imageUrl, p.videoUrl, c.id, v.id, v.size, v.stockQuantity " +
+           "FROM Product p JOIN p.category c LEFT JOIN p.variants v ORDER BY p.id, v.id")
+    Stream<Object[]> streamCatalogRows();
 }
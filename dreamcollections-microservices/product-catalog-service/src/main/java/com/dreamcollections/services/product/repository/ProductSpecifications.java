@@ -0,0 +1,55 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Locale;
+
+// Composable filters for ProductRepository.findAll(Specification, Pageable).
+// Combined with Specification.and(...) they render into a single WHERE clause.
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> inCategories(Collection<Long> categoryIds) {
+        return (root, query, criteriaBuilder) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    // An empty collection matches nothing (rather than rendering an empty IN list)
+    public static Specification<Product> idIn(Collection<Long> productIds) {
+        return (root, query, criteriaBuilder) -> productIds.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get("id").in(productIds);
+    }
+
+    public static Specification<Product> nameContains(String text) {
+        String pattern = "%" + text.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), pattern);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    // At least one variant with stock left. Rendered as an EXISTS subquery so no rows are duplicated.
+    public static Specification<Product> inStock() {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<ProductVariant> variant = subquery.from(ProductVariant.class);
+            subquery.select(variant.get("id"))
+                    .where(criteriaBuilder.equal(variant.get("product"), root),
+                           criteriaBuilder.greaterThan(variant.get("stockQuantity"), 0));
+            return criteriaBuilder.exists(subquery);
+        };
+    }
+}
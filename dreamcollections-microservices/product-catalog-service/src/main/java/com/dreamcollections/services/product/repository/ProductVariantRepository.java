@@ -1,10 +1,14 @@
 package com.dreamcollections.services.product.repository;
 
+import com.dreamcollections.services.product.dto.ProductVariantDetailDto;
 import com.dreamcollections.services.product.model.ProductVariant;
 // import com.dreamcollections.services.product.model.Product; // Not strictly needed if using findByProductId
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,34 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
     Optional<ProductVariant> findByProductIdAndSize(Long productId, String size);
     // Add method to find multiple variants by ID list if needed for cart/order service.
     List<ProductVariant> findByIdIn(List<Long> ids);
+
+    // Internal read path for cart/order service: one inner join projected straight into DTOs
+    @Query("SELECT new com.dreamcollections.services.product.dto.ProductVariantDetailDto(" +
+           "v.id, v.size, v.stockQuantity, p.id, p.name, p.price, p.imageUrl) " +
+           "FROM ProductVariant v JOIN v.product p WHERE v.id IN :ids")
+    List<ProductVariantDetailDto> findDetailsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.dreamcollections.services.product.dto.ProductVariantDetailDto(" +
+           "v.id, v.size, v.stockQuantity, p.id, p.name, p.price, p.imageUrl) " +
+           "FROM ProductVariant v JOIN v.product p WHERE v.id = :id")
+    Optional<ProductVariantDetailDto> findDetailsById(Long id);
+
+    // Conditional decrement: the row lock taken by the UPDATE makes check-and-subtract atomic,
+    // so concurrent checkouts can never drive stock below zero. The last {@code held} units are promised to
+    // reservations and left alone. Returns 0 if the variant is missing or short.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductVariant v SET v.stockQuantity = v.stockQuantity - :quantity WHERE v.id = :id AND v.stockQuantity - :held >= :quantity")
+    int decrementStockIfAvailable(Long id, int quantity, int held);
+
+    @Query("SELECT v.stockQuantity FROM ProductVariant v WHERE v.id = :id")
+    Optional<Integer> findStockQuantityById(Long id);
+
+    // [productId, highest variant stock] for every product owning one of the given variants
+    @Query("SELECT v.product.id, MAX(v.stockQuantity) FROM ProductVariant v WHERE v.product.id IN " +
+           "(SELECT x.product.id FROM ProductVariant x WHERE x.id IN :variantIds) GROUP BY v.product.id")
+    List<Object[]> findMaxStockByProductsOfVariants(Collection<Long> variantIds);
+
+    // [variantId, productId] for the given variants; no join, the product ID is the variant's foreign key
+    @Query("SELECT v.id, v.product.id FROM ProductVariant v WHERE v.id IN :variantIds")
+    List<Object[]> findProductIdsByIdIn(Collection<Long> variantIds);
 }
@@ -0,0 +1,40 @@
+package com.dreamcollections.services.product.reservation;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * A temporary hold on stock for a set of variants. Held quantities are subtracted from what other shoppers
+ * see as available until the reservation is confirmed (stock is decremented), released, or expires.
+ */
+public final class StockReservation {
+
+    enum State { ACTIVE, CONFIRMING }
+
+    private final String id;
+    private final SortedMap<Long, Integer> quantities;
+    private final Instant expiresAt;
+    // Guarded by the owning StockReservationStore
+    State state = State.ACTIVE;
+
+    StockReservation(String id, SortedMap<Long, Integer> quantities, Instant expiresAt) {
+        this.id = id;
+        this.quantities = Collections.unmodifiableSortedMap(quantities);
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // Variant ID -> held quantity, in ascending variant ID order
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
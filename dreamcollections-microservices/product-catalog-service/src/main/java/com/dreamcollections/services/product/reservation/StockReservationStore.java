@@ -0,0 +1,186 @@
+package com.dreamcollections.services.product.reservation;
+
+import com.dreamcollections.services.product.event.StockHoldsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory registry of active stock holds with automatic expiry.
+ * <p>
+ * Holds are tracked per variant so availability ({@code stock - held}) is a single map lookup. All state changes
+ * happen under the store's monitor, which makes the check-then-hold in {@link #reserve} atomic. Expiry is driven
+ * by a {@link DelayQueue} drained by one daemon sweeper thread, so no polling or per-reservation timers are needed.
+ * Holds are not persisted: after a restart they are simply gone, which fails safe (stock becomes available again).
+ * Every change to the holds is published as a {@link StockHoldsChangedEvent}.
+ */
+@Component
+public class StockReservationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationStore.class);
+
+    private final Map<String, StockReservation> reservations = new ConcurrentHashMap<>();
+    // Variant ID -> total quantity held by active reservations. Written under the monitor, read lock-free.
+    private final Map<Long, Integer> heldByVariant = new ConcurrentHashMap<>();
+    // The part of heldByVariant belonging to reservations being confirmed (their stock decrement is in flight)
+    private final Map<Long, Integer> confirmingByVariant = new ConcurrentHashMap<>();
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private final ApplicationEventPublisher eventPublisher;
+
+    private Thread sweeper;
+
+    @Autowired
+    public StockReservationStore(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void startSweeper() {
+        sweeper = new Thread(this::sweep, "stock-reservation-sweeper");
+        sweeper.setDaemon(true);
+        sweeper.start();
+    }
+
+    @PreDestroy
+    public void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.interrupt();
+        }
+    }
+
+    public int heldQuantity(Long variantId) {
+        return variantId != null ? heldByVariant.getOrDefault(variantId, 0) : 0;
+    }
+
+    /**
+     * Held quantity not yet covered by a stock decrement: holds of reservations being confirmed are left out, since
+     * their decrement commits before the holds are dropped. Stock minus this does not dip while a checkout completes.
+     */
+    public int heldQuantityExcludingConfirming(Long variantId) {
+        return variantId != null ? Math.max(0, heldQuantity(variantId) - confirmingByVariant.getOrDefault(variantId, 0)) : 0;
+    }
+
+    public int activeReservationCount() {
+        return reservations.size();
+    }
+
+    /**
+     * Places a hold for every line, or for none. {@code stockByVariant} is the committed stock per variant;
+     * a line is accepted if {@code stock - held >= quantity}. Returns the reservation, or empty if any line is short
+     * (callers inspect {@link #heldQuantity} to report why).
+     */
+    public synchronized Optional<StockReservation> reserve(SortedMap<Long, Integer> quantities, Map<Long, Integer> stockByVariant, Duration ttl) {
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Integer stock = stockByVariant.get(line.getKey());
+            if (stock == null || stock - heldQuantity(line.getKey()) < line.getValue()) {
+                return Optional.empty();
+            }
+        }
+        StockReservation reservation = new StockReservation(UUID.randomUUID().toString(), quantities, Instant.now().plus(ttl));
+        quantities.forEach((variantId, quantity) -> heldByVariant.merge(variantId, quantity, Integer::sum));
+        reservations.put(reservation.getId(), reservation);
+        expiries.add(new Expiry(reservation.getId(), System.nanoTime() + ttl.toNanos()));
+        eventPublisher.publishEvent(new StockHoldsChangedEvent(new ArrayList<>(quantities.keySet())));
+        return Optional.of(reservation);
+    }
+
+    /**
+     * Marks an active reservation as being confirmed so it can no longer expire or be released.
+     * Its holds stay in place until {@link #complete} is called once the stock decrement has committed.
+     */
+    public synchronized Optional<StockReservation> beginConfirm(String reservationId) {
+        StockReservation reservation = reservations.get(reservationId);
+        if (reservation == null || reservation.state != StockReservation.State.ACTIVE) {
+            return Optional.empty();
+        }
+        reservation.state = StockReservation.State.CONFIRMING;
+        reservation.getQuantities().forEach((variantId, quantity) -> confirmingByVariant.merge(variantId, quantity, Integer::sum));
+        return Optional.of(reservation);
+    }
+
+    // Drops a reservation that went through beginConfirm, whatever the outcome of the decrement
+    public synchronized void complete(String reservationId) {
+        StockReservation reservation = reservations.get(reservationId);
+        if (reservation != null && reservation.state == StockReservation.State.CONFIRMING) {
+            remove(reservation);
+        }
+    }
+
+    public synchronized boolean release(String reservationId) {
+        StockReservation reservation = reservations.get(reservationId);
+        if (reservation == null || reservation.state != StockReservation.State.ACTIVE) {
+            return false;
+        }
+        remove(reservation);
+        return true;
+    }
+
+    private synchronized void expire(String reservationId) {
+        StockReservation reservation = reservations.get(reservationId);
+        // A reservation mid-confirmation is allowed to outlive its TTL
+        if (reservation != null && reservation.state == StockReservation.State.ACTIVE) {
+            remove(reservation);
+            log.info("Stock reservation {} expired, released holds on {} variants.", reservationId, reservation.getQuantities().size());
+        }
+    }
+
+    private void remove(StockReservation reservation) {
+        reservations.remove(reservation.getId());
+        boolean confirming = reservation.state == StockReservation.State.CONFIRMING;
+        reservation.getQuantities().forEach((variantId, quantity) -> {
+            if (confirming) {
+                confirmingByVariant.computeIfPresent(variantId, (id, held) -> held > quantity ? held - quantity : null);
+            }
+            heldByVariant.computeIfPresent(variantId, (id, held) -> held > quantity ? held - quantity : null);
+        });
+        eventPublisher.publishEvent(new StockHoldsChangedEvent(new ArrayList<>(reservation.getQuantities().keySet())));
+    }
+
+    private void sweep() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                expire(expiries.take().reservationId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Stock reservation sweeper failed to expire a reservation.", e);
+            }
+        }
+    }
+
+    private static final class Expiry implements Delayed {
+        private final String reservationId;
+        private final long deadlineNanos;
+
+        private Expiry(String reservationId, long deadlineNanos) {
+            this.reservationId = reservationId;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineNanos, ((Expiry) other).deadlineNanos);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.dreamcollections.services.product.service;
+
+import com.dreamcollections.services.product.dto.CacheStatisticsDto;
+
+public interface CatalogCacheService {
+    CacheStatisticsDto getStatistics();
+    // Drops every cached entity, collection and product response, e.g. after the database was edited directly
+    void evictAll();
+    void resetStatistics();
+}
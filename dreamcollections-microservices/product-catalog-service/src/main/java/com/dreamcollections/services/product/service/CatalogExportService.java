@@ -0,0 +1,9 @@
+package com.dreamcollections.services.product.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CatalogExportService {
+    // Writes every product (with variants and category path) as one JSON object per line; returns the product count
+    long exportCatalog(OutputStream out) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.dreamcollections.services.product.service;
+
+import com.dreamcollections.services.product.catalogimport.CatalogImportFormat;
+import com.dreamcollections.services.product.dto.CatalogImportReportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CatalogImportService {
+    // Reads products from the stream as it arrives and creates them chunk by chunk; invalid products are skipped and reported
+    CatalogImportReportDto importCatalog(InputStream in, CatalogImportFormat format) throws IOException;
+}
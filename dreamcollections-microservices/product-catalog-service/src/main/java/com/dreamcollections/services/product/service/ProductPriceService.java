@@ -0,0 +1,9 @@
+package com.dreamcollections.services.product.service;
+
+import com.dreamcollections.services.product.dto.BulkPriceUpdateRequestDto;
+import com.dreamcollections.services.product.dto.BulkPriceUpdateResultDto;
+
+public interface ProductPriceService {
+    // Reprices many products at once with set-based writes; no product entities are loaded
+    BulkPriceUpdateResultDto updatePrices(BulkPriceUpdateRequestDto request);
+}
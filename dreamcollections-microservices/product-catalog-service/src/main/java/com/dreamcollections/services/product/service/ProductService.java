@@ -1,26 +1,54 @@
 package com.dreamcollections.services.product.service;
 
+import com.dreamcollections.services.product.dto.CursorPageDto;
+import com.dreamcollections.services.product.dto.FacetedProductPageDto;
+import com.dreamcollections.services.product.dto.ProductFilterCriteria;
+import com.dreamcollections.services.product.dto.ProductListingField;
 import com.dreamcollections.services.product.dto.ProductRequestDto;
 import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductSummaryDto;
+import com.dreamcollections.services.product.dto.ProductVariantDetailDto;
 import com.dreamcollections.services.product.dto.ProductVariantDto; // For stock update
+import com.dreamcollections.services.product.dto.SalesReportDto;
+import com.dreamcollections.services.product.dto.StockDecrementResultDto;
+import com.dreamcollections.services.product.dto.StockLineDto;
+import com.dreamcollections.services.product.dto.SuggestionDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ProductService {
     ProductResponseDto createProduct(ProductRequestDto productRequestDto);
     Optional<ProductResponseDto> getProductById(Long id);
-    Page<ProductResponseDto> getAllProducts(Pageable pageable);
-    Page<ProductResponseDto> getProductsByCategoryId(Long categoryId, Pageable pageable);
-    Page<ProductResponseDto> getProductsByCategoryIdIncludingSubcategories(Long categoryId, Pageable pageable);
-    Page<ProductResponseDto> searchProductsByName(String name, Pageable pageable);
+
+    // Listings return slim summaries; fields selects the heavy fields to include as well (empty for none)
+    Page<ProductSummaryDto> getAllProducts(Pageable pageable, Set<ProductListingField> fields);
+    Page<ProductSummaryDto> getProductsByCategoryId(Long categoryId, Pageable pageable, Set<ProductListingField> fields);
+    Page<ProductSummaryDto> getProductsByCategoryIdIncludingSubcategories(Long categoryId, Pageable pageable, Set<ProductListingField> fields);
+    Page<ProductSummaryDto> searchProductsByName(String name, Pageable pageable, Set<ProductListingField> fields);
+    // Combines category subtree, name, price range and in-stock filters in one query
+    Page<ProductSummaryDto> filterProducts(ProductFilterCriteria criteria, Pageable pageable, Set<ProductListingField> fields);
+    // Keyset pagination ordered by (name, id); cursor is null for the first slice
+    CursorPageDto<ProductSummaryDto> scrollProducts(ProductFilterCriteria criteria, String cursor, int size, Set<ProductListingField> fields);
+    // Same filters plus variant sizes; returns the page together with facet counts
+    FacetedProductPageDto searchWithFacets(ProductFilterCriteria criteria, List<String> sizes, Pageable pageable, Set<ProductListingField> fields);
+    // Type-ahead: product and category names with a word starting with the prefix
+    List<SuggestionDto> suggest(String prefix, int limit);
     ProductResponseDto updateProduct(Long id, ProductRequestDto productRequestDto);
     void deleteProduct(Long id);
 
     // Stock Management
     ProductVariantDto updateStock(Long productVariantId, Integer newStockQuantity);
-    Optional<ProductVariantDto> getProductVariantById(Long productVariantId);
-    List<ProductVariantDto> getProductVariantsByIds(List<Long> variantIds); // For cart/order service
+    Optional<ProductVariantDetailDto> getProductVariantById(Long productVariantId);
+    List<ProductVariantDetailDto> getProductVariantsByIds(long[] variantIds); // For cart/order service, single join query
+    // All-or-nothing batch decrement used at checkout; nothing is changed unless every line succeeds
+    StockDecrementResultDto decrementStock(List<StockLineDto> lines);
+    // Moves a hot variant's stock to striped in-memory counters (true) or back to the database (false)
+    void setFlashSaleMode(Long productVariantId, boolean enabled);
+
+    // Feeds units sold per variant (reported by order-service) into the best-seller ranking behind sort=popularity
+    void recordSales(SalesReportDto report);
 }
@@ -0,0 +1,15 @@
+package com.dreamcollections.services.product.service;
+
+import com.dreamcollections.services.product.dto.StockDecrementResultDto;
+import com.dreamcollections.services.product.dto.StockLineDto;
+import com.dreamcollections.services.product.dto.StockReservationResultDto;
+
+import java.util.List;
+
+public interface StockReservationService {
+    // Holds stock for all lines or none; held stock is hidden from other shoppers until confirm, release or expiry
+    StockReservationResultDto createReservation(List<StockLineDto> lines, Long ttlSeconds);
+    // Turns the hold into a real stock decrement
+    StockDecrementResultDto confirmReservation(String reservationId);
+    void releaseReservation(String reservationId);
+}
@@ -0,0 +1,70 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.cache.ProductDetailResponseCache;
+import com.dreamcollections.services.product.dto.CacheRegionStatisticsDto;
+import com.dreamcollections.services.product.dto.CacheStatisticsDto;
+import com.dreamcollections.services.product.service.CatalogCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCacheServiceImpl.class);
+
+    private final SessionFactory sessionFactory;
+    private final ProductDetailResponseCache productDetailResponseCache;
+
+    @Autowired
+    public CatalogCacheServiceImpl(EntityManagerFactory entityManagerFactory, ProductDetailResponseCache productDetailResponseCache) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.productDetailResponseCache = productDetailResponseCache;
+    }
+
+    @Override
+    public CacheStatisticsDto getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        List<CacheRegionStatisticsDto> regions = new ArrayList<>(regionNames.length);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region != null) {
+                regions.add(new CacheRegionStatisticsDto(regionName, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), hitRatio(region.getHitCount(), region.getMissCount())));
+            }
+        }
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        return new CacheStatisticsDto(statistics.isStatisticsEnabled(), statistics.getStart(), hits, misses,
+                statistics.getSecondLevelCachePutCount(), hitRatio(hits, misses), regions, productDetailResponseCache.getStatistics());
+    }
+
+    @Override
+    public void evictAll() {
+        log.info("Evicting all second-level cache regions and the product response cache.");
+        sessionFactory.getCache().evictAllRegions();
+        productDetailResponseCache.clear();
+    }
+
+    @Override
+    public void resetStatistics() {
+        sessionFactory.getStatistics().clear();
+        productDetailResponseCache.resetStatistics();
+    }
+
+    private static Double hitRatio(long hits, long misses) {
+        long reads = hits + misses;
+        return reads == 0 ? null : (double) hits / reads;
+    }
+}
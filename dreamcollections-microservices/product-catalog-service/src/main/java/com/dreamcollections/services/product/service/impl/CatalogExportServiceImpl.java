@@ -0,0 +1,119 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.cache.CategoryTreeCache;
+import com.dreamcollections.services.product.cache.CategoryTreeSnapshot;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.service.CatalogExportService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogExportServiceImpl.class);
+
+    // Push output to the client every this many products so the first bytes leave immediately
+    private static final int FLUSH_EVERY = 100;
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CatalogExportServiceImpl(ProductRepository productRepository, CategoryTreeCache categoryTreeCache, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.objectMapper = objectMapper;
+    }
+
+    // The transaction keeps the server-side cursor open (PostgreSQL only honours the fetch size with autocommit off).
+    // Memory use is one product's rows plus the category path cache, independent of catalog size.
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCatalog(OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        CategoryTreeSnapshot categories = categoryTreeCache.getSnapshot();
+        Map<Long, List<String>> pathsByCategory = new HashMap<>();
+        long exported = 0;
+
+        try (Stream<Object[]> rows = productRepository.streamCatalogRows();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // Keep the servlet stream open; Spring completes the response itself
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // NDJSON: each product is a root-level value on its own line
+            json.setRootValueSeparator(new SerializedString("\n"));
+
+            Long currentProductId = null;
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Long productId = (Long) row[0];
+                if (!Objects.equals(productId, currentProductId)) {
+                    if (currentProductId != null) {
+                        endProduct(json);
+                        if (++exported % FLUSH_EVERY == 0) {
+                            json.flush();
+                        }
+                    }
+                    currentProductId = productId;
+                    Long categoryId = (Long) row[6];
+                    startProduct(json, row, categoryId, pathsByCategory.computeIfAbsent(categoryId, categories::getPath));
+                }
+                if (row[7] != null) { // LEFT JOIN: null for a product without variants
+                    json.writeStartObject();
+                    json.writeNumberField("id", (Long) row[7]);
+                    json.writeStringField("size", (String) row[8]);
+                    json.writeNumberField("stockQuantity", (Integer) row[9]);
+                    json.writeEndObject();
+                }
+            }
+            if (currentProductId != null) {
+                endProduct(json);
+                exported++;
+                json.writeRaw('\n');
+            }
+            json.flush();
+        }
+        log.info("Catalog export streamed {} products in {} ms.", exported, System.currentTimeMillis() - started);
+        return exported;
+    }
+
+    private static void startProduct(JsonGenerator json, Object[] row, Long categoryId, List<String> categoryPath) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", (Long) row[0]);
+        json.writeStringField("name", (String) row[1]);
+        json.writeStringField("description", (String) row[2]);
+        json.writeNumberField("price", (BigDecimal) row[3]);
+        json.writeStringField("imageUrl", (String) row[4]);
+        json.writeStringField("videoUrl", (String) row[5]);
+        json.writeNumberField("categoryId", categoryId);
+        json.writeArrayFieldStart("categoryPath");
+        for (String name : categoryPath) {
+            json.writeString(name);
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("variants");
+    }
+
+    private static void endProduct(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+}
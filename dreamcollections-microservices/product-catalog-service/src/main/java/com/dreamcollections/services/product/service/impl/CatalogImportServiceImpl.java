@@ -0,0 +1,218 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.cache.CategoryTreeCache;
+import com.dreamcollections.services.product.cache.CategoryTreeSnapshot;
+import com.dreamcollections.services.product.catalogimport.CatalogImportFormat;
+import com.dreamcollections.services.product.catalogimport.CatalogImportWriter;
+import com.dreamcollections.services.product.catalogimport.CsvImportReader;
+import com.dreamcollections.services.product.catalogimport.ImportRecord;
+import com.dreamcollections.services.product.catalogimport.ImportRecordReader;
+import com.dreamcollections.services.product.catalogimport.ImportedProduct;
+import com.dreamcollections.services.product.catalogimport.NdjsonImportReader;
+import com.dreamcollections.services.product.dto.CatalogImportReportDto;
+import com.dreamcollections.services.product.dto.CategoryDto;
+import com.dreamcollections.services.product.dto.ImportChunkReportDto;
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.service.CatalogImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming catalog import. Products are read one at a time and written in chunks, each in its own transaction
+ * through {@link CatalogImportWriter}'s JDBC batches, so memory stays at one chunk however large the file is.
+ * <p>
+ * Categories are resolved against the cached category tree, without a query per product. Each committed chunk is
+ * published as one {@link ProductsImportedEvent}, which keeps the search, facet and suggest indexes, the category
+ * counts and the change feed current as for products created through the API, with one update per chunk.
+ */
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportServiceImpl.class);
+
+    private static final int MAX_ERRORS_PER_CHUNK = 20;
+
+    private final CatalogImportWriter catalogImportWriter;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public CatalogImportServiceImpl(CatalogImportWriter catalogImportWriter, CategoryTreeCache categoryTreeCache,
+                                    ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper, Validator validator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${catalog.import.chunk-size:1000}") int chunkSize) {
+        this.catalogImportWriter = catalogImportWriter;
+        this.categoryTreeCache = categoryTreeCache;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public CatalogImportReportDto importCatalog(InputStream in, CatalogImportFormat format) throws IOException {
+        long started = System.nanoTime();
+        // One snapshot for the whole import: categories created meanwhile are not picked up
+        CategoryTreeSnapshot categories = categoryTreeCache.getSnapshot();
+        List<ImportChunkReportDto> chunks = new ArrayList<>();
+
+        try (ImportRecordReader reader = format == CatalogImportFormat.CSV
+                ? new CsvImportReader(in)
+                : new NdjsonImportReader(in, objectMapper)) {
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            long chunkStarted = System.nanoTime();
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    chunks.add(importChunk(chunks.size() + 1, chunk, categories, chunkStarted));
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkStarted = System.nanoTime();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunks.add(importChunk(chunks.size() + 1, chunk, categories, chunkStarted));
+            }
+        }
+
+        long products = 0;
+        long variants = 0;
+        long rejected = 0;
+        for (ImportChunkReportDto chunk : chunks) {
+            products += chunk.getProductsImported();
+            variants += chunk.getVariantsImported();
+            rejected += chunk.getProductsRejected();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Catalog import ({}) finished: {} products, {} variants imported, {} products rejected in {} ms.",
+                format, products, variants, rejected, elapsedMillis);
+        return new CatalogImportReportDto(products, variants, rejected, elapsedMillis, perSecond(variants, elapsedMillis), chunks);
+    }
+
+    private ImportChunkReportDto importChunk(int number, List<ImportRecord> records, CategoryTreeSnapshot categories, long started) {
+        List<ImportedProduct> valid = new ArrayList<>(records.size());
+        List<String> errors = new ArrayList<>();
+        int rejected = 0;
+        for (ImportRecord record : records) {
+            String error = record.isFailed() ? record.getError() : resolveAndValidate(record.getProduct(), categories);
+            if (error == null) {
+                valid.add(record.getProduct());
+            } else {
+                rejected++;
+                addError(errors, "line " + record.getLine() + ": " + error);
+            }
+        }
+
+        int variants = valid.stream().mapToInt(product -> product.getVariants().size()).sum();
+        boolean committed = true;
+        if (!valid.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Long> productIds = catalogImportWriter.insert(valid);
+                    List<ProductResponseDto> created = new ArrayList<>(valid.size());
+                    for (int i = 0; i < valid.size(); i++) {
+                        created.add(toResponseDto(productIds.get(i), valid.get(i), categories));
+                    }
+                    eventPublisher.publishEvent(new ProductsImportedEvent(created));
+                });
+            } catch (DataAccessException | TransactionException e) {
+                committed = false;
+                rejected += valid.size();
+                addError(errors, "chunk rolled back: " + e.getMostSpecificCause().getMessage());
+                log.warn("Catalog import chunk {} (lines {}-{}) rolled back: {}", number, records.get(0).getLine(),
+                        records.get(records.size() - 1).getLine(), e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        int imported = committed ? valid.size() : 0;
+        int importedVariants = committed ? variants : 0;
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        ImportChunkReportDto report = new ImportChunkReportDto(number, records.get(0).getLine(), records.get(records.size() - 1).getLine(),
+                imported, importedVariants, rejected, committed, elapsedMillis, perSecond(importedVariants, elapsedMillis), errors);
+        log.info("Catalog import chunk {}: {} products, {} variants imported, {} rejected in {} ms ({} variants/s).",
+                number, imported, importedVariants, rejected, elapsedMillis, Math.round(report.getVariantsPerSecond()));
+        return report;
+    }
+
+    // Sets the category ID from the name or path if needed; returns why the product cannot be imported, or null
+    private String resolveAndValidate(ImportedProduct product, CategoryTreeSnapshot categories) {
+        // Names are preferred over IDs: exported IDs usually mean nothing in another environment
+        String categoryName = product.getCategory();
+        if (categoryName == null && !CollectionUtils.isEmpty(product.getCategoryPath())) {
+            categoryName = product.getCategoryPath().get(product.getCategoryPath().size() - 1);
+        }
+        if (categoryName != null) {
+            Optional<CategoryDto> category = categories.getByName(categoryName.trim());
+            if (category.isEmpty()) {
+                return "Unknown category '" + categoryName + "'.";
+            }
+            product.setCategoryId(category.get().getId());
+        } else if (product.getCategoryId() != null && !categories.contains(product.getCategoryId())) {
+            return "Unknown category ID " + product.getCategoryId() + ".";
+        }
+
+        Set<ConstraintViolation<ImportedProduct>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        Set<String> sizes = new HashSet<>();
+        for (ProductVariantDto variant : product.getVariants()) {
+            if (!sizes.add(variant.getSize())) {
+                return "Duplicate variant size '" + variant.getSize() + "'.";
+            }
+        }
+        return null;
+    }
+
+    private static ProductResponseDto toResponseDto(Long productId, ImportedProduct product, CategoryTreeSnapshot categories) {
+        CategoryDto category = categories.getById(product.getCategoryId())
+                .map(c -> new CategoryDto(c.getId(), c.getName(), c.getDescription(), c.getParentId()))
+                .orElse(null);
+        for (ProductVariantDto variant : product.getVariants()) {
+            variant.setAvailableQuantity(variant.getStockQuantity()); // New variants have no holds or flash sales
+        }
+        return new ProductResponseDto(productId, product.getName(), product.getDescription(), product.getPrice(),
+                product.getImageUrl(), product.getVideoUrl(), category, product.getVariants());
+    }
+
+    private static void addError(List<String> errors, String error) {
+        if (errors.size() < MAX_ERRORS_PER_CHUNK) {
+            errors.add(error);
+        }
+    }
+
+    private static double perSecond(long count, long elapsedMillis) {
+        return elapsedMillis > 0 ? count * 1000.0 / elapsedMillis : count;
+    }
+}
@@ -1,8 +1,12 @@
 package com.dreamcollections.services.product.service.impl;
 
+import com.dreamcollections.services.product.cache.CategoryProductCounts;
+import com.dreamcollections.services.product.cache.CategoryTreeCache;
+import com.dreamcollections.services.product.cache.CategoryTreeSnapshot;
 import com.dreamcollections.services.product.dto.CategoryDto;
 import com.dreamcollections.services.product.dto.CategoryResponseDto;
 import com.dreamcollections.services.product.dto.request.CategoryRequestDto;
+import com.dreamcollections.services.product.event.CategoryTreeChangedEvent;
 import com.dreamcollections.services.product.exception.ResourceConflictException;
 import com.dreamcollections.services.product.exception.ResourceNotFoundException;
 import com.dreamcollections.services.product.model.Category;
@@ -10,26 +14,33 @@ import com.dreamcollections.services.product.repository.CategoryRepository;
 import com.dreamcollections.services.product.repository.ProductRepository;
 import com.dreamcollections.services.product.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryProductCounts categoryProductCounts;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository,
+                               CategoryTreeCache categoryTreeCache, CategoryProductCounts categoryProductCounts,
+                               ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.categoryProductCounts = categoryProductCounts;
+        this.eventPublisher = eventPublisher;
     }
 
     // --- DTO Conversion Methods ---
@@ -54,36 +65,17 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
 
-    private CategoryResponseDto convertToResponseDto(Category category) {
-        return convertToResponseDto(category, true); // By default, load subcategories
+    // Snapshot DTOs are fresh copies, so the in-memory counts can be filled in place
+    private List<CategoryResponseDto> withProductCounts(List<CategoryResponseDto> categories) {
+        categoryProductCounts.applyTo(categories);
+        return categories;
     }
 
-    private CategoryResponseDto convertToResponseDto(Category category, boolean fetchSubCategories) {
-        if (category == null) return null;
-
-        CategoryResponseDto dto = new CategoryResponseDto();
-        dto.setId(category.getId());
-        dto.setName(category.getName());
-        dto.setDescription(category.getDescription());
-
-        if (category.getParentCategory() != null) {
-            dto.setParentId(category.getParentCategory().getId());
-            dto.setParentName(category.getParentCategory().getName());
-        }
-
-        if (fetchSubCategories && category.getSubCategories() != null && !category.getSubCategories().isEmpty()) {
-            dto.setSubCategories(
-                category.getSubCategories().stream()
-                    .map(subCategory -> convertToResponseDto(subCategory, true)) // Recursively map, fetching their subcategories
-                    .collect(Collectors.toList())
-            );
-        } else {
-            dto.setSubCategories(Collections.emptyList());
-        }
-        return dto;
+    private CategoryResponseDto withProductCounts(CategoryResponseDto category) {
+        categoryProductCounts.applyTo(Collections.singletonList(category));
+        return category;
     }
 
-
     // --- Service Method Implementations ---
 
     @Override
@@ -94,52 +86,40 @@ public class CategoryServiceImpl implements CategoryService {
         }
         Category category = convertToEntity(categoryRequestDto, categoryRepository);
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(savedCategory.getId()));
         return convertToSimpleDto(savedCategory);
     }
 
+    // Read methods below are served from the in-memory category tree snapshot and never touch the database.
+
     @Override
-    @Transactional(readOnly = true)
     public Optional<CategoryResponseDto> getCategoryById(Long id) {
-        // Fetch category with subcategories eagerly if needed, or rely on LAZY loading and transactional context
-        // For simplicity, direct conversion. For performance, consider @EntityGraph.
-        return categoryRepository.findById(id).map(category -> convertToResponseDto(category, true));
+        return categoryTreeCache.getSnapshot().getById(id).map(this::withProductCounts);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<CategoryDto> getCategoryByName(String name) {
-        return categoryRepository.findByName(name).map(this::convertToSimpleDto);
+        return categoryTreeCache.getSnapshot().getByName(name);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponseDto> getAllCategories() {
-        // This will fetch all categories and then structure them.
-        // For large datasets, this might be inefficient.
-        // Consider fetching only top-level and loading children on demand or using a different approach.
-        // For now, fetching all and converting.
-        return categoryRepository.findByParentCategoryIsNull().stream() // Start with top-level
-                .map(category -> convertToResponseDto(category, true))
-                .collect(Collectors.toList());
+        // Top-level categories with their full sub-trees
+        return withProductCounts(categoryTreeCache.getSnapshot().getTopLevel());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponseDto> getTopLevelCategories() {
-        return categoryRepository.findByParentCategoryIsNull().stream()
-                .map(category -> convertToResponseDto(category, true)) // Fetch subcategories for top levels
-                .collect(Collectors.toList());
+        return withProductCounts(categoryTreeCache.getSnapshot().getTopLevel());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponseDto> getSubCategories(Long parentCategoryId) {
-        if (!categoryRepository.existsById(parentCategoryId)) {
+        CategoryTreeSnapshot snapshot = categoryTreeCache.getSnapshot();
+        if (!snapshot.contains(parentCategoryId)) {
             throw new ResourceNotFoundException("Parent category not found with id: " + parentCategoryId);
         }
-        return categoryRepository.findByParentCategoryId(parentCategoryId).stream()
-                .map(category -> convertToResponseDto(category, true)) // Fetch subcategories for these children
-                .collect(Collectors.toList());
+        return withProductCounts(snapshot.getChildren(parentCategoryId));
     }
 
 
@@ -171,6 +151,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(updatedCategory.getId()));
         return convertToSimpleDto(updatedCategory);
     }
 
@@ -195,30 +176,19 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean categoryExists(String name) {
-        return categoryRepository.existsByName(name);
+        return categoryTreeCache.getSnapshot().containsName(name);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Long> getAllCategoryIdsIncludingSubcategories(Long categoryId) {
-        List<Long> categoryIds = new ArrayList<>();
-        collectCategoryIdsRecursively(categoryId, categoryIds);
-        return categoryIds;
-    }
-
-    private void collectCategoryIdsRecursively(Long categoryId, List<Long> categoryIds) {
-        // Add the current category ID
-        categoryIds.add(categoryId);
-
-        // Find all subcategories and recursively add their IDs
-        List<Category> subCategories = categoryRepository.findByParentCategoryId(categoryId);
-        for (Category subCategory : subCategories) {
-            collectCategoryIdsRecursively(subCategory.getId(), categoryIds);
-        }
+        // Single recursive query instead of one findByParentCategoryId call per node.
+        // Returns an empty list if the category does not exist.
+        return categoryRepository.findSubtreeIds(categoryId);
     }
 }
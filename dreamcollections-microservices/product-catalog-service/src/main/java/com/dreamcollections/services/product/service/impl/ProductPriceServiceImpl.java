@@ -0,0 +1,164 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.BulkPriceUpdateRequestDto;
+import com.dreamcollections.services.product.dto.BulkPriceUpdateResultDto;
+import com.dreamcollections.services.product.dto.PriceLineDto;
+import com.dreamcollections.services.product.event.ProductPricesChangedEvent;
+import com.dreamcollections.services.product.exception.BadRequestException;
+import com.dreamcollections.services.product.exception.ResourceNotFoundException;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.service.CategoryService;
+import com.dreamcollections.services.product.service.ProductPriceService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk repricing without the per-product {@code updateProduct} path (entity load, variant reconciliation, full DTO).
+ * Explicit prices go out as JDBC batches of single-row UPDATEs; a percentage rule is one UPDATE over the category
+ * subtree. Listeners get one {@link ProductPricesChangedEvent} for the whole change.
+ */
+@Service
+public class ProductPriceServiceImpl implements ProductPriceService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPriceServiceImpl.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final String UPDATE_PRICE_SQL = "UPDATE products SET price = ? WHERE id = ?";
+    // Largest value of products.price (precision 10, scale 2)
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProductRepository productRepository;
+    private final CategoryService categoryService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ProductPriceServiceImpl(ProductRepository productRepository, CategoryService categoryService,
+                                   JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.categoryService = categoryService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public BulkPriceUpdateResultDto updatePrices(BulkPriceUpdateRequestDto request) {
+        boolean hasItems = request.getItems() != null && !request.getItems().isEmpty();
+        boolean hasRule = request.getCategoryId() != null || request.getPercentage() != null;
+        if (hasItems == hasRule) {
+            throw new BadRequestException("Provide either items or a categoryId with a percentage, not both.");
+        }
+        return hasItems ? updateListedPrices(request.getItems()) : applyPercentage(request.getCategoryId(), request.getPercentage());
+    }
+
+    private BulkPriceUpdateResultDto updateListedPrices(List<PriceLineDto> items) {
+        Set<Long> seen = new HashSet<>();
+        for (PriceLineDto item : items) {
+            if (!seen.add(item.getProductId())) {
+                throw new BadRequestException("Product " + item.getProductId() + " is listed more than once.");
+            }
+        }
+        log.info("Updating prices of {} products in JDBC batches of {}.", items.size(), BATCH_SIZE);
+
+        // Runs on the JPA transaction's connection, so it commits or rolls back with the rest
+        int[][] batchCounts = jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, items, BATCH_SIZE, (statement, item) -> {
+            statement.setBigDecimal(1, item.getPrice().setScale(2, RoundingMode.HALF_UP));
+            statement.setLong(2, item.getProductId());
+        });
+
+        Map<Long, BigDecimal> updated = new HashMap<>();
+        List<Long> notFound = new ArrayList<>();
+        int index = 0;
+        for (int[] counts : batchCounts) {
+            for (int count : counts) {
+                PriceLineDto item = items.get(index++);
+                // Some drivers only report that a batched statement succeeded, not how many rows it touched
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated.put(item.getProductId(), item.getPrice().setScale(2, RoundingMode.HALF_UP));
+                } else {
+                    notFound.add(item.getProductId());
+                }
+            }
+        }
+
+        evictAfterCommit(updated.keySet());
+        publish(updated);
+        log.info("Bulk price update: {} products repriced, {} not found.", updated.size(), notFound.size());
+        return new BulkPriceUpdateResultDto(updated.size(), notFound);
+    }
+
+    private BulkPriceUpdateResultDto applyPercentage(Long categoryId, BigDecimal percentage) {
+        if (categoryId == null || percentage == null) {
+            throw new BadRequestException("A percentage rule needs both categoryId and percentage.");
+        }
+        List<Long> categoryIds = categoryService.getAllCategoryIdsIncludingSubcategories(categoryId);
+        if (categoryIds.isEmpty()) {
+            throw new ResourceNotFoundException("Category", "id", categoryId);
+        }
+        BigDecimal factor = BigDecimal.ONE.add(percentage.movePointLeft(2));
+        // Checked up front: an overflowing price column would otherwise fail the UPDATE as a server error
+        productRepository.findMaxPriceByCategoryIdIn(categoryIds).ifPresent(maxPrice -> {
+            if (maxPrice.multiply(factor).setScale(2, RoundingMode.HALF_UP).compareTo(MAX_PRICE) > 0) {
+                throw new BadRequestException("Repricing category " + categoryId + " by " + percentage.toPlainString()
+                        + "% would raise prices above " + MAX_PRICE.toPlainString() + ".");
+            }
+        });
+        log.info("Repricing category {} ({} categories) by {}%.", categoryId, categoryIds.size(), percentage);
+
+        int updatedCount = productRepository.scalePricesByCategoryIdIn(categoryIds, factor);
+        Map<Long, BigDecimal> updated = new HashMap<>(updatedCount * 2);
+        for (Object[] row : productRepository.findPricesByCategoryIdIn(categoryIds)) {
+            updated.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        publish(updated);
+        log.info("Bulk price update: {} products in category {} repriced.", updatedCount, categoryId);
+        return new BulkPriceUpdateResultDto(updatedCount, Collections.emptyList());
+    }
+
+    // Plain JDBC bypasses Hibernate, so the now stale second-level cache entries are dropped by hand. Only once the
+    // change is committed: evicted earlier, a concurrent reader could put the old price back until the entry expires.
+    private void evictAfterCommit(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productIds.forEach(productId -> cache.evict(Product.class, productId));
+            }
+        });
+    }
+
+    private void publish(Map<Long, BigDecimal> updated) {
+        if (!updated.isEmpty()) {
+            eventPublisher.publishEvent(new ProductPricesChangedEvent(updated));
+        }
+    }
+}
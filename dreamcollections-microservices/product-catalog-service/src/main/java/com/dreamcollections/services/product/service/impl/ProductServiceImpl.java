@@ -1,33 +1,84 @@
 package com.dreamcollections.services.product.service.impl;
 
+import com.dreamcollections.services.product.cache.CategoryTreeCache;
+import com.dreamcollections.services.product.cache.CategoryTreeSnapshot;
 import com.dreamcollections.services.product.dto.CategoryDto;
+import com.dreamcollections.services.product.dto.CursorPageDto;
+import com.dreamcollections.services.product.dto.FacetCountDto;
+import com.dreamcollections.services.product.dto.FacetedProductPageDto;
+import com.dreamcollections.services.product.dto.PriceRangeFacetDto;
+import com.dreamcollections.services.product.dto.ProductFacetsDto;
+import com.dreamcollections.services.product.dto.ProductFilterCriteria;
+import com.dreamcollections.services.product.dto.ProductListingField;
 import com.dreamcollections.services.product.dto.ProductRequestDto;
 import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductSummaryDto;
+import com.dreamcollections.services.product.dto.ProductVariantDetailDto;
 import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.dto.SalesReportDto;
+import com.dreamcollections.services.product.dto.StockDecrementResultDto;
+import com.dreamcollections.services.product.dto.StockLineDto;
+import com.dreamcollections.services.product.dto.StockLineResultDto;
+import com.dreamcollections.services.product.dto.SuggestionDto;
+import com.dreamcollections.services.product.dto.UnitsSoldLineDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
 import com.dreamcollections.services.product.exception.BadRequestException; // Will create this
+import com.dreamcollections.services.product.exception.ResourceConflictException;
 import com.dreamcollections.services.product.exception.ResourceNotFoundException;
+import com.dreamcollections.services.product.flashsale.FlashSaleStockCounters;
+import com.dreamcollections.services.product.index.ProductFacetIndex;
+import com.dreamcollections.services.product.index.ProductSearchIndex;
+import com.dreamcollections.services.product.index.ProductSuggestIndex;
 import com.dreamcollections.services.product.model.Category;
 import com.dreamcollections.services.product.model.Product;
 import com.dreamcollections.services.product.model.ProductVariant;
+import com.dreamcollections.services.product.popularity.BestSellerRanking;
 import com.dreamcollections.services.product.repository.CategoryRepository;
 import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.repository.ProductSpecifications;
 import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
 import com.dreamcollections.services.product.service.CategoryService;
 import com.dreamcollections.services.product.service.ProductService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.util.CollectionUtils;
 
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +86,18 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    // Request sort properties the facet index can order by
+    private static final Map<String, ProductFacetIndex.SortKey> FACET_SORT_KEYS = Map.of(
+            "name", ProductFacetIndex.SortKey.NAME,
+            "price", ProductFacetIndex.SortKey.PRICE,
+            "id", ProductFacetIndex.SortKey.ID);
+    // Request sort property for best-selling first (served from BestSellerRanking; the direction is ignored)
+    private static final String POPULARITY_SORT = "popularity";
+    // Search hits bound into an IN list beside other filters, keeping well clear of the driver's bind parameter
+    // limit; broader searches are intersected with the filtered IDs in memory instead
+    @Value("${catalog.search.max-hits-in-filter:10000}")
+    private int maxSearchHitsInFilter;
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -47,14 +110,127 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockReservationStore stockReservationStore;
+
+    @Autowired
+    private FlashSaleStockCounters flashSaleStockCounters;
+
+    @Autowired
+    private BestSellerRanking bestSellerRanking;
+
     // --- Mapper Methods ---
     private ProductVariantDto mapVariantToDto(ProductVariant variant) {
         if (variant == null) return null;
-        return new ProductVariantDto(
+        ProductVariantDto dto = new ProductVariantDto(
                 variant.getId(),
                 variant.getSize(),
                 variant.getStockQuantity(),
                 variant.getProduct() != null ? variant.getProduct().getId() : null);
+        // What shoppers can still buy: committed stock (or the live flash-sale counter) minus active checkout holds
+        int sellable = flashSaleStockCounters.approximateAvailable(variant.getId()).orElse(variant.getStockQuantity());
+        dto.setAvailableQuantity(Math.max(0, sellable - stockReservationStore.heldQuantity(variant.getId())));
+        return dto;
+    }
+
+    /**
+     * Applies the requested variant list to the product as a diff: incoming variants are matched to existing ones
+     * by ID, or by size when no ID is given. Matches are updated in place, unmatched incoming variants are inserted
+     * and existing variants that are no longer requested are deleted (orphanRemoval). Untouched rows produce no SQL.
+     */
+    private void reconcileVariants(Product product, List<ProductVariantDto> requested) {
+        List<ProductVariantDto> incoming = requested != null ? requested : Collections.emptyList();
+        if (incoming.isEmpty()) {
+            log.warn("Product {} is being updated to have no variants.", product.getName());
+        }
+
+        Map<Long, ProductVariant> existingById = new HashMap<>();
+        Map<String, ProductVariant> existingBySize = new HashMap<>();
+        for (ProductVariant variant : product.getVariants()) {
+            existingById.put(variant.getId(), variant);
+            existingBySize.put(variant.getSize(), variant);
+        }
+
+        // Pair incoming variants with the existing rows they update: explicit IDs first, then by size among
+        // the rows not already claimed (so renaming one size while adding another works). The rest are inserts.
+        Map<ProductVariant, ProductVariantDto> updates = new IdentityHashMap<>();
+        List<ProductVariantDto> inserts = new ArrayList<>();
+        Set<String> requestedSizes = new HashSet<>();
+        for (ProductVariantDto dto : incoming) {
+            if (!requestedSizes.add(dto.getSize())) {
+                throw new BadRequestException("Duplicate variant size '" + dto.getSize() + "' for product " + product.getId() + ".");
+            }
+            if (dto.getId() != null) {
+                ProductVariant match = existingById.get(dto.getId());
+                if (match == null) {
+                    throw new BadRequestException("Variant " + dto.getId() + " does not belong to product " + product.getId() + ".");
+                }
+                if (updates.put(match, dto) != null) {
+                    throw new BadRequestException("Variant " + dto.getId() + " is referenced more than once.");
+                }
+            }
+        }
+        for (ProductVariantDto dto : incoming) {
+            if (dto.getId() == null) {
+                ProductVariant match = existingBySize.get(dto.getSize());
+                if (match != null && !updates.containsKey(match)) {
+                    updates.put(match, dto);
+                } else {
+                    inserts.add(dto);
+                }
+            }
+        }
+
+        for (ProductVariant variant : product.getVariants()) {
+            ProductVariantDto dto = updates.get(variant);
+            boolean stockChanges = dto == null || !variant.getStockQuantity().equals(dto.getStockQuantity());
+            if (stockChanges && flashSaleStockCounters.isActive(variant.getId())) {
+                throw new ResourceConflictException("Variant " + variant.getId() + " is in flash-sale mode. End the flash sale before changing or removing it.");
+            }
+        }
+
+        // ProductVariant's equals/hashCode cover its mutable fields, so take matched variants out of the set before
+        // changing them and put them back afterwards. Unmatched variants are removed for good and deleted as orphans.
+        List<ProductVariant> retained = new ArrayList<>(updates.size());
+        product.getVariants().removeIf(variant -> {
+            if (updates.containsKey(variant)) {
+                retained.add(variant);
+            }
+            return true;
+        });
+        for (ProductVariant variant : retained) {
+            ProductVariantDto dto = updates.get(variant);
+            // Only touch fields that differ, so Hibernate's dirty check skips unchanged rows entirely
+            if (!variant.getSize().equals(dto.getSize())) {
+                variant.setSize(dto.getSize());
+            }
+            if (!variant.getStockQuantity().equals(dto.getStockQuantity())) {
+                variant.setStockQuantity(dto.getStockQuantity());
+            }
+            product.getVariants().add(variant);
+        }
+        for (ProductVariantDto dto : inserts) {
+            ProductVariant newVariant = mapDtoToVariant(dto, product);
+            newVariant.setId(null); // Unmatched rows are always new
+            product.addVariant(newVariant);
+        }
+        log.debug("Variant diff for product {}: {} kept/updated, {} inserted, {} deleted.", product.getId(),
+                retained.size(), inserts.size(), existingById.size() - retained.size());
     }
 
     private ProductVariant mapDtoToVariant(ProductVariantDto dto, Product product) {
@@ -72,32 +248,142 @@ public class ProductServiceImpl implements ProductService {
     private ProductResponseDto mapProductToResponseDto(Product product) {
         if (product == null) return null;
 
-        Category category = product.getCategory();
-        CategoryDto categoryDto = null;
-        if (category != null) {
-            categoryDto = new CategoryDto(
+        return new ProductResponseDto(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getImageUrl(),
+                product.getVideoUrl(),
+                mapCategoryToDto(product.getCategory()),
+                mapVariantsToDtos(product));
+    }
+
+    // Listing view: no description (a lazy LOB) or video URL unless requested. Requested descriptions are passed in,
+    // read for the whole page in one query, so that the lazy attribute is never loaded product by product.
+    private ProductSummaryDto mapProductToSummaryDto(Product product, Set<ProductListingField> fields, Map<Long, String> descriptions) {
+        ProductSummaryDto dto = new ProductSummaryDto();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setPrice(product.getPrice());
+        dto.setImageUrl(product.getImageUrl());
+        dto.setCategory(mapCategoryToDto(product.getCategory()));
+        dto.setVariants(mapVariantsToDtos(product));
+        if (fields.contains(ProductListingField.DESCRIPTION)) {
+            dto.setDescription(descriptions.get(product.getId()));
+        }
+        if (fields.contains(ProductListingField.VIDEO_URL)) {
+            dto.setVideoUrl(product.getVideoUrl());
+        }
+        return dto;
+    }
+
+    private CategoryDto mapCategoryToDto(Category category) {
+        if (category == null) return null;
+        return new CategoryDto(
                 category.getId(),
                 category.getName(),
                 category.getDescription());
-        }
+    }
 
-        List<ProductVariantDto> variantDtos = Collections.emptyList();
-        if (!CollectionUtils.isEmpty(product.getVariants())) {
-             variantDtos = product.getVariants().stream()
+    private List<ProductVariantDto> mapVariantsToDtos(Product product) {
+        if (CollectionUtils.isEmpty(product.getVariants())) {
+            return Collections.emptyList();
+        }
+        return product.getVariants().stream()
                 .map(this::mapVariantToDto)
                 .collect(Collectors.toList());
+    }
+
+
+    // Hydrates a page of product IDs with one fetch-join query and keeps the page's ordering
+    private Page<ProductSummaryDto> loadProductPage(Page<Long> idPage, Set<ProductListingField> fields) {
+        return new PageImpl<>(loadProductsInOrder(idPage.getContent(), fields), idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    private List<ProductSummaryDto> loadProductsInOrder(List<Long> ids, Set<ProductListingField> fields) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Product> productsById = productRepository.findAllWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, String> descriptions = Collections.emptyMap();
+        if (fields.contains(ProductListingField.DESCRIPTION)) {
+            descriptions = new HashMap<>();
+            for (Object[] row : productRepository.findDescriptionsByIdIn(ids)) {
+                descriptions.put((Long) row[0], (String) row[1]);
+            }
         }
+        List<ProductSummaryDto> dtos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = productsById.get(id);
+            if (product != null) { // Could have been deleted between the two phases
+                dtos.add(mapProductToSummaryDto(product, fields, descriptions));
+            }
+        }
+        return dtos;
+    }
 
+    // The search index's hits for the criteria's search, or null when there is none or the index is still being built
+    private List<Long> searchHits(ProductFilterCriteria criteria) {
+        return criteria.hasSearch() && canUseSearchIndex() ? productSearchIndex.search(criteria.getSearch().trim()) : null;
+    }
 
-        return new ProductResponseDto(
-                product.getId(),
-                product.getName(),
-                product.getDescription(),
-                product.getPrice(),
-                product.getImageUrl(),
-                product.getVideoUrl(),
-                categoryDto,
-                variantDtos);
+    private boolean tooManyToBind(List<Long> hits) {
+        return hits != null && hits.size() > maxSearchHitsInFilter;
+    }
+
+    // Hits too many to bind are left out of the specification; the caller keeps only those IDs from its results
+    private Specification<Product> buildFilterSpecification(ProductFilterCriteria criteria, List<Long> hits) {
+        Specification<Product> spec = Specification.where(null);
+        if (criteria.getCategoryId() != null) {
+            List<Long> categoryIds = categoryService.getAllCategoryIdsIncludingSubcategories(criteria.getCategoryId());
+            if (categoryIds.isEmpty()) {
+                throw new ResourceNotFoundException("Category", "id", criteria.getCategoryId());
+            }
+            spec = spec.and(ProductSpecifications.inCategories(categoryIds));
+        }
+        if (criteria.hasSearch()) {
+            // The other filters narrow the search index's hits in the same query; the LIKE is only a fallback
+            if (hits == null) {
+                spec = spec.and(ProductSpecifications.nameContains(criteria.getSearch().trim()));
+            } else if (!tooManyToBind(hits)) {
+                spec = spec.and(ProductSpecifications.idIn(hits));
+            }
+        }
+        if (criteria.getMinPrice() != null) {
+            spec = spec.and(ProductSpecifications.priceAtLeast(criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            spec = spec.and(ProductSpecifications.priceAtMost(criteria.getMaxPrice()));
+        }
+        if (Boolean.TRUE.equals(criteria.getInStock())) {
+            spec = spec.and(ProductSpecifications.inStock());
+        }
+        return spec;
+    }
+
+    // --- Keyset cursor encoding ---
+    // The cursor is the (name, id) key of the last product returned, as opaque URL-safe Base64.
+
+    private static String encodeProductCursor(KeysetScrollPosition position) {
+        Object id = position.getKeys().get("id");
+        Object name = position.getKeys().get("name");
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ScrollPosition decodeProductCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("name", raw.substring(separator + 1));
+            keys.put("id", Long.valueOf(raw.substring(0, separator)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
     }
 
 
@@ -130,37 +416,40 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
         log.info("Product {} created successfully with ID {}.", savedProduct.getName(), savedProduct.getId());
-        return mapProductToResponseDto(savedProduct);
+        ProductResponseDto responseDto = mapProductToResponseDto(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), ProductChangedEvent.ChangeType.CREATED, responseDto));
+        return responseDto;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<ProductResponseDto> getProductById(Long id) {
         log.debug("Fetching product by ID: {}", id);
-        // Use findByIdWithDetails to ensure variants and category are fetched
-        return productRepository.findByIdWithDetails(id).map(this::mapProductToResponseDto);
+        // Plain id lookup so the product, its category and its variants can all come from the second-level cache;
+        // a fetch-join query (findByIdWithDetails) would always go to the database
+        return productRepository.findById(id).map(this::mapProductToResponseDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductResponseDto> getAllProducts(Pageable pageable) {
+    public Page<ProductSummaryDto> getAllProducts(Pageable pageable, Set<ProductListingField> fields) {
         log.debug("Fetching all products, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return productRepository.findAll(pageable).map(this::mapProductToResponseDto);
+        return loadProductPage(productRepository.findPageIds(pageable), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductResponseDto> getProductsByCategoryId(Long categoryId, Pageable pageable) {
+    public Page<ProductSummaryDto> getProductsByCategoryId(Long categoryId, Pageable pageable, Set<ProductListingField> fields) {
         log.debug("Fetching products for category ID: {}, page: {}, size: {}", categoryId, pageable.getPageNumber(), pageable.getPageSize());
         if (!categoryRepository.existsById(categoryId)) {
             throw new ResourceNotFoundException("Category", "id", categoryId);
         }
-        return productRepository.findByCategoryId(categoryId, pageable).map(this::mapProductToResponseDto);
+        return loadProductPage(productRepository.findPageIdsByCategoryId(categoryId, pageable), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductResponseDto> getProductsByCategoryIdIncludingSubcategories(Long categoryId, Pageable pageable) {
+    public Page<ProductSummaryDto> getProductsByCategoryIdIncludingSubcategories(Long categoryId, Pageable pageable, Set<ProductListingField> fields) {
         log.debug("Fetching products for category ID including subcategories: {}, page: {}, size: {}", categoryId, pageable.getPageNumber(), pageable.getPageSize());
         if (!categoryRepository.existsById(categoryId)) {
             throw new ResourceNotFoundException("Category", "id", categoryId);
@@ -170,17 +459,200 @@ public class ProductServiceImpl implements ProductService {
         List<Long> categoryIds = categoryService.getAllCategoryIdsIncludingSubcategories(categoryId);
         log.debug("Found category IDs for hierarchical filtering: {}", categoryIds);
 
-        return productRepository.findByCategoryIdIn(categoryIds, pageable).map(this::mapProductToResponseDto);
+        return loadProductPage(productRepository.findPageIdsByCategoryIdIn(categoryIds, pageable), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductResponseDto> searchProductsByName(String name, Pageable pageable) {
+    public Page<ProductSummaryDto> searchProductsByName(String name, Pageable pageable, Set<ProductListingField> fields) {
         log.debug("Searching products by name: '{}', page: {}, size: {}", name, pageable.getPageNumber(), pageable.getPageSize());
-        return productRepository.findByNameContainingIgnoreCase(name, pageable).map(this::mapProductToResponseDto);
+        if (!canUseSearchIndex()) {
+            // Index is still being built at startup (or holds nothing yet); fall back to the LIKE query
+            return loadProductPage(productRepository.findPageIdsByNameContainingIgnoreCase(name, pageable), fields);
+        }
+        // Results are ordered by relevance; the requested sort is not applied to search results
+        List<Long> rankedIds = productSearchIndex.search(name);
+        return loadIdPage(rankedIds, pageable, fields);
     }
 
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDto> filterProducts(ProductFilterCriteria criteria, Pageable pageable, Set<ProductListingField> fields) {
+        log.debug("Filtering products by {}, page: {}, size: {}", criteria, pageable.getPageNumber(), pageable.getPageSize());
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new BadRequestException("minPrice cannot be greater than maxPrice.");
+        }
+        if (isPopularitySort(pageable)) {
+            // Filtered in memory by the facet index and ordered by the best-seller scores; no join with order data
+            ProductFacetIndex.Result result = queryFacetIndex(criteria, null, ProductFacetIndex.SortKey.NAME, false);
+            return loadIdPage(bestSellerRanking.sortByPopularity(result.getProductIds()), pageable, fields);
+        }
+        if (!criteria.hasStructuredFilters()) {
+            // Plain text search keeps relevance ordering from the search index
+            return criteria.hasSearch() ? searchProductsByName(criteria.getSearch().trim(), pageable, fields) : getAllProducts(pageable, fields);
+        }
+
+        List<Long> hits = searchHits(criteria);
+        Specification<Product> spec = buildFilterSpecification(criteria, hits);
+        if (tooManyToBind(hits)) {
+            // Every ID the other filters select, in the requested order, narrowed to the hits here; still one query,
+            // and the search matches the same fields and misspellings as a narrower one
+            Set<Long> hitSet = new HashSet<>(hits);
+            List<Long> matchingIds = productRepository.findPageIds(spec, Pageable.unpaged(pageable.getSort())).stream()
+                    .filter(hitSet::contains)
+                    .collect(Collectors.toList());
+            return loadIdPage(matchingIds, pageable, fields);
+        }
+
+        // One filtered ID page query (plus count); category and variants are then hydrated in one fetch join
+        return loadProductPage(productRepository.findPageIds(spec, pageable), fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductSummaryDto> scrollProducts(ProductFilterCriteria criteria, String cursor, int size, Set<ProductListingField> fields) {
+        log.debug("Scrolling products by {}, cursor: {}, size: {}", criteria, cursor, size);
+        ScrollPosition position = cursor == null || cursor.isBlank() ? ScrollPosition.keyset() : decodeProductCursor(cursor);
+
+        List<Long> hits = searchHits(criteria);
+        Specification<Product> spec = buildFilterSpecification(criteria, hits);
+        if (tooManyToBind(hits)) {
+            return scrollSearchHits(spec, new HashSet<>(hits), position, size, fields);
+        }
+
+        // Keyset query on (name, id): seeks past the cursor instead of using OFFSET, and runs no COUNT query
+        Window<Product> window = productRepository.findBy(spec,
+                query -> query.sortBy(Sort.by("name", "id")).limit(size).scroll(position));
+
+        List<Long> ids = window.stream().map(Product::getId).collect(Collectors.toList());
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encodeProductCursor((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return new CursorPageDto<>(loadProductsInOrder(ids, fields), nextCursor, nextCursor != null);
+    }
+
+    // Scrolls the products the other filters select, keeping only the hits, until the page is full and one more hit
+    // shows there is a next page. The cursor is the key of the last product returned, as on the bound path.
+    private CursorPageDto<ProductSummaryDto> scrollSearchHits(Specification<Product> spec, Set<Long> hits,
+                                                              ScrollPosition position, int size, Set<ProductListingField> fields) {
+        List<Long> ids = new ArrayList<>(size);
+        ScrollPosition lastReturned = null;
+        boolean hasNext = false;
+        Window<Product> window;
+        do {
+            ScrollPosition from = position;
+            window = productRepository.findBy(spec, query -> query.sortBy(Sort.by("name", "id")).limit(size).scroll(from));
+            for (int i = 0; i < window.size() && !hasNext; i++) {
+                if (!hits.contains(window.getContent().get(i).getId())) {
+                    continue;
+                }
+                if (ids.size() == size) {
+                    hasNext = true;
+                } else {
+                    ids.add(window.getContent().get(i).getId());
+                    lastReturned = window.positionAt(i);
+                }
+            }
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (!hasNext && window.hasNext());
+
+        String nextCursor = hasNext ? encodeProductCursor((KeysetScrollPosition) lastReturned) : null;
+        return new CursorPageDto<>(loadProductsInOrder(ids, fields), nextCursor, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedProductPageDto searchWithFacets(ProductFilterCriteria criteria, List<String> sizes, Pageable pageable, Set<ProductListingField> fields) {
+        log.debug("Faceted search by {}, sizes: {}, page: {}, size: {}", criteria, sizes, pageable.getPageNumber(), pageable.getPageSize());
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new BadRequestException("minPrice cannot be greater than maxPrice.");
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("name"));
+        boolean byPopularity = POPULARITY_SORT.equals(order.getProperty());
+        ProductFacetIndex.SortKey sortKey = byPopularity ? ProductFacetIndex.SortKey.NAME : FACET_SORT_KEYS.get(order.getProperty());
+        if (sortKey == null) {
+            throw new BadRequestException("Faceted search can only be sorted by " + FACET_SORT_KEYS.keySet() + " or " + POPULARITY_SORT + ".");
+        }
+
+        // Filters and all facet counts come from one pass over the in-memory index; only the page itself is loaded
+        ProductFacetIndex.Result result = queryFacetIndex(criteria, sizes, sortKey, !byPopularity && order.isDescending());
+        List<Long> matchingIds = byPopularity ? bestSellerRanking.sortByPopularity(result.getProductIds()) : result.getProductIds();
+        return new FacetedProductPageDto(loadIdPage(matchingIds, pageable, fields), toFacetsDto(result));
+    }
+
+    private ProductFacetIndex.Result queryFacetIndex(ProductFilterCriteria criteria, List<String> sizes,
+                                                     ProductFacetIndex.SortKey sortKey, boolean descending) {
+        List<Long> categoryIds = null;
+        if (criteria.getCategoryId() != null) {
+            categoryIds = categoryService.getAllCategoryIdsIncludingSubcategories(criteria.getCategoryId());
+            if (categoryIds.isEmpty()) {
+                throw new ResourceNotFoundException("Category", "id", criteria.getCategoryId());
+            }
+        }
+        List<Long> rankedIds = null;
+        if (criteria.hasSearch()) {
+            String search = criteria.getSearch().trim();
+            rankedIds = canUseSearchIndex()
+                    ? productSearchIndex.search(search)
+                    : productRepository.findPageIdsByNameContainingIgnoreCase(search, Pageable.unpaged()).getContent();
+        }
+        productFacetIndex.awaitReady();
+        return productFacetIndex.query(new ProductFacetIndex.Query(
+                categoryIds, CollectionUtils.isEmpty(sizes) ? null : sizes, criteria.getMinPrice(), criteria.getMaxPrice(),
+                Boolean.TRUE.equals(criteria.getInStock()), rankedIds, sortKey, descending));
+    }
+
+    private boolean canUseSearchIndex() {
+        return productSearchIndex.isReady() && !productSearchIndex.isEmpty();
+    }
+
+    // One page of an in-memory ordered ID list, hydrated with a single fetch join
+    private Page<ProductSummaryDto> loadIdPage(List<Long> orderedIds, Pageable pageable, Set<ProductListingField> fields) {
+        int from = (int) Math.min(pageable.getOffset(), orderedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), orderedIds.size());
+        return loadProductPage(new PageImpl<>(orderedIds.subList(from, to), pageable, orderedIds.size()), fields);
+    }
+
+    private static boolean isPopularitySort(Pageable pageable) {
+        return pageable.getSort().stream().anyMatch(order -> POPULARITY_SORT.equals(order.getProperty()));
+    }
+
+    @Override
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || !productSuggestIndex.isReady()) {
+            // Type-ahead is best effort: nothing is suggested until the index has been built
+            return Collections.emptyList();
+        }
+        return productSuggestIndex.suggest(prefix, limit);
+    }
+
+    private ProductFacetsDto toFacetsDto(ProductFacetIndex.Result result) {
+        CategoryTreeSnapshot categories = categoryTreeCache.getSnapshot();
+        List<FacetCountDto> categoryFacets = new ArrayList<>();
+        result.getCategoryCounts().forEach((categoryId, count) -> categoryFacets.add(new FacetCountDto(
+                String.valueOf(categoryId), categories.getName(categoryId).orElse(String.valueOf(categoryId)), count)));
+        List<FacetCountDto> sizeFacets = new ArrayList<>();
+        result.getSizeCounts().forEach((size, count) -> sizeFacets.add(new FacetCountDto(size, size, count)));
+
+        List<BigDecimal> bounds = productFacetIndex.getPriceBucketBounds();
+        long[] bucketCounts = result.getPriceBucketCounts();
+        List<PriceRangeFacetDto> priceFacets = new ArrayList<>();
+        for (int i = 0; i < bucketCounts.length; i++) {
+            if (bucketCounts[i] > 0) {
+                BigDecimal lower = i == 0 ? BigDecimal.ZERO : bounds.get(i - 1);
+                BigDecimal upper = i < bounds.size() ? bounds.get(i) : null;
+                priceFacets.add(new PriceRangeFacetDto(lower, upper, bucketCounts[i]));
+            }
+        }
+        return new ProductFacetsDto(categoryFacets, sizeFacets, priceFacets, result.getInStockCount(), result.getOutOfStockCount());
+    }
+
     @Override
     @Transactional
     public ProductResponseDto updateProduct(Long id, ProductRequestDto productRequestDto) {
@@ -192,35 +664,25 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", productRequestDto.getCategoryId()));
 
         product.setName(productRequestDto.getName());
-        product.setDescription(productRequestDto.getDescription());
+        // The description is a lazy attribute: setting it while unloaded marks the row dirty even if the text is the
+        // same. Reading it first costs nothing extra, since the response below includes it anyway.
+        if (!Objects.equals(product.getDescription(), productRequestDto.getDescription())) {
+            product.setDescription(productRequestDto.getDescription());
+        }
         product.setPrice(productRequestDto.getPrice());
         product.setImageUrl(productRequestDto.getImageUrl());
         product.setVideoUrl(productRequestDto.getVideoUrl());
         product.setCategory(category);
 
-        // Variant management: clear existing and add new ones from DTO
-        // This approach relies on orphanRemoval=true for Product.variants
-        product.getVariants().clear();
-        // productVariantRepository.deleteAll(product.getVariants()); // explicit delete, then flush
-        // productVariantRepository.flush(); // ensure deletes happen before adds if IDs could overlap (not the case here as we're creating new)
-
-        if (productRequestDto.getVariants() != null && !productRequestDto.getVariants().isEmpty()) {
-            productRequestDto.getVariants().forEach(variantDto -> {
-                ProductVariant newVariant = mapDtoToVariant(variantDto, product);
-                // variantDto.getId() is ignored here, always creating new variant instances for the set.
-                // If you need to update existing variants by ID, the logic would be more complex:
-                // fetch existing, update, remove ones not in DTO, add new ones from DTO.
-                product.addVariant(newVariant);
-            });
-        } else {
-             log.warn("Product {} is being updated to have no variants.", product.getName());
-            // throw new BadRequestException("Product must have at least one variant.");
-        }
-
+        // Variant management: reconcile in place so unchanged variants keep their IDs
+        // (carts and orders reference productVariantId) and only real changes reach the database.
+        reconcileVariants(product, productRequestDto.getVariants());
 
         Product updatedProduct = productRepository.save(product);
         log.info("Product {} updated successfully.", updatedProduct.getName());
-        return mapProductToResponseDto(updatedProduct);
+        ProductResponseDto responseDto = mapProductToResponseDto(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct.getId(), ProductChangedEvent.ChangeType.UPDATED, responseDto));
+        return responseDto;
     }
 
     @Override
@@ -231,6 +693,7 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Product", "id", id);
         }
         productRepository.deleteById(id); // Cascades to variants due to orphanRemoval=true
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.DELETED, null));
         log.info("Product with ID: {} deleted successfully.", id);
     }
 
@@ -241,31 +704,128 @@ public class ProductServiceImpl implements ProductService {
         if (newStockQuantity < 0) {
             throw new BadRequestException("Stock quantity cannot be negative.");
         }
+        if (flashSaleStockCounters.isActive(productVariantId)) {
+            // The flash-sale counter owns this variant's stock until the sale ends
+            throw new ResourceConflictException("Variant " + productVariantId + " is in flash-sale mode. End the flash sale before setting its stock.");
+        }
         ProductVariant variant = productVariantRepository.findById(productVariantId)
                 .orElseThrow(() -> new ResourceNotFoundException("ProductVariant", "id", productVariantId));
 
         variant.setStockQuantity(newStockQuantity);
         ProductVariant savedVariant = productVariantRepository.save(variant);
         log.info("Stock updated for variant ID: {}. New stock: {}", productVariantId, savedVariant.getStockQuantity());
+        eventPublisher.publishEvent(new StockChangedEvent(List.of(productVariantId)));
         return mapVariantToDto(savedVariant);
     }
 
+    @Override
+    @Transactional
+    public StockDecrementResultDto decrementStock(List<StockLineDto> lines) {
+        // Merge duplicate variants and apply in ascending ID order, so concurrent batches
+        // always lock rows in the same order and cannot deadlock each other.
+        Map<Long, Integer> quantitiesByVariant = new TreeMap<>();
+        for (StockLineDto line : lines) {
+            quantitiesByVariant.merge(line.getVariantId(), line.getQuantity(), Integer::sum);
+        }
+        log.info("Decrementing stock for {} variants in one batch.", quantitiesByVariant.size());
+
+        List<StockLineResultDto> results = new ArrayList<>(quantitiesByVariant.size());
+        List<Long> changedInDatabase = new ArrayList<>();
+        boolean allApplied = true;
+        // Every line is attempted, even after a failure, so the caller sees all shortfalls at once
+        for (Map.Entry<Long, Integer> entry : quantitiesByVariant.entrySet()) {
+            Long variantId = entry.getKey();
+            int quantity = entry.getValue();
+            // Units held for other shoppers' reservations are not for sale here. A reservation being confirmed
+            // has its own holds left out, so its decrement only competes with everyone else's.
+            int held = stockReservationStore.heldQuantityExcludingConfirming(variantId);
+            // Hot variants in flash-sale mode decrement a striped in-memory counter instead of contending on the row.
+            // The counter reports whether the mode is on in the same lookup, so switching it off in between is safe.
+            FlashSaleStockCounters.Outcome outcome = flashSaleStockCounters.tryDecrement(variantId, quantity, held);
+            boolean decremented = outcome == FlashSaleStockCounters.Outcome.NOT_ACTIVE
+                    ? productVariantRepository.decrementStockIfAvailable(variantId, quantity, held) == 1
+                    : outcome == FlashSaleStockCounters.Outcome.DECREMENTED;
+            if (decremented) {
+                if (outcome == FlashSaleStockCounters.Outcome.NOT_ACTIVE) {
+                    changedInDatabase.add(variantId);
+                }
+                results.add(new StockLineResultDto(variantId, quantity, StockLineResultDto.Status.DECREMENTED, null));
+                continue;
+            }
+            allApplied = false;
+            OptionalInt counter = flashSaleStockCounters.approximateAvailable(variantId);
+            Optional<Integer> available = (counter.isPresent()
+                    ? Optional.of(counter.getAsInt())
+                    : productVariantRepository.findStockQuantityById(variantId))
+                    .map(stock -> Math.max(0, stock - held));
+            results.add(new StockLineResultDto(variantId, quantity,
+                    available.isPresent() ? StockLineResultDto.Status.INSUFFICIENT_STOCK : StockLineResultDto.Status.NOT_FOUND,
+                    available.orElse(null)));
+        }
+
+        if (!allApplied) {
+            // Roll back the lines that did succeed while still returning the per-line report
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            for (StockLineResultDto result : results) {
+                if (result.getStatus() == StockLineResultDto.Status.DECREMENTED) {
+                    result.setStatus(StockLineResultDto.Status.NOT_APPLIED);
+                }
+            }
+            log.warn("Stock decrement batch rejected: {}", results);
+        } else if (!changedInDatabase.isEmpty()) {
+            // Flash-sale lines reach the database (and the change feed) on their next reconciliation
+            eventPublisher.publishEvent(new StockChangedEvent(changedInDatabase));
+        }
+        return new StockDecrementResultDto(allApplied, results);
+    }
+
+    @Override
+    public void setFlashSaleMode(Long productVariantId, boolean enabled) {
+        log.info("{} flash-sale mode for variant ID: {}", enabled ? "Enabling" : "Disabling", productVariantId);
+        if (enabled) {
+            flashSaleStockCounters.enable(productVariantId);
+        } else {
+            flashSaleStockCounters.disable(productVariantId);
+        }
+    }
+
+    @Override
+    public void recordSales(SalesReportDto report) {
+        log.debug("Recording {} sales lines for window {} - {}", report.getItems().size(), report.getWindowStart(), report.getWindowEnd());
+        Map<Long, Integer> unitsByVariant = new HashMap<>();
+        for (UnitsSoldLineDto line : report.getItems()) {
+            unitsByVariant.merge(line.getVariantId(), line.getUnits(), Integer::sum);
+        }
+        bestSellerRanking.recordUnitsSold(unitsByVariant, report.getWindowEnd());
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public Optional<ProductVariantDto> getProductVariantById(Long productVariantId) {
+    public Optional<ProductVariantDetailDto> getProductVariantById(Long productVariantId) {
         log.debug("Fetching product variant by ID: {}", productVariantId);
-        return productVariantRepository.findById(productVariantId).map(this::mapVariantToDto);
+        return productVariantRepository.findDetailsById(productVariantId).map(this::applyAvailability);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductVariantDto> getProductVariantsByIds(List<Long> variantIds) {
-        log.debug("Fetching product variants by IDs: {}", variantIds);
-        if (CollectionUtils.isEmpty(variantIds)) {
+    public List<ProductVariantDetailDto> getProductVariantsByIds(long[] variantIds) {
+        log.debug("Fetching product variants by IDs: {}", variantIds != null ? variantIds.length : 0);
+        if (variantIds == null || variantIds.length == 0) {
             return Collections.emptyList();
         }
-        return productVariantRepository.findByIdIn(variantIds).stream()
-                                     .map(this::mapVariantToDto)
-                                     .collect(Collectors.toList());
+        // De-duplicate before binding so repeated cart lines don't inflate the IN list
+        Set<Long> ids = new LinkedHashSet<>(variantIds.length * 2);
+        for (long variantId : variantIds) {
+            ids.add(variantId);
+        }
+        List<ProductVariantDetailDto> details = productVariantRepository.findDetailsByIdIn(ids);
+        details.forEach(this::applyAvailability);
+        return details;
+    }
+
+    private ProductVariantDetailDto applyAvailability(ProductVariantDetailDto dto) {
+        int sellable = flashSaleStockCounters.approximateAvailable(dto.getId()).orElse(dto.getStockQuantity());
+        dto.setAvailableQuantity(Math.max(0, sellable - stockReservationStore.heldQuantity(dto.getId())));
+        return dto;
     }
 }
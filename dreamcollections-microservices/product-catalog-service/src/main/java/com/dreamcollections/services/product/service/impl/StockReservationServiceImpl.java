@@ -0,0 +1,119 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.StockDecrementResultDto;
+import com.dreamcollections.services.product.dto.StockLineDto;
+import com.dreamcollections.services.product.dto.StockLineResultDto;
+import com.dreamcollections.services.product.dto.StockReservationResultDto;
+import com.dreamcollections.services.product.exception.ResourceNotFoundException;
+import com.dreamcollections.services.product.flashsale.FlashSaleStockCounters;
+import com.dreamcollections.services.product.model.ProductVariant;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import com.dreamcollections.services.product.reservation.StockReservation;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
+import com.dreamcollections.services.product.service.ProductService;
+import com.dreamcollections.services.product.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private final StockReservationStore reservationStore;
+    private final ProductVariantRepository productVariantRepository;
+    private final ProductService productService;
+    private final FlashSaleStockCounters flashSaleStockCounters;
+
+    @Value("${stock.reservation.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${stock.reservation.max-ttl-seconds:3600}")
+    private long maxTtlSeconds;
+
+    @Autowired
+    public StockReservationServiceImpl(StockReservationStore reservationStore,
+                                       ProductVariantRepository productVariantRepository,
+                                       ProductService productService,
+                                       FlashSaleStockCounters flashSaleStockCounters) {
+        this.reservationStore = reservationStore;
+        this.productVariantRepository = productVariantRepository;
+        this.productService = productService;
+        this.flashSaleStockCounters = flashSaleStockCounters;
+    }
+
+    @Override
+    public StockReservationResultDto createReservation(List<StockLineDto> lines, Long ttlSeconds) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (StockLineDto line : lines) {
+            quantities.merge(line.getVariantId(), line.getQuantity(), Integer::sum);
+        }
+        Map<Long, Integer> stockByVariant = new HashMap<>();
+        for (ProductVariant variant : productVariantRepository.findByIdIn(new ArrayList<>(quantities.keySet()))) {
+            // Flash-sale variants: the live counter is ahead of the row until the next reconciliation
+            stockByVariant.put(variant.getId(),
+                    flashSaleStockCounters.approximateAvailable(variant.getId()).orElse(variant.getStockQuantity()));
+        }
+        Duration ttl = Duration.ofSeconds(Math.min(ttlSeconds != null ? ttlSeconds : defaultTtlSeconds, maxTtlSeconds));
+
+        Optional<StockReservation> reservation = reservationStore.reserve(quantities, stockByVariant, ttl);
+        List<StockLineResultDto> results = new ArrayList<>(quantities.size());
+        if (reservation.isPresent()) {
+            quantities.forEach((variantId, quantity) ->
+                    results.add(new StockLineResultDto(variantId, quantity, StockLineResultDto.Status.RESERVED, null)));
+            log.info("Stock reservation {} created for {} variants, expires at {}.",
+                    reservation.get().getId(), quantities.size(), reservation.get().getExpiresAt());
+            return new StockReservationResultDto(reservation.get().getId(), reservation.get().getExpiresAt(), true, results);
+        }
+
+        // Rejected: report per line (best effort, holds may have moved since the attempt)
+        quantities.forEach((variantId, quantity) -> {
+            Integer stock = stockByVariant.get(variantId);
+            if (stock == null) {
+                results.add(new StockLineResultDto(variantId, quantity, StockLineResultDto.Status.NOT_FOUND, null));
+                return;
+            }
+            int available = Math.max(0, stock - reservationStore.heldQuantity(variantId));
+            StockLineResultDto.Status status = available < quantity ? StockLineResultDto.Status.INSUFFICIENT_STOCK : StockLineResultDto.Status.NOT_APPLIED;
+            results.add(new StockLineResultDto(variantId, quantity, status, available));
+        });
+        log.warn("Stock reservation rejected: {}", results);
+        return new StockReservationResultDto(null, null, false, results);
+    }
+
+    @Override
+    public StockDecrementResultDto confirmReservation(String reservationId) {
+        StockReservation reservation = reservationStore.beginConfirm(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("StockReservation", "id", reservationId));
+        List<StockLineDto> lines = new ArrayList<>(reservation.getQuantities().size());
+        reservation.getQuantities().forEach((variantId, quantity) -> lines.add(new StockLineDto(variantId, quantity)));
+        try {
+            // decrementStock runs in its own transaction; the holds are dropped only after it has committed or failed
+            StockDecrementResultDto result = productService.decrementStock(lines);
+            log.info("Stock reservation {} confirmed. Applied: {}", reservationId, result.isApplied());
+            return result;
+        } finally {
+            reservationStore.complete(reservationId);
+        }
+    }
+
+    @Override
+    public void releaseReservation(String reservationId) {
+        if (!reservationStore.release(reservationId)) {
+            throw new ResourceNotFoundException("StockReservation", "id", reservationId);
+        }
+        log.info("Stock reservation {} released.", reservationId);
+    }
+}
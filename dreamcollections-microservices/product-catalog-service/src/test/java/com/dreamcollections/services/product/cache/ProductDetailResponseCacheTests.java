@@ -0,0 +1,110 @@
+package com.dreamcollections.services.product.cache;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.flashsale.FlashSaleStockCounters;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// The cached body must never be older than the data it was built from: a load racing a write is not stored, a hit
+// whose available quantities have moved with checkout holds is reloaded, and every entry is reloaded after the TTL.
+class ProductDetailResponseCacheTests {
+
+    private static final long PRODUCT_ID = 7L;
+    private static final long VARIANT_ID = 70L;
+    private static final int STOCK = 5;
+
+    private final StockReservationStore stockReservationStore = new StockReservationStore(event -> { });
+    // Not in flash-sale mode: approximateAvailable is empty, so the committed stock applies
+    private final FlashSaleStockCounters flashSaleStockCounters = mock(FlashSaleStockCounters.class);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ProductDetailResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void hitIsServedWithoutLoading() {
+        byte[] first = cache.get(PRODUCT_ID, this::load).orElseThrow();
+        byte[] second = cache.get(PRODUCT_ID, this::load).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStatistics().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadRacingAChangeIsNotStored() {
+        // The product changes after the loader read it but before the body is stored
+        Function<Long, Optional<ProductResponseDto>> racingLoader = productId -> {
+            Optional<ProductResponseDto> product = load(productId);
+            cache.onProductChanged(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.UPDATED, null));
+            return product;
+        };
+        assertThat(cache.get(PRODUCT_ID, racingLoader)).isPresent();
+        assertThat(cache.getStatistics().getEntryCount()).isZero();
+
+        // The next read loads again and stores, the one after is a hit
+        cache.get(PRODUCT_ID, this::load);
+        cache.get(PRODUCT_ID, this::load);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getStatistics().getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void hitIsReloadedWhenHoldsMoveAvailability() {
+        cache.get(PRODUCT_ID, this::load);
+        // Holds change without an event; the hit notices the bytes no longer show the available quantity
+        stockReservationStore.reserve(new TreeMap<>(Map.of(VARIANT_ID, 2)), Map.of(VARIANT_ID, STOCK), Duration.ofMinutes(15));
+
+        String body = new String(cache.get(PRODUCT_ID, this::load).orElseThrow());
+
+        assertThat(loads).hasValue(2);
+        assertThat(body).contains("\"availableQuantity\":" + (STOCK - 2));
+        cache.get(PRODUCT_ID, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void entryIsReloadedAfterTheTtl() throws InterruptedException {
+        cache = newCache(Duration.ofMillis(50));
+        cache.get(PRODUCT_ID, this::load);
+        Thread.sleep(100);
+
+        cache.get(PRODUCT_ID, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getStatistics().getEntryCount()).isEqualTo(1);
+    }
+
+    private ProductDetailResponseCache newCache(Duration ttl) {
+        return new ProductDetailResponseCache(new ObjectMapper(), stockReservationStore, flashSaleStockCounters, 1 << 20, ttl);
+    }
+
+    // What ProductServiceImpl returns: committed stock, minus holds for the available quantity
+    private Optional<ProductResponseDto> load(Long productId) {
+        loads.incrementAndGet();
+        ProductVariantDto variant = new ProductVariantDto(VARIANT_ID, "M", STOCK, productId);
+        variant.setAvailableQuantity(STOCK - stockReservationStore.heldQuantity(VARIANT_ID));
+        return Optional.of(new ProductResponseDto(productId, "Signet Ring", "Plain", new BigDecimal("99.00"),
+                "ring.jpg", null, null, List.of(variant)));
+    }
+}
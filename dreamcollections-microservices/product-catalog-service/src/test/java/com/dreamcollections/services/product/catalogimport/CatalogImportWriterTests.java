@@ -0,0 +1,152 @@
+package com.dreamcollections.services.product.catalogimport;
+
+import com.dreamcollections.services.product.cache.CategoryTreeCache;
+import com.dreamcollections.services.product.dto.CatalogImportReportDto;
+import com.dreamcollections.services.product.dto.ImportChunkReportDto;
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.repository.CategoryRepository;
+import com.dreamcollections.services.product.service.impl.CatalogImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+
+// Chunked import on H2: each chunk takes one block of IDs per table, inserts in JDBC batches, commits on its own and
+// is published as one event. pg_get_serial_sequence is PostgreSQL's; here an alias names sequences that start well
+// clear of the identity values, so the writer's queries run unchanged.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogImportWriterTests {
+
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int CHUNK_SIZE = 3;
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<ProductsImportedEvent> events = new ArrayList<>();
+    private CatalogImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+        for (String table : List.of("products", "product_variants")) {
+            jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + table + "_id_seq");
+            jdbcTemplate.execute("CREATE SEQUENCE " + table + "_id_seq START WITH " + FIRST_ID);
+        }
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS pg_get_serial_sequence AS "
+                + "'String serialSequence(String table, String column) { return table + \"_\" + column + \"_seq\"; }'");
+        categoryRepository.save(new Category("Rings", "Rings"));
+
+        importService = new CatalogImportServiceImpl(new CatalogImportWriter(jdbcTemplate, BATCH_SIZE),
+                new CategoryTreeCache(categoryRepository), event -> events.add((ProductsImportedEvent) event),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), transactionManager, CHUNK_SIZE);
+        Mockito.clearInvocations(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM product_variants");
+        jdbcTemplate.execute("DELETE FROM products");
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void eachChunkTakesOneIdBlockPerTableAndOneEvent() throws IOException {
+        CatalogImportReportDto report = importCsv(7);
+
+        assertThat(report.getProductsImported()).isEqualTo(7);
+        assertThat(report.getVariantsImported()).isEqualTo(8);
+        assertThat(report.getChunks()).extracting(ImportChunkReportDto::getProductsImported).containsExactly(3, 3, 1);
+        assertThat(report.getChunks()).allMatch(ImportChunkReportDto::isCommitted);
+
+        // Per chunk: one ID query and one batched insert per table, however many rows
+        assertThat(calls("queryForList")).isEqualTo(6);
+        assertThat(calls("batchUpdate")).isEqualTo(6);
+
+        // IDs are handed out in input order, and every variant points at its own product
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY name", Long.class);
+        assertThat(productIds).containsExactlyElementsOf(LongStream.range(FIRST_ID, FIRST_ID + 7).boxed().toList());
+        assertThat(jdbcTemplate.queryForList("SELECT product_id FROM product_variants WHERE size = 'L'", Long.class))
+                .containsExactly(FIRST_ID);
+        assertThat(jdbcTemplate.queryForObject("SELECT description FROM products WHERE id = ?", String.class, FIRST_ID + 6))
+                .isEqualTo("Ring 7, polished");
+
+        assertThat(events).extracting(event -> event.getProducts().size()).containsExactly(3, 3, 1);
+        ProductResponseDto first = events.get(0).getProducts().get(0);
+        assertThat(first.getId()).isEqualTo(FIRST_ID);
+        assertThat(first.getCategory().getName()).isEqualTo("Rings");
+        assertThat(first.getVariants()).extracting(ProductVariantDto::getProductId).containsOnly(FIRST_ID);
+        assertThat(first.getVariants()).extracting(ProductVariantDto::getId).doesNotContainNull();
+    }
+
+    @Test
+    void failedChunkRollsBackAloneAndPublishesNothing() throws IOException {
+        // Takes the ID the second chunk's first product is given
+        Long categoryId = categoryRepository.findAll().get(0).getId();
+        jdbcTemplate.update("INSERT INTO products (id, name, price, category_id) VALUES (?, 'Taken', 1.00, ?)",
+                FIRST_ID + 3, categoryId);
+
+        CatalogImportReportDto report = importCsv(7);
+
+        assertThat(report.getChunks()).extracting(ImportChunkReportDto::isCommitted).containsExactly(true, false, true);
+        ImportChunkReportDto failed = report.getChunks().get(1);
+        assertThat(failed.getProductsRejected()).isEqualTo(3);
+        assertThat(failed.getErrors()).singleElement().asString().startsWith("chunk rolled back");
+        assertThat(report.getProductsImported()).isEqualTo(4);
+
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM products ORDER BY name", String.class))
+                .containsExactly("Ring 1", "Ring 2", "Ring 3", "Ring 7", "Taken");
+        assertThat(events).extracting(event -> event.getProducts().size()).containsExactly(3, 1);
+    }
+
+    private CatalogImportReportDto importCsv(int products) throws IOException {
+        StringBuilder csv = new StringBuilder("name,price,category,size,stockQuantity,description\n");
+        csv.append("Ring 1,10.00,Rings,L,2,\n");
+        for (int i = 1; i <= products; i++) {
+            csv.append("Ring ").append(i).append(",10.00,Rings,M,5,\"Ring ").append(i).append(", polished\"\n");
+        }
+        return importService.importCatalog(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                CatalogImportFormat.CSV);
+    }
+
+    private long calls(String method) {
+        return Mockito.mockingDetails(jdbcTemplate).getInvocations().stream()
+                .map(Invocation::getMethod)
+                .filter(invoked -> invoked.getName().equals(method))
+                .count();
+    }
+}
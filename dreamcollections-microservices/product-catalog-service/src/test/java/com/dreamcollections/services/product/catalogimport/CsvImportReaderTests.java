@@ -0,0 +1,78 @@
+package com.dreamcollections.services.product.catalogimport;
+
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Grouping of variant rows into products and per-line errors; a bad row must not take its neighbours down with it
+class CsvImportReaderTests {
+
+    @Test
+    void groupsConsecutiveRowsIntoOneProduct() throws IOException {
+        CsvImportReader reader = reader(
+                "\uFEFFName,Price,Category,Size,StockQuantity,Description\n" +
+                "Gold Ring,199.90,Rings,6,4,\"Solid, 18k\"\n" +
+                "Gold Ring,199.90,Rings,7,2,\n" +
+                "\n" +
+                "Pearl Necklace,89,Necklaces,One Size,10,\"Says \"\"hello\"\"\nacross lines\"\n");
+
+        ImportRecord ring = reader.next();
+        assertThat(ring.getLine()).isEqualTo(2);
+        assertThat(ring.getProduct().getName()).isEqualTo("Gold Ring");
+        assertThat(ring.getProduct().getDescription()).isEqualTo("Solid, 18k");
+        assertThat(ring.getProduct().getPrice()).isEqualTo(new BigDecimal("199.90"));
+        assertThat(ring.getProduct().getCategory()).isEqualTo("Rings");
+        assertThat(ring.getProduct().getVariants()).extracting(ProductVariantDto::getSize).containsExactly("6", "7");
+
+        ImportRecord necklace = reader.next();
+        assertThat(necklace.getLine()).isEqualTo(5);
+        assertThat(necklace.getProduct().getDescription()).isEqualTo("Says \"hello\"\nacross lines");
+        assertThat(necklace.getProduct().getVariants()).extracting(ProductVariantDto::getStockQuantity).containsExactly(10);
+
+        assertThat(reader.next()).isEqualTo(null);
+    }
+
+    @Test
+    void badRowsAreReportedAndReadingContinues() throws IOException {
+        CsvImportReader reader = reader(
+                "name,price,categoryId,size,stockQuantity\n" +
+                "Anklet,cheap,3,S,1\n" +
+                "Bangle,25,3,M,lots\n" +
+                "Brooch,40,3,,\n");
+
+        ImportRecord anklet = reader.next();
+        assertThat(anklet.isFailed()).isEqualTo(true);
+        assertThat(anklet.getError()).isEqualTo("Invalid price 'cheap'.");
+
+        ImportRecord bangle = reader.next();
+        assertThat(bangle.getLine()).isEqualTo(3);
+        assertThat(bangle.getError()).isEqualTo("Invalid stockQuantity 'lots' on line 3.");
+
+        ImportRecord brooch = reader.next();
+        assertThat(brooch.isFailed()).isEqualTo(false);
+        assertThat(brooch.getProduct().getCategoryId()).isEqualTo(3L);
+        assertThat(brooch.getProduct().getVariants()).isEmpty(); // Left to validation to reject
+
+        assertThat(reader.next()).isEqualTo(null);
+    }
+
+    @Test
+    void headerWithoutRequiredColumnsStopsTheImport() throws IOException {
+        CsvImportReader reader = reader("title,cost\nGold Ring,199.90\n");
+
+        ImportRecord header = reader.next();
+        assertThat(header.getLine()).isEqualTo(1);
+        assertThat(header.isFailed()).isEqualTo(true);
+        assertThat(reader.next()).isEqualTo(null);
+    }
+
+    private static CsvImportReader reader(String csv) {
+        return new CsvImportReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
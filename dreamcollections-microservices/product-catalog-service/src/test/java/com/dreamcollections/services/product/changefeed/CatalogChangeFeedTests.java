@@ -0,0 +1,182 @@
+package com.dreamcollections.services.product.changefeed;
+
+import com.dreamcollections.services.product.dto.CatalogChangeDto;
+import com.dreamcollections.services.product.dto.CatalogChangesDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductPricesChangedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.model.CatalogChange;
+import com.dreamcollections.services.product.repository.CatalogChangeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The change log as a downstream cache polls it: committed changes in sequence order behind a "since" cursor, no
+// change skipped when transactions commit out of sequence order, long polls woken by commits, and a reset once
+// the cursor falls behind the pruned log. Runs against committed rows, as readers do.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({CatalogChangeRecorder.class, CatalogChangeFeed.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogChangeFeedTests {
+
+    @Autowired
+    private CatalogChangeFeed catalogChangeFeed;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transaction;
+    // The log is shared by the tests of this class; each one reads from where the previous ones left it
+    private long baseline;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        baseline = catalogChangeRepository.findLatestSequence().orElse(0L);
+    }
+
+    @Test
+    void changesAreReadInSequenceOrderPageByPage() {
+        commit(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.CREATED, null));
+        commit(new StockChangedEvent(List.of(10L, 11L)));
+        commit(new ProductPricesChangedEvent(Map.of(3L, new BigDecimal("5.00"), 2L, new BigDecimal("4.00"))));
+
+        CatalogChangesDto all = catalogChangeFeed.read(baseline, 100);
+        assertThat(all.getChanges()).extracting(CatalogChangeDto::getEntityId).containsExactly(1L, 10L, 11L, 2L, 3L);
+        assertThat(all.getChanges()).extracting(CatalogChangeDto::getSequence).isSorted().doesNotHaveDuplicates();
+        assertThat(all.getLatestSequence()).isEqualTo(all.getNextSince());
+
+        CatalogChangesDto first = catalogChangeFeed.read(baseline, 2);
+        assertThat(first.getChanges()).extracting(CatalogChangeDto::getEntityId).containsExactly(1L, 10L);
+        assertThat(first.isHasMore()).isTrue();
+        CatalogChangesDto rest = catalogChangeFeed.read(first.getNextSince(), 100);
+        assertThat(rest.getChanges()).extracting(CatalogChangeDto::getEntityId).containsExactly(11L, 2L, 3L);
+        assertThat(rest.isHasMore()).isFalse();
+    }
+
+    @Test
+    void readerWaitsForAChangeThatCommitsLate() throws Exception {
+        CountDownLatch numberDrawn = new CountDownLatch(1);
+        CountDownLatch mayCommit = new CountDownLatch(1);
+        // Draws the lower number, then stays open while another write commits a higher one
+        CompletableFuture<Void> slowWriter = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            entityManager.persist(new CatalogChange(CatalogChange.EntityType.PRODUCT, 1L, CatalogChange.ChangeType.UPDATED, LocalDateTime.now()));
+            entityManager.flush();
+            numberDrawn.countDown();
+            await(mayCommit);
+        }));
+        await(numberDrawn);
+        commit(new ProductChangedEvent(2L, ProductChangedEvent.ChangeType.UPDATED, null));
+
+        CatalogChangesDto heldBack = catalogChangeFeed.read(baseline, 100);
+        assertThat(heldBack.getChanges()).isEmpty();
+        assertThat(heldBack.getNextSince()).isEqualTo(baseline);
+        assertThat(heldBack.getLatestSequence()).isEqualTo(baseline);
+
+        mayCommit.countDown();
+        slowWriter.get(10, TimeUnit.SECONDS);
+        assertThat(catalogChangeFeed.read(baseline, 100).getChanges())
+                .extracting(CatalogChangeDto::getEntityId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void gapOfARolledBackWriteIsPassedOnceSettled() {
+        // A number drawn by a transaction that then rolled back never shows up
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR catalog_change_seq", Long.class);
+        commit(new ProductChangedEvent(3L, ProductChangedEvent.ChangeType.DELETED, null));
+        assertThat(catalogChangeFeed.read(baseline, 100).getChanges()).isEmpty();
+
+        // Past the commit grace the missing number cannot commit any more
+        jdbcTemplate.update("UPDATE catalog_changes SET changed_at = ? WHERE sequence > ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), baseline);
+
+        CatalogChangesDto settled = catalogChangeFeed.read(baseline, 100);
+        assertThat(settled.getChanges()).extracting(CatalogChangeDto::getEntityId).containsExactly(3L);
+        assertThat(settled.getChanges().get(0).getSequence()).isEqualTo(baseline + 2);
+    }
+
+    @Test
+    void longPollIsCompletedByTheNextCommit() {
+        DeferredResult<CatalogChangesDto> result = catalogChangeFeed.poll(baseline, 100, 10_000);
+        assertThat(result.hasResult()).isFalse();
+
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new StockChangedEvent(List.of(20L)));
+            status.setRollbackOnly();
+        });
+        assertThat(result.hasResult()).isFalse();
+
+        commit(new StockChangedEvent(List.of(21L)));
+
+        assertThat(result.hasResult()).isTrue();
+        CatalogChangesDto changes = (CatalogChangesDto) result.getResult();
+        assertThat(changes.getChanges()).extracting(CatalogChangeDto::getEntityId).containsExactly(21L);
+    }
+
+    @Test
+    void cursorBehindThePrunedLogMustReset() {
+        commit(new ProductChangedEvent(4L, ProductChangedEvent.ChangeType.CREATED, null));
+        commit(new ProductChangedEvent(5L, ProductChangedEvent.ChangeType.CREATED, null));
+        long latest = catalogChangeRepository.findLatestSequence().orElseThrow();
+        jdbcTemplate.update("UPDATE catalog_changes SET changed_at = ?", Timestamp.valueOf(LocalDateTime.now().minusDays(30)));
+
+        catalogChangeFeed.pruneOldChanges();
+
+        // Everything is past retention, but the newest row stays so the sequence does not appear to restart
+        assertThat(catalogChangeRepository.count()).isEqualTo(1);
+        CatalogChangesDto behind = catalogChangeFeed.read(baseline, 100);
+        assertThat(behind.isResetRequired()).isTrue();
+        assertThat(behind.getLatestSequence()).isEqualTo(latest);
+        CatalogChangesDto caughtUp = catalogChangeFeed.read(latest, 100);
+        assertThat(caughtUp.isResetRequired()).isFalse();
+        assertThat(caughtUp.getChanges()).isEmpty();
+    }
+
+    private void commit(Object event) {
+        transaction.executeWithoutResult(status -> eventPublisher.publishEvent(event));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
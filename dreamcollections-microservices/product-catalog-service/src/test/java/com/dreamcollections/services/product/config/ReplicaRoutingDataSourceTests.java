@@ -0,0 +1,106 @@
+package com.dreamcollections.services.product.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Routing between two embedded databases standing in for a primary and a replica; each knows its own name
+class ReplicaRoutingDataSourceTests {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaRoutingDataSource routing;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(database("primary"));
+        replica = new JdbcTemplate(database("replica"));
+        replica.execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+
+        // No timer: the tests trigger health checks themselves
+        routing = new ReplicaRoutingDataSource(primary.getDataSource(), Map.of("replica-1", replica.getDataSource()),
+                Duration.ofSeconds(5), Duration.ZERO, LAG_QUERY);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.execute("DROP ALL OBJECTS");
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        String readOnlyDatabase = readOnly.execute(status -> databaseName());
+        String readWriteDatabase = readWrite.execute(status -> databaseName());
+        assertThat(readOnlyDatabase).isEqualTo("replica");
+        assertThat(readWriteDatabase).isEqualTo("primary");
+
+        // The primary count also includes the connection the lazy proxy opens to read connection defaults
+        assertThat(routing.getRouteCounts())
+                .containsEntry("primary-fallback", 0L)
+                .containsEntry("replica-1", 1L);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimaryUntilItCatchesUp() {
+        replica.update("UPDATE replica_lag SET seconds = 30");
+        routing.checkReplicas();
+
+        String whileLagging = readOnly.execute(status -> databaseName());
+        assertThat(whileLagging).isEqualTo("primary");
+        assertThat(routing.getReplicaLagMillis()).containsEntry("replica-1", 30_000L);
+
+        replica.update("UPDATE replica_lag SET seconds = 1");
+        routing.checkReplicas();
+
+        String caughtUp = readOnly.execute(status -> databaseName());
+        assertThat(caughtUp).isEqualTo("replica");
+        assertThat(routing.getRouteCounts()).containsEntry("primary-fallback", 1L);
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        replica.execute("DROP TABLE replica_lag"); // Health check query now fails
+        routing.checkReplicas();
+
+        String unreachable = readOnly.execute(status -> databaseName());
+        assertThat(unreachable).isEqualTo("primary");
+        assertThat(routing.getReplicaLagMillis()).containsEntry("replica-1", null);
+    }
+
+    private String databaseName() {
+        return jdbc.queryForObject("SELECT name FROM database_name", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE database_name (name VARCHAR(20))");
+        jdbc.update("INSERT INTO database_name VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,137 @@
+package com.dreamcollections.services.product.flashsale;
+
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import com.dreamcollections.services.product.repository.CategoryRepository;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Write-back of flash-sale decrements: units taken by a transaction that commits after the mode was switched off
+// must still reach product_variants, and a write-back the row cannot take yet is retried rather than dropped.
+// Runs against committed rows, as the write-back does.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(FlashSaleStockCounters.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlashSaleStockCountersTests {
+
+    private static final int STOCK = 10;
+
+    @Autowired
+    private FlashSaleStockCounters counters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    private TransactionTemplate transaction;
+    private Long variantId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        variantId = transaction.execute(status -> {
+            Category rings = categoryRepository.save(new Category("Rings", "Rings"));
+            Product product = new Product("Signet Ring", "Plain", new BigDecimal("99.00"), rings, "ring.jpg", null);
+            ProductVariant variant = new ProductVariant(product, "M", STOCK);
+            product.addVariant(variant);
+            productRepository.save(product);
+            return variant.getId();
+        });
+        counters.enable(variantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        counters.disable(variantId);
+        transaction.executeWithoutResult(status -> {
+            productRepository.deleteAll();
+            categoryRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void disableWritesBackCommittedDecrements() {
+        assertThat(counters.tryDecrement(variantId, 3, 0)).isEqualTo(FlashSaleStockCounters.Outcome.DECREMENTED);
+        counters.disable(variantId);
+
+        assertThat(counters.isActive(variantId)).isFalse();
+        assertThat(committedStock()).isEqualTo(STOCK - 3);
+    }
+
+    @Test
+    void decrementCommittingAfterDisableIsWrittenBack() {
+        transaction.executeWithoutResult(status -> {
+            assertThat(counters.tryDecrement(variantId, 2, 0)).isEqualTo(FlashSaleStockCounters.Outcome.DECREMENTED);
+            // Switched off while the buyer's transaction is still open: its units are not unreconciled yet
+            counters.disable(variantId);
+            assertThat(committedStock()).isEqualTo(STOCK);
+        });
+
+        assertThat(committedStock()).isEqualTo(STOCK - 2);
+    }
+
+    @Test
+    void decrementRolledBackAfterDisableIsNotWritten() {
+        transaction.executeWithoutResult(status -> {
+            assertThat(counters.tryDecrement(variantId, 2, 0)).isEqualTo(FlashSaleStockCounters.Outcome.DECREMENTED);
+            counters.disable(variantId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(committedStock()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void variantSwitchedOffIsLeftToTheDatabase() {
+        counters.disable(variantId);
+
+        assertThat(counters.tryDecrement(variantId, 1, 0)).isEqualTo(FlashSaleStockCounters.Outcome.NOT_ACTIVE);
+        assertThat(committedStock()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void writeBackTheRowCannotTakeIsRetried() {
+        assertThat(counters.tryDecrement(variantId, 4, 0)).isEqualTo(FlashSaleStockCounters.Outcome.DECREMENTED);
+        // Stock lowered behind the counter's back: the sold units no longer fit
+        setCommittedStock(2);
+        counters.reconcile();
+        assertThat(committedStock()).isEqualTo(2);
+
+        setCommittedStock(STOCK);
+        counters.reconcile();
+        assertThat(committedStock()).isEqualTo(STOCK - 4);
+    }
+
+    private void setCommittedStock(int stock) {
+        transaction.executeWithoutResult(status -> productVariantRepository.findById(variantId).orElseThrow().setStockQuantity(stock));
+    }
+
+    private int committedStock() {
+        return transaction.execute(status -> productVariantRepository.findStockQuantityById(variantId).orElseThrow());
+    }
+}
@@ -0,0 +1,86 @@
+package com.dreamcollections.services.product.flashsale;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Flash-sale scenario: hundreds of buyers race for one variant. The counter must sell exactly the stock,
+// never more, and every buyer must eventually see it as sold out.
+class StripedStockCounterTests {
+
+    private static final int BUYERS = 512;
+    private static final int STOCK = 20_000;
+
+    @Test
+    void concurrentBuyersSellExactlyTheStock() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(STOCK, 16);
+        int sold = race(counter, 1);
+
+        assertThat(sold).isEqualTo(STOCK);
+        assertThat(counter.approximateSum()).isZero();
+        assertThat(counter.tryDecrement(1)).isFalse();
+    }
+
+    @Test
+    void multiUnitPurchasesNeverOversell() throws Exception {
+        // 3 does not divide the stock, so the last units must be refused rather than oversold
+        StripedStockCounter counter = new StripedStockCounter(STOCK + 2, 16);
+        int sold = race(counter, 3);
+        // A buyer may give up while others are shuffling units between stripes; what is left must still be sellable
+        while (counter.tryDecrement(3)) {
+            sold += 3;
+        }
+
+        assertThat(sold).isLessThanOrEqualTo(STOCK + 2);
+        assertThat(sold + counter.approximateSum()).isEqualTo(STOCK + 2);
+        assertThat(counter.approximateSum()).isLessThan(3);
+    }
+
+    @Test
+    void purchaseLargerThanAnyStripeGathersAcrossStripes() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        assertThat(counter.tryDecrement(9)).isTrue();
+        assertThat(counter.tryDecrement(2)).isFalse();
+        assertThat(counter.approximateSum()).isEqualTo(1);
+
+        counter.increment(1);
+        assertThat(counter.tryDecrement(2)).isTrue();
+        assertThat(counter.approximateSum()).isZero();
+    }
+
+    // Returns total units sold
+    private static int race(StripedStockCounter counter, int unitsPerPurchase) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> buyers = new ArrayList<>(BUYERS);
+            for (int i = 0; i < BUYERS; i++) {
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    int bought = 0;
+                    while (counter.tryDecrement(unitsPerPurchase)) {
+                        bought += unitsPerPurchase;
+                    }
+                    return bought;
+                }));
+            }
+            start.countDown();
+            int sold = 0;
+            for (Future<Integer> buyer : buyers) {
+                sold += buyer.get(30, TimeUnit.SECONDS);
+            }
+            return sold;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dreamcollections.services.product.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Latency of misspelled lookups on a catalogue-sized vocabulary (the vocabulary of FuzzyTermMatcherTests).
+// Timing only, so not part of the normal run: mvn test -Dtest=FuzzyTermMatcherBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FuzzyTermMatcherBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(FuzzyTermMatcherBenchmark.class);
+
+    private static final int LOOKUPS = 5_000;
+    // Per-lookup budget at p99
+    private static final long P99_BUDGET_NANOS = 5_000_000;
+
+    @Test
+    void misspelledLookupsStayWithinBudget() {
+        Random random = new Random(42);
+        List<String> vocabulary = new ArrayList<>(FuzzyTermMatcherTests.VOCABULARY_SIZE);
+        FuzzyTermMatcher matcher = FuzzyTermMatcherTests.largeVocabulary(random, vocabulary);
+
+        // Warm up, then time misspelled lookups of known terms
+        for (int i = 0; i < 2_000; i++) {
+            matcher.match(FuzzyTermMatcherTests.misspell(vocabulary.get(random.nextInt(vocabulary.size())), random), 8);
+        }
+        long[] nanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String typo = FuzzyTermMatcherTests.misspell(vocabulary.get(random.nextInt(vocabulary.size())), random);
+            long started = System.nanoTime();
+            matcher.match(typo, 8);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[LOOKUPS / 2];
+        long p99 = nanos[(int) (LOOKUPS * 0.99)];
+        log.info("Fuzzy lookup over {} terms: p50 {} us, p99 {} us", FuzzyTermMatcherTests.VOCABULARY_SIZE, p50 / 1_000, p99 / 1_000);
+
+        assertThat(p99).isLessThan(P99_BUDGET_NANOS);
+    }
+}
@@ -0,0 +1,108 @@
+package com.dreamcollections.services.product.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Typo tolerance for product search: common misspellings must resolve to the intended term, also on a
+// catalogue-sized vocabulary. Lookup latency is measured separately by FuzzyTermMatcherBenchmark.
+class FuzzyTermMatcherTests {
+
+    static final int VOCABULARY_SIZE = 100_000;
+
+    @Test
+    void resolvesCommonMisspellings() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+        for (String term : Arrays.asList("necklace", "necklaces", "bracelet", "earring", "earrings", "pendant", "ring", "rings")) {
+            matcher.add(term);
+        }
+
+        assertThat(firstMatch(matcher, "neckless")).isEqualTo("necklace");
+        assertThat(firstMatch(matcher, "braclet")).isEqualTo("bracelet");
+        assertThat(firstMatch(matcher, "earirng")).isEqualTo("earring"); // Adjacent swap counts as one edit
+        assertThat(firstMatch(matcher, "pendnat")).isEqualTo("pendant");
+        // Four-letter terms tolerate one edit; anything shorter is too short to guess at
+        assertThat(matcher.match("rimg", 5)).extracting(FuzzyTermMatcher.Match::getTerm).containsExactly("ring");
+        assertThat(matcher.match("rng", 5)).isEmpty();
+    }
+
+    @Test
+    void removedTermsAreNoLongerSuggested() {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+        matcher.add("bracelet");
+        matcher.remove("bracelet");
+
+        assertThat(matcher.match("braclet", 5)).isEmpty();
+        assertThat(matcher.size()).isZero();
+    }
+
+    @Test
+    void boundedDistanceStopsAtTheLimit() {
+        assertThat(FuzzyTermMatcher.distance("necklace", "necklace", 2)).isZero();
+        assertThat(FuzzyTermMatcher.distance("neckless", "necklace", 3)).isEqualTo(3);
+        assertThat(FuzzyTermMatcher.distance("neckless", "necklace", 2)).isEqualTo(3);
+        assertThat(FuzzyTermMatcher.distance("earirng", "earring", 2)).isEqualTo(1);
+        assertThat(FuzzyTermMatcher.distance("ab", "abcdef", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void singleEditTyposOnLargeVocabularyFindTheIntendedTerm() {
+        Random random = new Random(42);
+        List<String> vocabulary = new ArrayList<>(VOCABULARY_SIZE);
+        FuzzyTermMatcher matcher = largeVocabulary(random, vocabulary);
+
+        for (int i = 0; i < 1_000; i++) {
+            String intended = vocabulary.get(random.nextInt(vocabulary.size()));
+            String typo = misspell(intended, random);
+            assertThat(matcher.match(typo, 8)).extracting(FuzzyTermMatcher.Match::getTerm).as(typo).contains(intended);
+        }
+    }
+
+    // A matcher holding VOCABULARY_SIZE random terms, which are also appended to the given list
+    static FuzzyTermMatcher largeVocabulary(Random random, List<String> vocabulary) {
+        FuzzyTermMatcher matcher = new FuzzyTermMatcher();
+        while (matcher.size() < VOCABULARY_SIZE) {
+            String term = randomTerm(random);
+            matcher.add(term);
+            vocabulary.add(term);
+        }
+        return matcher;
+    }
+
+    private static String firstMatch(FuzzyTermMatcher matcher, String term) {
+        List<FuzzyTermMatcher.Match> matches = matcher.match(term, 5);
+        return matches.isEmpty() ? null : matches.get(0).getTerm();
+    }
+
+    // Lowercase words of 5 to 12 letters
+    private static String randomTerm(Random random) {
+        int length = 5 + random.nextInt(8);
+        StringBuilder term = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            term.append((char) ('a' + random.nextInt(26)));
+        }
+        return term.toString();
+    }
+
+    // One substitution, deletion, insertion or adjacent swap
+    static String misspell(String term, Random random) {
+        StringBuilder typo = new StringBuilder(term);
+        int position = 1 + random.nextInt(term.length() - 2);
+        switch (random.nextInt(4)) {
+            case 0 -> typo.setCharAt(position, typo.charAt(position) == 'x' ? 'y' : 'x');
+            case 1 -> typo.deleteCharAt(position);
+            case 2 -> typo.insert(position, 'x');
+            default -> {
+                char swapped = typo.charAt(position);
+                typo.setCharAt(position, typo.charAt(position + 1));
+                typo.setCharAt(position + 1, swapped);
+            }
+        }
+        return typo.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package com.dreamcollections.services.product.index;
+
+import com.dreamcollections.services.product.dto.CategoryDto;
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductPricesChangedEvent;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Facet counts as the listing page shows them: each facet counted with every filter but its own, prices bucketed
+// at exclusive upper bounds, and the index kept exact through tombstone compaction and changes that land while a
+// rebuild is reading the catalog.
+class ProductFacetIndexTests {
+
+    private static final long RINGS = 1L;
+    private static final long BANGLES = 2L;
+    private static final long RING_SMALL = 11L;
+    private static final long RING_LARGE = 12L;
+    private static final long BANGLE_PLAIN = 21L;
+    private static final long BANGLE_GOLD = 22L;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductVariantRepository productVariantRepository = mock(ProductVariantRepository.class);
+    // Rows of (product, variant), as streamCatalogRows returns them
+    private final List<Object[]> catalogRows = new ArrayList<>();
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        catalogRows.add(row(RING_SMALL, "Small Ring", "20.00", RINGS, 1L, "S", 3));
+        catalogRows.add(row(RING_SMALL, "Small Ring", "20.00", RINGS, 2L, "M", 0));
+        catalogRows.add(row(RING_LARGE, "Large Ring", "80.00", RINGS, 3L, "M", 1));
+        catalogRows.add(row(BANGLE_PLAIN, "Plain Bangle", "30.00", BANGLES, 4L, "L", 0));
+        catalogRows.add(row(BANGLE_GOLD, "Gold Bangle", "600.00", BANGLES, 5L, "S", 2));
+        when(productRepository.streamCatalogRows()).thenAnswer(invocation -> new ArrayList<>(catalogRows).stream());
+
+        index = new ProductFacetIndex(productRepository, productVariantRepository, mock(PlatformTransactionManager.class),
+                new BigDecimal[]{new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500")});
+        index.rebuild();
+    }
+
+    @Test
+    void eachFacetIsCountedWithoutItsOwnSelection() {
+        ProductFacetIndex.Result result = index.query(query(List.of(RINGS), List.of("M"), null, null, false));
+
+        assertThat(result.getProductIds()).containsExactly(RING_SMALL, RING_LARGE);
+        // Categories with the size filter only: no bangle comes in M
+        assertThat(result.getCategoryCounts()).containsExactly(Map.entry(RINGS, 2));
+        // Sizes with the category filter only: picking S as well would add nothing new, but S is offered
+        assertThat(result.getSizeCounts()).containsEntry("M", 2).containsEntry("S", 1).doesNotContainKey("L");
+        assertThat(result.getPriceBucketCounts()).containsExactly(1, 0, 1, 0, 0, 0);
+        assertThat(result.getInStockCount()).isEqualTo(2);
+        assertThat(result.getOutOfStockCount()).isZero();
+    }
+
+    @Test
+    void stockFacetCountsWhatDroppingInStockOnlyWouldAdd() {
+        ProductFacetIndex.Result result = index.query(query(null, null, null, null, true));
+
+        assertThat(result.getProductIds()).containsExactly(RING_SMALL, RING_LARGE, BANGLE_GOLD);
+        assertThat(result.getInStockCount()).isEqualTo(3);
+        assertThat(result.getOutOfStockCount()).isEqualTo(1);
+        assertThat(result.getCategoryCounts()).containsEntry(RINGS, 2).containsEntry(BANGLES, 1);
+    }
+
+    @Test
+    void priceBoundsAreExclusiveUpperLimits() {
+        index.onPricesChanged(new ProductPricesChangedEvent(Map.of(
+                RING_SMALL, new BigDecimal("24.99"), RING_LARGE, new BigDecimal("25.00"),
+                BANGLE_PLAIN, new BigDecimal("499.99"), BANGLE_GOLD, new BigDecimal("500.00"))));
+
+        ProductFacetIndex.Result all = index.query(query(null, null, null, null, false));
+        assertThat(all.getPriceBucketCounts()).containsExactly(1, 1, 0, 0, 1, 1);
+
+        // The range filter itself is inclusive at both ends, and the price facet ignores it
+        ProductFacetIndex.Result ranged = index.query(query(null, null, new BigDecimal("25.00"), new BigDecimal("499.99"), false));
+        assertThat(ranged.getProductIds()).containsExactly(RING_LARGE, BANGLE_PLAIN);
+        assertThat(ranged.getPriceBucketCounts()).containsExactly(1, 1, 0, 0, 1, 1);
+        assertThat(index.getPriceBucketBounds()).extracting(BigDecimal::toPlainString)
+                .containsExactly("25.00", "50.00", "100.00", "250.00", "500.00");
+    }
+
+    @Test
+    void resultsStayExactAcrossCompaction() {
+        when(productVariantRepository.findMaxStockByProductsOfVariants(List.of(4L))).thenReturn(List.<Object[]>of(new Object[]{BANGLE_PLAIN, 5}));
+        index.onStockChanged(new StockChangedEvent(List.of(4L)));
+        index.onPricesChanged(new ProductPricesChangedEvent(Map.of(RING_LARGE, new BigDecimal("45.00"))));
+        index.onProductChanged(new ProductChangedEvent(BANGLE_GOLD, ProductChangedEvent.ChangeType.DELETED, null));
+
+        // Every edit tombstones a document; this many pass the compaction threshold several times over
+        for (int i = 1; i <= 3_000; i++) {
+            index.onProductChanged(new ProductChangedEvent(RING_SMALL, ProductChangedEvent.ChangeType.UPDATED,
+                    product(RING_SMALL, "Small Ring", BigDecimal.valueOf(i, 2), RINGS, i % 2 == 0 ? "XS" : "S")));
+        }
+
+        ProductFacetIndex.Result result = index.query(query(null, null, null, null, true));
+        assertThat(result.getProductIds()).containsExactly(RING_SMALL, RING_LARGE, BANGLE_PLAIN);
+        assertThat(result.getSizeCounts()).containsOnly(Map.entry("XS", 1), Map.entry("M", 1), Map.entry("L", 1));
+        // 30.00, 45.00, 30.00: the price and stock set by events survived being copied into the compacted segment
+        assertThat(result.getPriceBucketCounts()).containsExactly(0, 3, 0, 0, 0, 0);
+        assertThat(result.getOutOfStockCount()).isZero();
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayedOntoTheNewIndex() {
+        List<Object[]> snapshot = new ArrayList<>(catalogRows);
+        // The rebuild reads the catalog as it was, while these changes commit before it finishes
+        when(productRepository.streamCatalogRows()).thenAnswer(invocation -> {
+            index.onProductChanged(new ProductChangedEvent(BANGLE_PLAIN, ProductChangedEvent.ChangeType.DELETED, null));
+            index.onPricesChanged(new ProductPricesChangedEvent(Map.of(RING_LARGE, new BigDecimal("300.00"))));
+            index.onProductChanged(new ProductChangedEvent(31L, ProductChangedEvent.ChangeType.CREATED,
+                    product(31L, "Pearl Anklet", new BigDecimal("40.00"), BANGLES, "M")));
+            return snapshot.stream();
+        });
+
+        index.rebuild();
+
+        ProductFacetIndex.Result result = index.query(query(null, null, null, null, false));
+        assertThat(result.getProductIds()).containsExactly(RING_SMALL, RING_LARGE, BANGLE_GOLD, 31L);
+        assertThat(result.getPriceBucketCounts()).containsExactly(1, 1, 0, 0, 1, 1);
+    }
+
+    private static ProductFacetIndex.Query query(Collection<Long> categoryIds, Collection<String> sizes,
+                                                 BigDecimal minPrice, BigDecimal maxPrice, boolean inStockOnly) {
+        return new ProductFacetIndex.Query(categoryIds, sizes, minPrice, maxPrice, inStockOnly, null, ProductFacetIndex.SortKey.ID, false);
+    }
+
+    private static Object[] row(Long productId, String name, String price, Long categoryId, Long variantId, String size, int stock) {
+        return new Object[]{productId, name, null, new BigDecimal(price), null, null, categoryId, variantId, size, stock};
+    }
+
+    private static ProductResponseDto product(Long productId, String name, BigDecimal price, Long categoryId, String size) {
+        ProductVariantDto variant = new ProductVariantDto(productId * 100, size, 1, productId);
+        return new ProductResponseDto(productId, name, null, price, null, null,
+                new CategoryDto(categoryId, "Category " + categoryId, null), List.of(variant));
+    }
+}
@@ -0,0 +1,105 @@
+package com.dreamcollections.services.product.index;
+
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Name search over 100k products: the in-memory index against the LIKE query it replaced, on H2.
+// Timing only, so not part of the normal run: mvn test -Dtest=ProductSearchIndexBenchmark -Dbenchmark=true
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ProductSearchIndex.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductSearchIndexBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexBenchmark.class);
+
+    private static final int PRODUCTS = 100_000;
+    private static final int ROUNDS = 50;
+    private static final String[] STYLES = {"Vintage", "Classic", "Modern", "Bohemian", "Minimal", "Royal", "Delicate", "Bold"};
+    private static final String[] MATERIALS = {"Gold", "Silver", "Platinum", "Rose Gold", "Pearl", "Diamond", "Emerald", "Sapphire"};
+    private static final String[] KINDS = {"Ring", "Necklace", "Bracelet", "Earrings", "Anklet", "Pendant", "Brooch", "Bangle"};
+    private static final String[] QUERIES = {"pearl", "emerald pendant", "vintage gold ring", "brace", "sapphire"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persistFlushFind(new Category("Jewellery", "All jewellery"));
+        insertProducts(jdbcTemplate, category.getId(), PRODUCTS);
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void indexAnswersFirstPageFasterThanLike() {
+        PageRequest firstPage = PageRequest.of(0, 20);
+        for (String query : QUERIES) {
+            long likeNanos = medianNanos(() -> productRepository.findPageIdsByNameContainingIgnoreCase(query, firstPage).getContent());
+            long indexNanos = medianNanos(() -> {
+                List<Long> ranked = productSearchIndex.search(query);
+                return ranked.subList(0, Math.min(20, ranked.size()));
+            });
+            log.info("'{}' over {} products: LIKE {} us, index {} us (median of {})",
+                    query, PRODUCTS, likeNanos / 1_000, indexNanos / 1_000, ROUNDS);
+
+            assertThat(productSearchIndex.search(query)).isNotEmpty();
+            assertThat(indexNanos).isLessThan(likeNanos);
+        }
+    }
+
+    // Plain JDBC batches: 100k entities through the persistence context would dominate the run
+    static void insertProducts(JdbcTemplate jdbcTemplate, Long categoryId, int count) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = STYLES[random.nextInt(STYLES.length)] + " " + MATERIALS[random.nextInt(MATERIALS.length)] + " "
+                    + KINDS[random.nextInt(KINDS.length)] + " " + i;
+            rows.add(new Object[]{name, "Handmade " + name.toLowerCase(), new BigDecimal("49.00"), categoryId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, description, price, category_id) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private static long medianNanos(Supplier<List<Long>> search) {
+        for (int i = 0; i < 5; i++) {
+            search.get(); // Warm up
+        }
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long started = System.nanoTime();
+            search.get();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        return nanos[ROUNDS / 2];
+    }
+}
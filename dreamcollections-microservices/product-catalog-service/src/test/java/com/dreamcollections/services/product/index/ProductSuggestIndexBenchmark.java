@@ -0,0 +1,98 @@
+package com.dreamcollections.services.product.index;
+
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Type-ahead over 100k products (the catalogue of ProductSearchIndexBenchmark): every keystroke prefix of a few
+// queries, answered by the trie and by the LIKE search the box used before, on H2. The trie targets p99 < 1 ms.
+// Timing only, so not part of the normal run: mvn test -Dtest=ProductSuggestIndexBenchmark -Dbenchmark=true
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ProductSuggestIndex.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductSuggestIndexBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestIndexBenchmark.class);
+
+    private static final int PRODUCTS = 100_000;
+    private static final List<String> TYPED = List.of("vintage gold ring", "pearl necklace", "rose gold bangle", "sapphire brooch");
+    private static final int TRIE_ROUNDS = 500;
+    private static final int LIKE_ROUNDS = 5;
+    private static final long TRIE_P99_BUDGET_NANOS = 1_000_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persistFlushFind(new Category("Jewellery", "All jewellery"));
+        ProductSearchIndexBenchmark.insertProducts(jdbcTemplate, category.getId(), PRODUCTS);
+        productSuggestIndex.rebuild();
+    }
+
+    @Test
+    void trieAnswersKeystrokesWithinBudget() {
+        List<String> prefixes = TYPED.stream()
+                .flatMap(query -> IntStream.rangeClosed(1, query.length()).mapToObj(length -> query.substring(0, length)))
+                .toList();
+
+        long[] trie = time(prefixes, TRIE_ROUNDS, prefix -> productSuggestIndex.suggest(prefix, ProductSuggestIndex.TOP_K).size());
+        long[] like = time(prefixes, LIKE_ROUNDS,
+                prefix -> productRepository.findPageIdsByNameContainingIgnoreCase(prefix, PageRequest.of(0, ProductSuggestIndex.TOP_K)).getNumberOfElements());
+        log.info("{} keystroke prefixes over {} products: trie p50 {} us, p99 {} us; LIKE p50 {} us, p99 {} us",
+                prefixes.size(), PRODUCTS, percentile(trie, 0.5) / 1_000, percentile(trie, 0.99) / 1_000,
+                percentile(like, 0.5) / 1_000, percentile(like, 0.99) / 1_000);
+
+        assertThat(productSuggestIndex.suggest("vintage g", ProductSuggestIndex.TOP_K)).isNotEmpty();
+        assertThat(percentile(trie, 0.99)).isLessThan(TRIE_P99_BUDGET_NANOS);
+        assertThat(percentile(trie, 0.5)).isLessThan(percentile(like, 0.5));
+    }
+
+    // Sorted per-lookup times of every prefix, repeated; the first repetition is a warm-up and not recorded
+    private static long[] time(List<String> prefixes, int rounds, Function<String, Integer> lookup) {
+        prefixes.forEach(lookup::apply);
+        long[] nanos = new long[prefixes.size() * rounds];
+        int i = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (String prefix : prefixes) {
+                long started = System.nanoTime();
+                lookup.apply(prefix);
+                nanos[i++] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+}
@@ -0,0 +1,160 @@
+package com.dreamcollections.services.product.index;
+
+import com.dreamcollections.services.product.dto.ProductResponseDto;
+import com.dreamcollections.services.product.dto.SuggestionDto;
+import com.dreamcollections.services.product.event.ProductChangedEvent;
+import com.dreamcollections.services.product.event.ProductsImportedEvent;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Type-ahead from memory: no statement per keystroke, prefixes at any word start, and the trie kept exact as products
+// are renamed, deleted and re-added, down to the stored top lists and the nodes a removal leaves empty.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ProductSuggestIndex.class)
+class ProductSuggestIndexTests {
+
+    private static final String TYPED = "rose go";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category rings = entityManager.persist(new Category("Rings", "Rings"));
+        entityManager.persist(new Category("Rose Gold", "Rose gold pieces"));
+        for (String name : List.of("Rose Gold Ring", "Rose Gold Signet Ring", "Rosewood Bangle", "Gold Hoop Earrings")) {
+            entityManager.persist(new Product(name, name, new BigDecimal("49.00"), rings, null, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        productSuggestIndex.rebuild();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void trieAnswersEveryKeystrokeWithoutStatements() {
+        List<SuggestionDto> suggestions = List.of();
+        for (int length = 1; length <= TYPED.length(); length++) {
+            suggestions = productSuggestIndex.suggest(TYPED.substring(0, length), 5);
+        }
+
+        assertThat(suggestions).extracting(SuggestionDto::getText)
+                .containsExactly("Rose Gold", "Rose Gold Ring", "Rose Gold Signet Ring");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void prefixMatchesAtAnyWordStart() {
+        assertThat(productSuggestIndex.suggest("hoop", 5)).extracting(SuggestionDto::getText)
+                .containsExactly("Gold Hoop Earrings");
+    }
+
+    @Test
+    void renameReplacesEveryKeyOfTheOldName() {
+        Long ringId = productSuggestIndex.suggest("rose gold ring", 1).get(0).getId();
+
+        productSuggestIndex.onProductChanged(updated(ringId, "Platinum Band"));
+
+        assertThat(productSuggestIndex.suggest("rose gold", 5)).extracting(SuggestionDto::getText)
+                .containsExactly("Rose Gold", "Rose Gold Signet Ring");
+        assertThat(productSuggestIndex.suggest("ring", 5)).extracting(SuggestionDto::getText)
+                .containsExactly("Rings", "Rose Gold Signet Ring");
+        assertThat(productSuggestIndex.suggest("band", 5)).extracting(SuggestionDto::getText).containsExactly("Platinum Band");
+        assertThat(productSuggestIndex.suggest("plat", 5)).extracting(SuggestionDto::getId).containsExactly(ringId);
+    }
+
+    @Test
+    void deletePrunesTheNodesItLeavesEmpty() {
+        int before = productSuggestIndex.nodeCount();
+        productSuggestIndex.onProductChanged(created(9_001L, "Zircon Anklet"));
+        int withAnklet = productSuggestIndex.nodeCount();
+        assertThat(withAnklet).isGreaterThan(before);
+
+        productSuggestIndex.onProductChanged(new ProductChangedEvent(9_001L, ProductChangedEvent.ChangeType.DELETED, null));
+        assertThat(productSuggestIndex.suggest("zir", 5)).isEmpty();
+        assertThat(productSuggestIndex.suggest("ank", 5)).isEmpty();
+        assertThat(productSuggestIndex.nodeCount()).isEqualTo(before);
+
+        // Shared prefixes survive the pruning: "Rose..." and "Rosewood..." still branch off "ros"
+        assertThat(productSuggestIndex.suggest("ros", 5)).hasSize(4);
+
+        productSuggestIndex.onProductChanged(created(9_001L, "Zircon Anklet"));
+        assertThat(productSuggestIndex.suggest("zir", 5)).extracting(SuggestionDto::getText).containsExactly("Zircon Anklet");
+        assertThat(productSuggestIndex.nodeCount()).isEqualTo(withAnklet);
+    }
+
+    @Test
+    void topListsAreReorderedAsEntriesComeAndGo() {
+        // More "Pearl" names than a node keeps; shorter names rank first
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < ProductSuggestIndex.TOP_K + 2; i++) {
+            String name = "Pearl " + "x".repeat(i + 1);
+            productSuggestIndex.onProductChanged(created(9_100L + i, name));
+            expected.add(name);
+        }
+        assertThat(productSuggestIndex.suggest("pearl", 10)).extracting(SuggestionDto::getText)
+                .containsExactlyElementsOf(expected.subList(0, ProductSuggestIndex.TOP_K));
+
+        // Removing an entry of the top list pulls in the next one from below the cut
+        productSuggestIndex.onProductChanged(new ProductChangedEvent(9_100L, ProductChangedEvent.ChangeType.DELETED, null));
+        assertThat(productSuggestIndex.suggest("pearl", 10)).extracting(SuggestionDto::getText)
+                .containsExactlyElementsOf(expected.subList(1, ProductSuggestIndex.TOP_K + 1));
+
+        // Renaming the last entry to the shortest name moves it to the front
+        long lastId = 9_100L + ProductSuggestIndex.TOP_K + 1;
+        productSuggestIndex.onProductChanged(updated(lastId, "Pearl"));
+        List<SuggestionDto> reordered = productSuggestIndex.suggest("pearl", 10);
+        assertThat(reordered.get(0).getId()).isEqualTo(lastId);
+        assertThat(reordered).extracting(SuggestionDto::getText).endsWith(expected.get(ProductSuggestIndex.TOP_K - 1));
+    }
+
+    @Test
+    void importedChunkIsSuggestedAsCreatedProductsAre() {
+        productSuggestIndex.onProductsImported(new ProductsImportedEvent(List.of(
+                product(9_200L, "Opal Drop Earrings"), product(9_201L, "Opal Cuff"))));
+
+        assertThat(productSuggestIndex.suggest("opal", 5)).extracting(SuggestionDto::getText)
+                .containsExactly("Opal Cuff", "Opal Drop Earrings");
+        assertThat(productSuggestIndex.suggest("drop", 5)).extracting(SuggestionDto::getId).containsExactly(9_200L);
+    }
+
+    private static ProductChangedEvent created(Long productId, String name) {
+        return new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.CREATED, product(productId, name));
+    }
+
+    private static ProductChangedEvent updated(Long productId, String name) {
+        return new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.UPDATED, product(productId, name));
+    }
+
+    private static ProductResponseDto product(Long productId, String name) {
+        return new ProductResponseDto(productId, name, null, new BigDecimal("49.00"), null, null, null, List.of());
+    }
+}
@@ -0,0 +1,85 @@
+package com.dreamcollections.services.product.lowstock;
+
+import com.dreamcollections.services.product.dto.LowStockAlertDto;
+import com.dreamcollections.services.product.dto.LowStockVariantDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// Threshold crossings as a subscriber receives them over server-sent events: one event per crossing of its own
+// threshold, nothing for moves that stay on one side of it.
+class LowStockAlertStreamTests {
+
+    private final LowStockAlertStream alertStream = new LowStockAlertStream(Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        alertStream.shutdown();
+    }
+
+    @Test
+    void crossingIsJudgedAgainstTheThreshold() {
+        assertThat(LowStockAlertStream.crossing(3, 4, 3)).isEqualTo(LowStockAlertDto.Type.LOW);
+        assertThat(LowStockAlertStream.crossing(3, null, 0)).isEqualTo(LowStockAlertDto.Type.LOW);
+        assertThat(LowStockAlertStream.crossing(3, 3, 4)).isEqualTo(LowStockAlertDto.Type.RECOVERED);
+        assertThat(LowStockAlertStream.crossing(3, 2, null)).isEqualTo(LowStockAlertDto.Type.REMOVED);
+        assertThat(LowStockAlertStream.crossing(3, 3, 1)).isNull();
+        assertThat(LowStockAlertStream.crossing(3, 9, 4)).isNull();
+        assertThat(LowStockAlertStream.crossing(3, 9, null)).isNull();
+    }
+
+    @Test
+    void subscriberReceivesOnlyItsOwnCrossings() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AlertsController()).build();
+        MvcResult lowAtThree = mockMvc.perform(get("/alerts").param("threshold", "3")).andExpect(request().asyncStarted()).andReturn();
+        MvcResult lowAtOne = mockMvc.perform(get("/alerts").param("threshold", "1")).andExpect(request().asyncStarted()).andReturn();
+        assertThat(alertStream.hasSubscribers()).isTrue();
+
+        alertStream.levelChanged(variant(5), variant(2));
+        alertStream.levelChanged(variant(2), variant(1));
+        alertStream.levelChanged(variant(1), variant(6));
+
+        String atThree = awaitEvents(lowAtThree, 2);
+        assertThat(atThree).containsSubsequence("event:low", "\"availableQuantity\":2", "event:recovered", "\"availableQuantity\":6");
+        assertThat(atThree).contains("\"threshold\":3", "\"productName\":\"Signet Ring\"");
+        String atOne = awaitEvents(lowAtOne, 2);
+        assertThat(atOne).containsSubsequence("event:low", "\"availableQuantity\":1", "event:recovered");
+        assertThat(atOne).doesNotContain("\"availableQuantity\":2");
+    }
+
+    // Alerts are written by the stream's sender thread; an event is complete once its closing blank line is written
+    private static String awaitEvents(MvcResult result, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String body = result.getResponse().getContentAsString();
+        while (body.split("\n\n", -1).length - 1 < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    private static LowStockVariantDto variant(int available) {
+        return new LowStockVariantDto(2L, 10L, "Signet Ring", "M", available, available);
+    }
+
+    @RestController
+    private class AlertsController {
+
+        @GetMapping("/alerts")
+        public SseEmitter alerts(@RequestParam int threshold) {
+            return alertStream.subscribe(threshold);
+        }
+    }
+}
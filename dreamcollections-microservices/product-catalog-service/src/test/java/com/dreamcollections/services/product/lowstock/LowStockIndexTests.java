@@ -0,0 +1,166 @@
+package com.dreamcollections.services.product.lowstock;
+
+import com.dreamcollections.services.product.dto.LowStockVariantDto;
+import com.dreamcollections.services.product.dto.ProductVariantDetailDto;
+import com.dreamcollections.services.product.event.StockChangedEvent;
+import com.dreamcollections.services.product.event.StockHoldsChangedEvent;
+import com.dreamcollections.services.product.flashsale.FlashSaleStockCounters;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import com.dreamcollections.services.product.reservation.StockReservation;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Variants ordered by what can still be sold: committed stock minus the holds of checkouts not yet being confirmed.
+// Level changes are reported to the alert stream once, never for what a rebuild replays or finds already low.
+class LowStockIndexTests {
+
+    private static final long RING = 10L;
+    private static final long BANGLE = 20L;
+    private static final long RING_SMALL = 1L;
+    private static final long RING_MEDIUM = 2L;
+    private static final long BANGLE_LARGE = 3L;
+    private static final long BANGLE_EXTRA_LARGE = 4L;
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductVariantRepository productVariantRepository = mock(ProductVariantRepository.class);
+    private final LowStockAlertStream alertStream = mock(LowStockAlertStream.class);
+    // Hold changes reach the index as they would through the application event publisher
+    private final StockReservationStore stockReservationStore = new StockReservationStore(
+            event -> this.index.onHoldsChanged((StockHoldsChangedEvent) event));
+    private final List<Object[]> catalogRows = new ArrayList<>();
+
+    private LowStockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        catalogRows.add(row(RING, "Signet Ring", RING_SMALL, "S", 2));
+        catalogRows.add(row(RING, "Signet Ring", RING_MEDIUM, "M", 5));
+        catalogRows.add(row(BANGLE, "Pearl Bangle", BANGLE_LARGE, "L", 2));
+        catalogRows.add(row(BANGLE, "Pearl Bangle", BANGLE_EXTRA_LARGE, "XL", 9));
+        when(productRepository.streamCatalogRows()).thenAnswer(invocation -> new ArrayList<>(catalogRows).stream());
+        when(alertStream.hasSubscribers()).thenReturn(true);
+
+        // Not in flash-sale mode: approximateAvailable is empty, so committed stock applies
+        index = new LowStockIndex(productRepository, productVariantRepository, stockReservationStore,
+                mock(FlashSaleStockCounters.class), alertStream, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void thresholdIncludesEveryTieLowestFirst() {
+        index.rebuild();
+
+        assertThat(index.findAtOrBelow(2, 10)).extracting(LowStockVariantDto::getVariantId)
+                .containsExactly(RING_SMALL, BANGLE_LARGE);
+        assertThat(index.findAtOrBelow(5, 10)).extracting(LowStockVariantDto::getVariantId)
+                .containsExactly(RING_SMALL, BANGLE_LARGE, RING_MEDIUM);
+        assertThat(index.findAtOrBelow(5, 1)).extracting(LowStockVariantDto::getVariantId).containsExactly(RING_SMALL);
+        assertThat(index.findAtOrBelow(1, 10)).isEmpty();
+        // Variants already low when the index was built are in the report, not alerted
+        verify(alertStream, never()).levelChanged(any(), any());
+    }
+
+    @Test
+    void holdsMoveAvailabilityWithoutStockChanging() {
+        index.rebuild();
+
+        StockReservation reservation = stockReservationStore.reserve(new TreeMap<>(Map.of(RING_MEDIUM, 4)),
+                Map.of(RING_MEDIUM, 5), TTL).orElseThrow();
+        List<LowStockVariantDto> low = index.findAtOrBelow(2, 10);
+        assertThat(low).extracting(LowStockVariantDto::getVariantId).containsExactly(RING_MEDIUM, RING_SMALL, BANGLE_LARGE);
+        assertThat(low.get(0).getStockQuantity()).isEqualTo(5);
+        assertThat(low.get(0).getAvailableQuantity()).isEqualTo(1);
+
+        stockReservationStore.release(reservation.getId());
+        assertThat(index.findAtOrBelow(2, 10)).extracting(LowStockVariantDto::getVariantId).containsExactly(RING_SMALL, BANGLE_LARGE);
+
+        ArgumentCaptor<LowStockVariantDto> previous = ArgumentCaptor.forClass(LowStockVariantDto.class);
+        ArgumentCaptor<LowStockVariantDto> current = ArgumentCaptor.forClass(LowStockVariantDto.class);
+        verify(alertStream, times(2)).levelChanged(previous.capture(), current.capture());
+        assertThat(previous.getAllValues()).extracting(LowStockVariantDto::getAvailableQuantity).containsExactly(5, 1);
+        assertThat(current.getAllValues()).extracting(LowStockVariantDto::getAvailableQuantity).containsExactly(1, 5);
+    }
+
+    @Test
+    void holdsOfAConfirmingCheckoutAreNotCountedTwice() {
+        index.rebuild();
+        StockReservation confirming = stockReservationStore.reserve(new TreeMap<>(Map.of(RING_MEDIUM, 3)),
+                Map.of(RING_MEDIUM, 5), TTL).orElseThrow();
+        stockReservationStore.reserve(new TreeMap<>(Map.of(RING_MEDIUM, 1)), Map.of(RING_MEDIUM, 5), TTL).orElseThrow();
+        assertThat(available(RING_MEDIUM)).isEqualTo(1);
+
+        // The confirmed checkout's decrement commits while its holds are still in place
+        stockReservationStore.beginConfirm(confirming.getId()).orElseThrow();
+        when(productVariantRepository.findDetailsByIdIn(List.of(RING_MEDIUM))).thenReturn(List.of(detail(RING_MEDIUM, "M", 2)));
+        index.onStockChanged(new StockChangedEvent(List.of(RING_MEDIUM)));
+
+        // 2 in stock, 1 held by the other checkout; counting the confirmed hold as well would report 0
+        assertThat(available(RING_MEDIUM)).isEqualTo(1);
+        stockReservationStore.complete(confirming.getId());
+        assertThat(available(RING_MEDIUM)).isEqualTo(1);
+    }
+
+    @Test
+    void changesBeforeTheFirstBuildAreNotAlerted() {
+        when(productVariantRepository.findDetailsByIdIn(List.of(RING_SMALL))).thenReturn(List.of(detail(RING_SMALL, "S", 0)));
+        index.onStockChanged(new StockChangedEvent(List.of(RING_SMALL)));
+        verify(alertStream, never()).levelChanged(any(), any());
+
+        index.rebuild();
+        index.onStockChanged(new StockChangedEvent(List.of(RING_SMALL)));
+        verify(alertStream).levelChanged(any(), any());
+    }
+
+    @Test
+    void changeDuringRebuildIsReplayedWithoutASecondAlert() {
+        index.rebuild();
+        List<Object[]> snapshot = new ArrayList<>(catalogRows);
+        when(productVariantRepository.findDetailsByIdIn(List.of(BANGLE_EXTRA_LARGE)))
+                .thenReturn(List.of(detail(BANGLE_EXTRA_LARGE, "XL", 1)));
+        // The rebuild reads stock as it was, while a decrement commits before it finishes
+        when(productRepository.streamCatalogRows()).thenAnswer(invocation -> {
+            index.onStockChanged(new StockChangedEvent(List.of(BANGLE_EXTRA_LARGE)));
+            return snapshot.stream();
+        });
+
+        index.rebuild();
+
+        assertThat(available(BANGLE_EXTRA_LARGE)).isEqualTo(1);
+        verify(alertStream, times(1)).levelChanged(any(), any());
+    }
+
+    private int available(long variantId) {
+        return index.findAtOrBelow(Integer.MAX_VALUE, 100).stream()
+                .filter(variant -> variant.getVariantId() == variantId)
+                .findFirst().orElseThrow()
+                .getAvailableQuantity();
+    }
+
+    // Rows as streamCatalogRows returns them: product columns, category, then the variant
+    private static Object[] row(Long productId, String productName, Long variantId, String size, int stock) {
+        return new Object[]{productId, productName, null, null, null, null, 1L, variantId, size, stock};
+    }
+
+    private static ProductVariantDetailDto detail(long variantId, String size, int stock) {
+        long productId = variantId <= RING_MEDIUM ? RING : BANGLE;
+        return new ProductVariantDetailDto(variantId, size, stock, productId, productId == RING ? "Signet Ring" : "Pearl Bangle", null, null);
+    }
+}
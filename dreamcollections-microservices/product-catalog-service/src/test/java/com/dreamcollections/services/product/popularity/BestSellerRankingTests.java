@@ -0,0 +1,87 @@
+package com.dreamcollections.services.product.popularity;
+
+import com.dreamcollections.services.product.repository.ProductPopularityRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Scores decay with the half-life as if every stored value were aged continuously, and a rebase to a new epoch
+// keeps the ranking while dropping products whose sales have decayed to nothing.
+class BestSellerRankingTests {
+
+    private static final long RING = 100L;
+    private static final long BANGLE = 200L;
+    private static final long CHARM = 300L;
+    // Each product has one variant, numbered after it
+    private static final Map<Long, Long> PRODUCT_BY_VARIANT = Map.of(1L, RING, 2L, BANGLE, 3L, CHARM);
+
+    private final ProductVariantRepository productVariantRepository = mock(ProductVariantRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(productVariantRepository.findProductIdsByIdIn(any())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Long variantId : invocation.<Collection<Long>>getArgument(0)) {
+                rows.add(new Object[]{variantId, PRODUCT_BY_VARIANT.get(variantId)});
+            }
+            return rows;
+        });
+    }
+
+    @Test
+    void olderSalesCountForLess() {
+        BestSellerRanking ranking = ranking(Duration.ofDays(7));
+        Instant now = Instant.now();
+
+        ranking.recordUnitsSold(Map.of(1L, 8), now.minus(Duration.ofDays(7)));
+        ranking.recordUnitsSold(Map.of(2L, 6), now);
+        ranking.recordUnitsSold(Map.of(3L, 20), now.minus(Duration.ofDays(21)));
+
+        // One half-life ago counts half, three count an eighth
+        assertThat(ranking.getScore(RING)).isCloseTo(4.0, within(0.01));
+        assertThat(ranking.getScore(BANGLE)).isCloseTo(6.0, within(0.01));
+        assertThat(ranking.getScore(CHARM)).isCloseTo(2.5, within(0.01));
+        assertThat(ranking.sortByPopularity(List.of(RING, BANGLE, CHARM, 999L))).containsExactly(BANGLE, RING, CHARM, 999L);
+
+        // Returns lower the score, and never below zero
+        ranking.recordUnitsSold(Map.of(2L, -4), now);
+        assertThat(ranking.getScore(BANGLE)).isCloseTo(2.0, within(0.01));
+        ranking.recordUnitsSold(Map.of(2L, -10), now);
+        assertThat(ranking.getScore(BANGLE)).isZero();
+    }
+
+    @Test
+    void rebaseKeepsTheOrderAndDropsDecayedScores() throws InterruptedException {
+        // A short half-life, so the 40 half-lives after which stored scores are rebased pass within the test
+        BestSellerRanking ranking = ranking(Duration.ofMillis(10));
+        ranking.recordUnitsSold(Map.of(1L, 1_000), Instant.now());
+        Thread.sleep(500);
+
+        ranking.recordUnitsSold(Map.of(2L, 8, 3L, 2), Instant.now());
+
+        // 1000 units 50 half-lives ago fall far below the cut-off and are dropped by the rebase
+        assertThat(ranking.getScore(RING)).isZero();
+        // Both were scaled by the same factor, whatever has decayed since
+        assertThat(ranking.getScore(BANGLE) / ranking.getScore(CHARM)).isCloseTo(4.0, within(1e-9));
+        assertThat(ranking.sortByPopularity(List.of(RING, CHARM, BANGLE))).containsExactly(BANGLE, CHARM, RING);
+    }
+
+    private BestSellerRanking ranking(Duration halfLife) {
+        return new BestSellerRanking(productVariantRepository, mock(ProductPopularityRepository.class),
+                mock(PlatformTransactionManager.class), halfLife);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dreamcollections.services.product.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The primitive score map must behave like a HashMap<Long, Double> through growth and deletions
+class LongDoubleHashMapTests {
+
+    @Test
+    void matchesHashMapUnderRandomUpdatesAndRemovals() {
+        Random random = new Random(7);
+        LongDoubleHashMap map = new LongDoubleHashMap(4);
+        Map<Long, Double> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.addTo(key, 1.5);
+                expected.merge(key, 1.5, Double::sum);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+            assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, 0.0));
+        }
+    }
+
+    @Test
+    void scaleAndPruneDropsSmallValues() {
+        LongDoubleHashMap map = new LongDoubleHashMap(16);
+        map.put(1, 100.0);
+        map.put(2, 0.5);
+        map.put(3, 8.0);
+
+        map.scaleAndPrune(0.25, 1.0);
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(1)).isEqualTo(25.0);
+        assertThat(map.get(2)).isZero();
+        assertThat(map.containsKey(2)).isFalse();
+        assertThat(map.get(3)).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Subtree resolution over an 8-level tree of 3280 categories: recursive CTE against the per-node walk, on H2.
+// Timing only, so not part of the normal run: mvn test -Dtest=CategorySubtreeBenchmark -Dbenchmark=true
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CategorySubtreeBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CategorySubtreeBenchmark.class);
+
+    private static final int LEVELS = 8;
+    private static final int CHILDREN = 3;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category root;
+    private int treeSize;
+
+    @BeforeEach
+    void setUp() {
+        root = entityManager.persist(new Category("Root", "Root"));
+        treeSize = 1 + CategorySubtreeQueryTests.persistChildren(entityManager, root, LEVELS - 1, CHILDREN);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void recursiveCteIsFasterThanPerNodeWalk() {
+        long cteNanos = medianNanos(() -> categoryRepository.findSubtreeIds(root.getId()));
+        long walkNanos = medianNanos(() -> {
+            List<Long> ids = new ArrayList<>();
+            CategorySubtreeQueryTests.collectRecursively(categoryRepository, root.getId(), ids);
+            return ids;
+        });
+        log.info("Subtree of {} categories over {} levels: recursive CTE {} us, per-node walk {} us (median of {})",
+                treeSize, LEVELS, cteNanos / 1_000, walkNanos / 1_000, ROUNDS);
+
+        assertThat(cteNanos).isLessThan(walkNanos);
+    }
+
+    private long medianNanos(Supplier<List<Long>> resolve) {
+        assertThat(resolve.get()).hasSize(treeSize); // Warm up
+        entityManager.clear();
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long started = System.nanoTime();
+            resolve.get();
+            nanos[i] = System.nanoTime() - started;
+            entityManager.clear();
+        }
+        Arrays.sort(nanos);
+        return nanos[ROUNDS / 2];
+    }
+}
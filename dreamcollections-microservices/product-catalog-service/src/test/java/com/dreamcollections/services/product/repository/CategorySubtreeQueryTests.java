@@ -0,0 +1,97 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.model.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Subtree resolution on a deep tree: the recursive CTE returns every descendant in one statement, where the
+// per-node findByParentCategoryId walk it replaced issues one statement per category.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CategorySubtreeQueryTests {
+
+    // 7 levels of 3 children each: 1093 categories
+    private static final int LEVELS = 7;
+    private static final int CHILDREN = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+    private Category root;
+    private int treeSize;
+
+    @BeforeEach
+    void setUp() {
+        root = entityManager.persist(new Category("Root", "Root"));
+        treeSize = 1 + persistChildren(entityManager, root, LEVELS - 1, CHILDREN);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void recursiveCteResolvesWholeSubtreeInOneStatement() {
+        List<Long> ids = categoryRepository.findSubtreeIds(root.getId());
+
+        assertThat(ids).hasSize(treeSize).doesNotHaveDuplicates().contains(root.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void perNodeWalkNeedsOneStatementPerCategory() {
+        List<Long> ids = new ArrayList<>();
+        collectRecursively(categoryRepository, root.getId(), ids);
+
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(categoryRepository.findSubtreeIds(root.getId()));
+        // The walk alone, without the CTE call used for comparison
+        assertThat(statistics.getPrepareStatementCount() - 1).isEqualTo(treeSize);
+    }
+
+    @Test
+    void unknownCategoryResolvesToNothing() {
+        assertThat(categoryRepository.findSubtreeIds(-1L)).isEmpty();
+    }
+
+    // Persists a full tree of the given depth under the parent; returns the number of categories added
+    static int persistChildren(TestEntityManager entityManager, Category parent, int depth, int children) {
+        if (depth == 0) {
+            return 0;
+        }
+        int added = 0;
+        for (int i = 0; i < children; i++) {
+            Category child = entityManager.persist(new Category(parent.getName() + "." + i, "Level " + depth, parent));
+            added += 1 + persistChildren(entityManager, child, depth - 1, children);
+        }
+        return added;
+    }
+
+    // The implementation findSubtreeIds replaced: one findByParentCategoryId query per node
+    static void collectRecursively(CategoryRepository categoryRepository, Long categoryId, List<Long> ids) {
+        ids.add(categoryId);
+        for (Category child : categoryRepository.findByParentCategoryId(categoryId)) {
+            collectRecursively(categoryRepository, child.getId(), ids);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.dto.ProductVariantDetailDto;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The projection behind GET /products/variants/{id}: the variant and the product fields it is shown with come back
+// from one joined statement, without loading either entity.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductVariantDetailQueryTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    private Statistics statistics;
+    private Long productId;
+    private Long mediumId;
+    private Long largeId;
+
+    @BeforeEach
+    void setUp() {
+        Category rings = entityManager.persist(new Category("Rings", "Rings"));
+        Product product = new Product("Signet Ring", "Plain", new BigDecimal("99.50"), rings, "ring.jpg", null);
+        ProductVariant medium = new ProductVariant(product, "M", 5);
+        ProductVariant large = new ProductVariant(product, "L", 0);
+        product.addVariant(medium);
+        product.addVariant(large);
+        productId = entityManager.persist(product).getId();
+        mediumId = medium.getId();
+        largeId = large.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void detailCarriesTheVariantAndItsProduct() {
+        ProductVariantDetailDto detail = productVariantRepository.findDetailsById(mediumId).orElseThrow();
+
+        assertThat(detail.getId()).isEqualTo(mediumId);
+        assertThat(detail.getSize()).isEqualTo("M");
+        assertThat(detail.getStockQuantity()).isEqualTo(5);
+        assertThat(detail.getProductId()).isEqualTo(productId);
+        assertThat(detail.getProductName()).isEqualTo("Signet Ring");
+        assertThat(detail.getProductPrice()).isEqualByComparingTo("99.50");
+        assertThat(detail.getProductImageUrl()).isEqualTo("ring.jpg");
+        // Holds and flash-sale counters live outside the database; the service fills this in
+        assertThat(detail.getAvailableQuantity()).isNull();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void unknownVariantIsEmpty() {
+        Optional<ProductVariantDetailDto> detail = productVariantRepository.findDetailsById(largeId + 1_000);
+
+        assertThat(detail).isEmpty();
+    }
+
+    @Test
+    void detailsForSeveralVariantsComeFromOneStatement() {
+        List<ProductVariantDetailDto> details = productVariantRepository.findDetailsByIdIn(List.of(mediumId, largeId, largeId + 1_000));
+
+        assertThat(details).extracting(ProductVariantDetailDto::getId).containsExactlyInAnyOrder(mediumId, largeId);
+        assertThat(details).extracting(ProductVariantDetailDto::getProductName).containsOnly("Signet Ring");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package com.dreamcollections.services.product.repository;
+
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The second-level cache is configured from ehcache.xml with the application's own settings; a warm product read
+// (entity, variants collection and variant entities) must be answered without touching the database, and a bulk
+// stock decrement must not leave stale variants behind. Hibernate never caches rows inserted by the reading
+// transaction, so the fixture is committed and each read gets its own.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Long productId;
+    private Long smallVariantId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        ProductVariant small = transaction.execute(status -> {
+            Category rings = categoryRepository.save(new Category("Rings", "Rings"));
+            Product product = new Product("Signet Ring", "Plain", new BigDecimal("99.00"), rings, "ring.jpg", null);
+            ProductVariant variant = new ProductVariant(product, "S", 5);
+            product.addVariant(variant);
+            product.addVariant(new ProductVariant(product, "M", 2));
+            productRepository.save(product);
+            return variant;
+        });
+        productId = small.getProduct().getId();
+        smallVariantId = small.getId();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            productRepository.deleteAll();
+            categoryRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void warmProductReadIsServedFromTheCache() {
+        // Cold: loaded from the database and put into the regions
+        assertThat(variantCount()).isEqualTo(2);
+        long coldStatements = statistics.getPrepareStatementCount();
+        assertThat(coldStatements).isPositive();
+        assertThat(statistics.getSecondLevelCachePutCount()).isPositive();
+
+        // Warm: a new persistence context finds everything in the cache
+        assertThat(variantCount()).isEqualTo(2);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(coldStatements);
+        assertThat(statistics.getDomainDataRegionStatistics("catalog.product").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("catalog.product.variants").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("catalog.variant").getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void bulkStockDecrementEvictsCachedVariants() {
+        assertThat(cachedStock()).isEqualTo(5);
+        assertThat(cachedStock()).isEqualTo(5);
+        assertThat(statistics.getDomainDataRegionStatistics("catalog.variant").getHitCount()).isEqualTo(1);
+
+        // A JPQL UPDATE bypasses the entities, so Hibernate must drop the region rather than serve the old stock
+        int rows = transaction.execute(status -> productVariantRepository.decrementStockIfAvailable(smallVariantId, 2, 0));
+        assertThat(rows).isEqualTo(1);
+
+        assertThat(cachedStock()).isEqualTo(3);
+        assertThat(statistics.getDomainDataRegionStatistics("catalog.variant").getHitCount()).isEqualTo(1);
+    }
+
+    private int cachedStock() {
+        return transaction.execute(status -> productVariantRepository.findById(smallVariantId).orElseThrow().getStockQuantity());
+    }
+
+    private int variantCount() {
+        return transaction.execute(status -> productRepository.findById(productId).orElseThrow().getVariants().size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.dreamcollections.services.product.reservation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lifecycle of a hold: placed only if every line fits next to the existing holds, dropped on release or expiry,
+// and kept through its TTL while being confirmed.
+class StockReservationStoreTests {
+
+    private static final long RING = 1L;
+    private static final long BANGLE = 2L;
+    private static final Duration LONG_TTL = Duration.ofMinutes(15);
+
+    private StockReservationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new StockReservationStore(event -> { });
+        store.startSweeper();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.stopSweeper();
+    }
+
+    @Test
+    void reserveHoldsEveryLineOrNone() {
+        Map<Long, Integer> stock = Map.of(RING, 5, BANGLE, 2);
+        assertThat(store.reserve(lines(RING, 3), stock, LONG_TTL)).isPresent();
+
+        // The ring line still fits, the bangle line does not: nothing is held
+        assertThat(store.reserve(lines(RING, 2, BANGLE, 3), stock, LONG_TTL)).isEmpty();
+        assertThat(store.heldQuantity(RING)).isEqualTo(3);
+        assertThat(store.heldQuantity(BANGLE)).isZero();
+
+        // Only 2 rings are left next to the first hold
+        assertThat(store.reserve(lines(RING, 3), stock, LONG_TTL)).isEmpty();
+        assertThat(store.reserve(lines(RING, 2), stock, LONG_TTL)).isPresent();
+        assertThat(store.heldQuantity(RING)).isEqualTo(5);
+        assertThat(store.activeReservationCount()).isEqualTo(2);
+    }
+
+    @Test
+    void releaseDropsTheHoldsOnce() {
+        StockReservation reservation = store.reserve(lines(RING, 3), Map.of(RING, 5), LONG_TTL).orElseThrow();
+
+        assertThat(store.release(reservation.getId())).isTrue();
+        assertThat(store.release(reservation.getId())).isFalse();
+        assertThat(store.heldQuantity(RING)).isZero();
+    }
+
+    @Test
+    void expiredHoldsAreReleased() throws InterruptedException {
+        store.reserve(lines(RING, 3), Map.of(RING, 5), Duration.ofMillis(50)).orElseThrow();
+        store.reserve(lines(RING, 1), Map.of(RING, 5), LONG_TTL).orElseThrow();
+
+        awaitHeld(RING, 1);
+        assertThat(store.activeReservationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void confirmingReservationOutlivesItsTtlUntilCompleted() throws InterruptedException {
+        StockReservation confirming = store.reserve(lines(RING, 3), Map.of(RING, 5), Duration.ofMillis(50)).orElseThrow();
+        store.reserve(lines(RING, 1), Map.of(RING, 5), Duration.ofMillis(50)).orElseThrow();
+        assertThat(store.beginConfirm(confirming.getId())).isPresent();
+        // Its own holds no longer count against it, only the other shopper's
+        assertThat(store.heldQuantityExcludingConfirming(RING)).isEqualTo(1);
+
+        awaitHeld(RING, 3);
+        // Past its TTL, but being confirmed: neither the sweeper nor a release may drop it
+        assertThat(store.release(confirming.getId())).isFalse();
+        assertThat(store.beginConfirm(confirming.getId())).isEmpty();
+        assertThat(store.heldQuantityExcludingConfirming(RING)).isZero();
+
+        store.complete(confirming.getId());
+        assertThat(store.heldQuantity(RING)).isZero();
+        assertThat(store.activeReservationCount()).isZero();
+    }
+
+    private void awaitHeld(long variantId, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (store.heldQuantity(variantId) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(store.heldQuantity(variantId)).isEqualTo(expected);
+    }
+
+    private static SortedMap<Long, Integer> lines(long variantId, int quantity) {
+        return new TreeMap<>(Map.of(variantId, quantity));
+    }
+
+    private static SortedMap<Long, Integer> lines(long variantId, int quantity, long otherVariantId, int otherQuantity) {
+        return new TreeMap<>(Map.of(variantId, quantity, otherVariantId, otherQuantity));
+    }
+}
@@ -0,0 +1,98 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.CursorPageDto;
+import com.dreamcollections.services.product.dto.ProductFilterCriteria;
+import com.dreamcollections.services.product.dto.ProductListingField;
+import com.dreamcollections.services.product.dto.ProductSummaryDto;
+import com.dreamcollections.services.product.index.ProductSearchIndex;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A search with more hits than are bound beside the other filters (two here) matches what a narrow one would: the
+// index's hits, descriptions included, not a LIKE on the name. "gold" is in no ring's name.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "catalog.search.max-hits-in-filter=2"
+})
+@Import(ProductServiceTestConfiguration.class)
+class BroadSearchFilterTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private ProductFilterCriteria goldRings;
+
+    @BeforeEach
+    void setUp() {
+        Category rings = entityManager.persist(new Category("Rings", "Rings"));
+        Category necklaces = entityManager.persist(new Category("Necklaces", "Necklaces"));
+        persist("Signet Ring", "Solid gold band", "120.00", rings);
+        persist("Stacking Ring", "Gold plated", "40.00", rings);
+        persist("Eternity Ring", "Gold and diamonds", "900.00", rings);
+        persist("Twist Ring", "Sterling silver", "35.00", rings);
+        persist("Midi Ring", "Rose gold vermeil", "60.00", rings);
+        persist("Gold Chain", "Curb links", "200.00", necklaces);
+        entityManager.flush();
+        entityManager.clear();
+        // Rows persisted here publish no change events, so the search index is built over them explicitly
+        productSearchIndex.rebuild();
+
+        goldRings = new ProductFilterCriteria(rings.getId(), "gold", null, null, null);
+        assertThat(productSearchIndex.search("gold")).hasSize(5);
+    }
+
+    @Test
+    void pagesKeepTheRequestedOrderAndTotal() {
+        Page<ProductSummaryDto> first = productService.filterProducts(goldRings,
+                PageRequest.of(0, 3, Sort.by("price").descending()), EnumSet.noneOf(ProductListingField.class));
+        Page<ProductSummaryDto> second = productService.filterProducts(goldRings,
+                PageRequest.of(1, 3, Sort.by("price").descending()), EnumSet.noneOf(ProductListingField.class));
+
+        assertThat(first.getContent()).extracting(ProductSummaryDto::getName)
+                .containsExactly("Eternity Ring", "Signet Ring", "Midi Ring");
+        assertThat(second.getContent()).extracting(ProductSummaryDto::getName).containsExactly("Stacking Ring");
+        assertThat(first.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    void scrollingSkipsProductsThatAreNotHits() {
+        CursorPageDto<ProductSummaryDto> first = scroll(null);
+        assertThat(first.getContent()).extracting(ProductSummaryDto::getName).containsExactly("Eternity Ring", "Midi Ring");
+        assertThat(first.isHasNext()).isTrue();
+
+        CursorPageDto<ProductSummaryDto> second = scroll(first.getNextCursor());
+        assertThat(second.getContent()).extracting(ProductSummaryDto::getName).containsExactly("Signet Ring", "Stacking Ring");
+        // Twist Ring follows in name order but is not a hit, so there is no next page to promise
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private CursorPageDto<ProductSummaryDto> scroll(String cursor) {
+        return productService.scrollProducts(goldRings, cursor, 2, EnumSet.noneOf(ProductListingField.class));
+    }
+
+    private void persist(String name, String description, String price, Category category) {
+        entityManager.persist(new Product(name, description, new BigDecimal(price), category, null, null));
+    }
+}
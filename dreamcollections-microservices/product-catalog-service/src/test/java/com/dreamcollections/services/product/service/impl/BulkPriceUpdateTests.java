@@ -0,0 +1,121 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.BulkPriceUpdateRequestDto;
+import com.dreamcollections.services.product.dto.BulkPriceUpdateResultDto;
+import com.dreamcollections.services.product.dto.PriceLineDto;
+import com.dreamcollections.services.product.exception.BadRequestException;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.service.ProductPriceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Bulk repricing without entity loads: explicit prices by JDBC batch, percentage rules by one UPDATE over the
+// category subtree, rounded to cents and never below 0.01.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ProductServiceTestConfiguration.class, ProductPriceServiceImpl.class})
+class BulkPriceUpdateTests {
+
+    private static final long UNKNOWN_PRODUCT_ID = 999_999L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductPriceService productPriceService;
+
+    private Long jewelleryId;
+    private Long ringId;
+    private Long charmId;
+    private Long pendantId;
+    private Long watchId;
+
+    @BeforeEach
+    void setUp() {
+        Category jewellery = entityManager.persist(new Category("Jewellery", "All jewellery"));
+        Category pendants = new Category("Pendants", "Pendants");
+        jewellery.addSubCategory(pendants);
+        entityManager.persist(pendants);
+        Category watches = entityManager.persist(new Category("Watches", "Watches"));
+
+        jewelleryId = jewellery.getId();
+        ringId = persistProduct("Signet Ring", "19.99", jewellery);
+        charmId = persistProduct("Tiny Charm", "0.40", jewellery);
+        pendantId = persistProduct("Pearl Pendant", "120.00", pendants);
+        watchId = persistProduct("Field Watch", "250.00", watches);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void explicitPricesAreRoundedAndUnknownIdsReported() {
+        BulkPriceUpdateResultDto result = productPriceService.updatePrices(new BulkPriceUpdateRequestDto(List.of(
+                new PriceLineDto(ringId, new BigDecimal("24.995")),
+                new PriceLineDto(UNKNOWN_PRODUCT_ID, new BigDecimal("10.00")),
+                new PriceLineDto(watchId, new BigDecimal("199"))), null, null));
+
+        assertThat(result.getUpdatedCount()).isEqualTo(2);
+        assertThat(result.getNotFoundProductIds()).containsExactly(UNKNOWN_PRODUCT_ID);
+        assertThat(price(ringId)).isEqualByComparingTo("25.00");
+        assertThat(price(watchId)).isEqualByComparingTo("199.00");
+        assertThat(price(pendantId)).isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void productListedTwiceIsRejected() {
+        BulkPriceUpdateRequestDto request = new BulkPriceUpdateRequestDto(List.of(
+                new PriceLineDto(ringId, new BigDecimal("10.00")),
+                new PriceLineDto(ringId, new BigDecimal("12.00"))), null, null);
+
+        assertThatThrownBy(() -> productPriceService.updatePrices(request)).isInstanceOf(BadRequestException.class);
+        assertThat(price(ringId)).isEqualByComparingTo("19.99");
+    }
+
+    @Test
+    void percentageRepricesTheSubtreeRoundedAndFloored() {
+        BulkPriceUpdateResultDto result = productPriceService.updatePrices(
+                new BulkPriceUpdateRequestDto(null, jewelleryId, new BigDecimal("-15")));
+
+        assertThat(result.getUpdatedCount()).isEqualTo(3);
+        assertThat(price(ringId)).isEqualByComparingTo("16.99"); // 16.9915
+        assertThat(price(pendantId)).isEqualByComparingTo("102.00");
+        assertThat(price(charmId)).isEqualByComparingTo("0.34");
+        assertThat(price(watchId)).isEqualByComparingTo("250.00");
+
+        productPriceService.updatePrices(new BulkPriceUpdateRequestDto(null, jewelleryId, new BigDecimal("-99")));
+        assertThat(price(charmId)).isEqualByComparingTo("0.01"); // 0.0034 rounds to zero
+    }
+
+    @Test
+    void percentageOverflowingThePriceColumnIsRejected() {
+        Long tiaraId = persistProduct("Crown Tiara", "9999999.00", entityManager.find(Category.class, jewelleryId));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> productPriceService.updatePrices(
+                new BulkPriceUpdateRequestDto(null, jewelleryId, new BigDecimal("1000"))))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(price(tiaraId)).isEqualByComparingTo("9999999.00");
+        assertThat(price(ringId)).isEqualByComparingTo("19.99");
+    }
+
+    private Long persistProduct(String name, String price, Category category) {
+        return entityManager.persist(new Product(name, name, new BigDecimal(price), category, "item.jpg", null)).getId();
+    }
+
+    private BigDecimal price(Long productId) {
+        entityManager.clear();
+        return entityManager.find(Product.class, productId).getPrice();
+    }
+}
@@ -0,0 +1,133 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.ProductFilterCriteria;
+import com.dreamcollections.services.product.dto.ProductListingField;
+import com.dreamcollections.services.product.dto.ProductSummaryDto;
+import com.dreamcollections.services.product.index.ProductSearchIndex;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import com.dreamcollections.services.product.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards the two-phase listing path against N+1 regressions: a page of products with categories and
+// variants must load in a bounded number of statements regardless of page size.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ProductServiceTestConfiguration.class)
+class ProductListingQueryCountTests {
+
+    // ID page + count + fetch-join hydration
+    private static final long MAX_LISTING_STATEMENTS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private Statistics statistics;
+    private Category rings;
+
+    @BeforeEach
+    void setUp() {
+        Category jewellery = entityManager.persist(new Category("Jewellery", "All jewellery"));
+        rings = entityManager.persist(new Category("Rings", "Rings", jewellery));
+        Category necklaces = entityManager.persist(new Category("Necklaces", "Necklaces", jewellery));
+
+        for (int i = 0; i < 20; i++) {
+            Category category = i % 2 == 0 ? rings : necklaces;
+            Product product = new Product("Product " + i, "Description " + i, new BigDecimal("10.00").add(BigDecimal.valueOf(i)),
+                    category, "image-" + i + ".jpg", null);
+            product.addVariant(new ProductVariant(product, "S", 5));
+            product.addVariant(new ProductVariant(product, "M", 0));
+            product.addVariant(new ProductVariant(product, "L", 3));
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Rows persisted here publish no change events, so the search index is built over them explicitly
+        productSearchIndex.rebuild();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllProductsLoadsPageInBoundedQueries() {
+        Page<ProductSummaryDto> page = productService.getAllProducts(PageRequest.of(0, 10, Sort.by("name")), Set.of());
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getContent()).allSatisfy(dto -> {
+            assertThat(dto.getCategory()).isNotNull();
+            assertThat(dto.getVariants()).hasSize(3);
+            assertThat(dto.getDescription()).isNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_LISTING_STATEMENTS);
+    }
+
+    @Test
+    void requestedDescriptionsAreLoadedForThePageInOneQuery() {
+        Page<ProductSummaryDto> page = productService.getAllProducts(PageRequest.of(0, 10, Sort.by("name")),
+                EnumSet.of(ProductListingField.DESCRIPTION));
+
+        assertThat(page.getContent()).allSatisfy(dto ->
+                assertThat(dto.getDescription()).isEqualTo("Description " + dto.getName().substring("Product ".length())));
+        // Listing statements + one query for the page's descriptions, not one per product
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_LISTING_STATEMENTS + 1);
+    }
+
+    @Test
+    void getProductsByCategoryIdLoadsPageInBoundedQueries() {
+        Page<ProductSummaryDto> page = productService.getProductsByCategoryId(rings.getId(), PageRequest.of(0, 10, Sort.by("name")), Set.of());
+
+        assertThat(page.getContent()).hasSize(10);
+        // existsById check + listing statements
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_LISTING_STATEMENTS + 1);
+    }
+
+    @Test
+    void searchProductsByNameLoadsPageInBoundedQueries() {
+        Page<ProductSummaryDto> page = productService.searchProductsByName("product 1", PageRequest.of(0, 10, Sort.by("name")), Set.of());
+
+        assertThat(page.getContent()).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_LISTING_STATEMENTS);
+    }
+
+    @Test
+    void filteredSearchIntersectsIndexHitsInOneIdQuery() {
+        // "description" only appears in descriptions, so a LIKE on the name would find nothing
+        ProductFilterCriteria criteria = new ProductFilterCriteria(rings.getId(), "description 1", null, null, null);
+        Page<ProductSummaryDto> page = productService.filterProducts(criteria, PageRequest.of(0, 10, Sort.by("name")), Set.of());
+
+        assertThat(page.getContent()).extracting(ProductSummaryDto::getName)
+                .containsExactly("Product 10", "Product 12", "Product 14", "Product 16", "Product 18");
+        // Subtree lookup + listing statements
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_LISTING_STATEMENTS + 1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.CursorPageDto;
+import com.dreamcollections.services.product.dto.ProductFilterCriteria;
+import com.dreamcollections.services.product.dto.ProductListingField;
+import com.dreamcollections.services.product.dto.ProductSummaryDto;
+import com.dreamcollections.services.product.exception.BadRequestException;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Keyset scrolling through /products/scroll: the opaque cursor round-trips names with ties, separators and non-ASCII
+// characters without skipping or repeating a product, and a cursor that does not decode is a 400, not a 500.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ProductServiceTestConfiguration.class)
+class ProductScrollCursorTests {
+
+    private static final ProductFilterCriteria ALL = new ProductFilterCriteria(null, null, null, null, null);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductService productService;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Category rings = entityManager.persist(new Category("Rings", "Rings"));
+        for (String name : List.of("Signet Ring", "Signet Ring", "Signet Ring", "Band: 18k gold", "Ærø Charm", "Anklet", "Zircon Hoop")) {
+            productIds.add(entityManager.persist(new Product(name, name, new BigDecimal("49.00"), rings, null, null)).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cursorsWalkEveryProductExactlyOnce() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDto<ProductSummaryDto> page = scroll(cursor);
+            page.getContent().forEach(product -> seen.add(product.getId()));
+            assertThat(page.isHasNext()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        // Page boundaries fall inside the run of equal names; the ID in the cursor breaks the tie
+        assertThat(seen).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(productIds);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void cursorIsOpaqueUrlSafeText() {
+        String cursor = scroll(null).getNextCursor();
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        // Resuming from the same cursor twice gives the same page
+        assertThat(scroll(cursor).getContent()).extracting(ProductSummaryDto::getId)
+                .containsExactlyElementsOf(scroll(cursor).getContent().stream().map(ProductSummaryDto::getId).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not a cursor!", "MTIz+/==", "A"})
+    void cursorThatIsNotBase64IsRejected(String cursor) {
+        assertThatThrownBy(() -> scroll(cursor)).isInstanceOf(BadRequestException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345", "abc:Signet Ring", ":Signet Ring", "99999999999999999999:Ring"})
+    void cursorWithATamperedKeyIsRejected(String raw) {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> scroll(cursor)).isInstanceOf(BadRequestException.class);
+    }
+
+    private CursorPageDto<ProductSummaryDto> scroll(String cursor) {
+        return productService.scrollProducts(ALL, cursor, 2, EnumSet.noneOf(ProductListingField.class));
+    }
+}
@@ -0,0 +1,21 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.cache.CategoryProductCounts;
+import com.dreamcollections.services.product.cache.CategoryTreeCache;
+import com.dreamcollections.services.product.flashsale.FlashSaleStockCounters;
+import com.dreamcollections.services.product.index.ProductFacetIndex;
+import com.dreamcollections.services.product.index.ProductSearchIndex;
+import com.dreamcollections.services.product.index.ProductSuggestIndex;
+import com.dreamcollections.services.product.popularity.BestSellerRanking;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+// ProductServiceImpl and the in-memory collaborators it is wired with, for @DataJpaTest slices. Tests import this
+// instead of listing the beans, so a new collaborator is added here once.
+@TestConfiguration
+@Import({ProductServiceImpl.class, CategoryServiceImpl.class, CategoryTreeCache.class, CategoryProductCounts.class,
+        ProductSearchIndex.class, ProductFacetIndex.class, ProductSuggestIndex.class, StockReservationStore.class,
+        FlashSaleStockCounters.class, BestSellerRanking.class})
+class ProductServiceTestConfiguration {
+}
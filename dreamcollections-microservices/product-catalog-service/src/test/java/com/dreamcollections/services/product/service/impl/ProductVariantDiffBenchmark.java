@@ -0,0 +1,114 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.ProductRequestDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import com.dreamcollections.services.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A description edit of a product with 200 sizes: the variant diff against clearing and re-inserting every variant
+// (what updateProduct used to do), on H2.
+// Timing only, so not part of the normal run: mvn test -Dtest=ProductVariantDiffBenchmark -Dbenchmark=true
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ProductServiceTestConfiguration.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductVariantDiffBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductVariantDiffBenchmark.class);
+
+    private static final int SIZES = 200;
+    private static final int ROUNDS = 9;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductService productService;
+
+    private Long productId;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        Category rings = entityManager.persist(new Category("Rings", "Rings"));
+        Product product = new Product("Signet Ring", "Plain", new BigDecimal("99.00"), rings, "ring.jpg", null);
+        for (int i = 0; i < SIZES; i++) {
+            product.addVariant(new ProductVariant(product, "EU-" + (40 + i), 10));
+        }
+        productId = entityManager.persist(product).getId();
+        categoryId = rings.getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void diffIsFasterThanReplacingEveryVariant() {
+        long diffNanos = medianNanos(round -> productService.updateProduct(productId, request("Edit " + round)));
+        long replaceNanos = medianNanos(round -> {
+            Product product = entityManager.find(Product.class, productId);
+            product.setDescription("Edit " + round);
+            product.getVariants().clear();
+            entityManager.flush(); // Orphan deletes first, so the re-inserted sizes do not collide
+            for (int i = 0; i < SIZES; i++) {
+                product.addVariant(new ProductVariant(product, "EU-" + (40 + i), 10));
+            }
+        });
+        log.info("Description edit of a product with {} variants: diff {} us, clear and re-insert {} us (median of {})",
+                SIZES, diffNanos / 1_000, replaceNanos / 1_000, ROUNDS);
+
+        assertThat(entityManager.find(Product.class, productId).getVariants()).hasSize(SIZES);
+        assertThat(diffNanos).isLessThan(replaceNanos);
+    }
+
+    // Each round ends with its flush, so the SQL it causes is part of its time
+    private long medianNanos(IntConsumer edit) {
+        edit.accept(-1); // Warm up
+        entityManager.flush();
+        entityManager.clear();
+        long[] nanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long started = System.nanoTime();
+            edit.accept(i);
+            entityManager.flush();
+            nanos[i] = System.nanoTime() - started;
+            entityManager.clear();
+        }
+        Arrays.sort(nanos);
+        return nanos[ROUNDS / 2];
+    }
+
+    private ProductRequestDto request(String description) {
+        ProductRequestDto request = new ProductRequestDto();
+        request.setName("Signet Ring");
+        request.setDescription(description);
+        request.setPrice(new BigDecimal("99.00"));
+        request.setImageUrl("ring.jpg");
+        request.setCategoryId(categoryId);
+        List<ProductVariantDto> variants = new ArrayList<>();
+        for (int i = 0; i < SIZES; i++) {
+            variants.add(new ProductVariantDto(null, "EU-" + (40 + i), 10));
+        }
+        request.setVariants(variants);
+        return request;
+    }
+}
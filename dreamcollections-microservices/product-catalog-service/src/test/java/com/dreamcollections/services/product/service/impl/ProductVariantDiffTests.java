@@ -0,0 +1,130 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.ProductRequestDto;
+import com.dreamcollections.services.product.dto.ProductVariantDto;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import com.dreamcollections.services.product.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Editing a product with dozens of sizes must only write the variant rows that actually changed,
+// and unchanged variants must keep their IDs (carts and orders reference them).
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ProductServiceTestConfiguration.class)
+class ProductVariantDiffTests {
+
+    private static final int SIZES = 48;
+    private static final long MAX_EDIT_STATEMENTS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    private Statistics statistics;
+    private Long productId;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        Category rings = entityManager.persist(new Category("Rings", "Rings"));
+        Product product = new Product("Signet Ring", "Plain", new BigDecimal("99.00"), rings, "ring.jpg", null);
+        for (int i = 0; i < SIZES; i++) {
+            product.addVariant(new ProductVariant(product, "EU-" + (40 + i), 10));
+        }
+        productId = entityManager.persist(product).getId();
+        categoryId = rings.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void descriptionEditWritesNoVariantRows() {
+        Map<String, Long> idsBefore = variantIdsBySize();
+        ProductRequestDto request = requestMatchingCurrentVariants("Now engraved");
+
+        statistics.clear();
+        productService.updateProduct(productId, request);
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1); // the product row only
+        entityManager.clear();
+        assertThat(variantIdsBySize()).isEqualTo(idsBefore);
+        // Product, category, variant collection, lazy description and the product UPDATE at most (some may be
+        // second-level cache hits); nothing scales with the number of sizes
+        assertThat(statements).isLessThanOrEqualTo(MAX_EDIT_STATEMENTS);
+    }
+
+    @Test
+    void variantChangesTouchOnlyAffectedRows() {
+        Map<String, Long> idsBefore = variantIdsBySize();
+        ProductRequestDto request = requestMatchingCurrentVariants("Plain");
+        List<ProductVariantDto> variants = request.getVariants();
+        variants.get(0).setStockQuantity(3);                           // update one
+        variants.remove(variants.size() - 1);                          // delete one
+        variants.add(new ProductVariantDto(null, "EU-99", 1));         // insert one
+
+        statistics.clear();
+        productService.updateProduct(productId, request);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        entityManager.clear();
+        Map<String, Long> idsAfter = variantIdsBySize();
+        assertThat(idsAfter).hasSize(SIZES);
+        assertThat(idsAfter.get("EU-40")).isEqualTo(idsBefore.get("EU-40"));
+        assertThat(idsAfter).doesNotContainKey("EU-" + (40 + SIZES - 1));
+    }
+
+    private ProductRequestDto requestMatchingCurrentVariants(String description) {
+        ProductRequestDto request = new ProductRequestDto();
+        request.setName("Signet Ring");
+        request.setDescription(description);
+        request.setPrice(new BigDecimal("99.00"));
+        request.setImageUrl("ring.jpg");
+        request.setCategoryId(categoryId);
+        List<ProductVariantDto> variants = new ArrayList<>();
+        for (int i = 0; i < SIZES; i++) {
+            // No IDs: variants are matched by size, as a plain admin form would submit them
+            variants.add(new ProductVariantDto(null, "EU-" + (40 + i), 10));
+        }
+        request.setVariants(variants);
+        return request;
+    }
+
+    private Map<String, Long> variantIdsBySize() {
+        return entityManager.find(Product.class, productId).getVariants().stream()
+                .collect(Collectors.toMap(ProductVariant::getSize, ProductVariant::getId));
+    }
+}
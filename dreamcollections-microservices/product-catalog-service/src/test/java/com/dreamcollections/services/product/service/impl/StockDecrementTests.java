@@ -0,0 +1,188 @@
+package com.dreamcollections.services.product.service.impl;
+
+import com.dreamcollections.services.product.dto.StockDecrementResultDto;
+import com.dreamcollections.services.product.dto.StockLineDto;
+import com.dreamcollections.services.product.dto.StockLineResultDto;
+import com.dreamcollections.services.product.dto.StockReservationResultDto;
+import com.dreamcollections.services.product.model.Category;
+import com.dreamcollections.services.product.model.Product;
+import com.dreamcollections.services.product.model.ProductVariant;
+import com.dreamcollections.services.product.repository.CategoryRepository;
+import com.dreamcollections.services.product.repository.ProductRepository;
+import com.dreamcollections.services.product.repository.ProductVariantRepository;
+import com.dreamcollections.services.product.reservation.StockReservationStore;
+import com.dreamcollections.services.product.service.ProductService;
+import com.dreamcollections.services.product.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Batch stock decrements: all lines or none, with a report of every line, and never selling units held for other
+// shoppers; a confirmed reservation only competes with the holds of others. Runs against committed rows, so a
+// rejected batch is seen rolled back.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ProductServiceTestConfiguration.class, StockReservationServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockDecrementTests {
+
+    private static final int STOCK = 5;
+    private static final int SMALL_STOCK = 1;
+    private static final long UNKNOWN_VARIANT_ID = 999_999L;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationStore stockReservationStore;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    // The store is a context singleton, so holds are released after each test
+    private final List<String> reservationIds = new ArrayList<>();
+    private TransactionTemplate transaction;
+    private Long variantId;
+    private Long smallVariantId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Category rings = categoryRepository.save(new Category("Rings", "Rings"));
+            Product product = new Product("Signet Ring", "Plain", new BigDecimal("99.00"), rings, "ring.jpg", null);
+            ProductVariant variant = new ProductVariant(product, "M", STOCK);
+            ProductVariant smallVariant = new ProductVariant(product, "L", SMALL_STOCK);
+            product.addVariant(variant);
+            product.addVariant(smallVariant);
+            productRepository.save(product);
+            variantId = variant.getId();
+            smallVariantId = smallVariant.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationIds.forEach(stockReservationStore::release);
+        transaction.executeWithoutResult(status -> {
+            productRepository.deleteAll();
+            categoryRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void rejectedBatchRollsBackEveryLineAndReportsEach() {
+        StockDecrementResultDto result = productService.decrementStock(List.of(
+                new StockLineDto(UNKNOWN_VARIANT_ID, 1),
+                new StockLineDto(smallVariantId, 2),
+                new StockLineDto(variantId, 2)));
+
+        // 409 Conflict at the endpoint; every line is reported, in variant ID order
+        assertThat(result.isApplied()).isFalse();
+        assertThat(result.getLines()).extracting(StockLineResultDto::getVariantId)
+                .isSorted().containsExactlyInAnyOrder(variantId, smallVariantId, UNKNOWN_VARIANT_ID);
+        Map<Long, StockLineResultDto> lines = result.getLines().stream()
+                .collect(Collectors.toMap(StockLineResultDto::getVariantId, Function.identity()));
+        assertThat(lines.get(variantId).getStatus()).isEqualTo(StockLineResultDto.Status.NOT_APPLIED);
+        assertThat(lines.get(variantId).getAvailableStock()).isNull();
+        assertThat(lines.get(smallVariantId).getStatus()).isEqualTo(StockLineResultDto.Status.INSUFFICIENT_STOCK);
+        assertThat(lines.get(smallVariantId).getAvailableStock()).isEqualTo(SMALL_STOCK);
+        assertThat(lines.get(UNKNOWN_VARIANT_ID).getStatus()).isEqualTo(StockLineResultDto.Status.NOT_FOUND);
+        assertThat(lines.get(UNKNOWN_VARIANT_ID).getAvailableStock()).isNull();
+        // The line that fitted was decremented, then rolled back with the rest
+        assertThat(stock(variantId)).isEqualTo(STOCK);
+        assertThat(stock(smallVariantId)).isEqualTo(SMALL_STOCK);
+    }
+
+    @Test
+    void linesForTheSameVariantAreCheckedTogether() {
+        StockDecrementResultDto rejected = productService.decrementStock(List.of(new StockLineDto(variantId, 3), new StockLineDto(variantId, 3)));
+        assertThat(rejected.getLines()).singleElement().satisfies(line -> {
+            assertThat(line.getRequestedQuantity()).isEqualTo(6);
+            assertThat(line.getStatus()).isEqualTo(StockLineResultDto.Status.INSUFFICIENT_STOCK);
+        });
+
+        StockDecrementResultDto applied = productService.decrementStock(List.of(
+                new StockLineDto(variantId, 2), new StockLineDto(smallVariantId, 1), new StockLineDto(variantId, 3)));
+        assertThat(applied.isApplied()).isTrue();
+        assertThat(applied.getLines()).extracting(StockLineResultDto::getStatus).containsOnly(StockLineResultDto.Status.DECREMENTED);
+        assertThat(stock(variantId)).isZero();
+        assertThat(stock(smallVariantId)).isZero();
+    }
+
+    @Test
+    void directDecrementLeavesOtherShoppersHoldsAlone() {
+        reserve(3);
+
+        StockDecrementResultDto result = productService.decrementStock(List.of(new StockLineDto(variantId, 3)));
+
+        assertThat(result.isApplied()).isFalse();
+        assertThat(result.getLines()).singleElement().satisfies(line -> {
+            assertThat(line.getStatus()).isEqualTo(StockLineResultDto.Status.INSUFFICIENT_STOCK);
+            assertThat(line.getAvailableStock()).isEqualTo(STOCK - 3);
+        });
+        assertThat(stock(variantId)).isEqualTo(STOCK);
+    }
+
+    @Test
+    void directDecrementSellsStockNobodyHolds() {
+        reserve(3);
+
+        assertThat(productService.decrementStock(List.of(new StockLineDto(variantId, 2))).isApplied()).isTrue();
+        assertThat(stock(variantId)).isEqualTo(STOCK - 2);
+    }
+
+    @Test
+    void confirmedReservationOnlyCompetesWithOtherHolds() {
+        String ownReservation = reserve(3);
+        reserve(2);
+
+        // Every unit is held, three of them by the reservation being confirmed
+        assertThat(stockReservationService.confirmReservation(ownReservation).isApplied()).isTrue();
+        assertThat(stock(variantId)).isEqualTo(STOCK - 3);
+        assertThat(stockReservationStore.heldQuantity(variantId)).isEqualTo(2);
+
+        // The remaining units belong to the other shopper
+        assertThat(productService.decrementStock(List.of(new StockLineDto(variantId, 1))).isApplied()).isFalse();
+    }
+
+    private String reserve(int quantity) {
+        StockReservationResultDto result = stockReservationService.createReservation(List.of(new StockLineDto(variantId, quantity)), null);
+        assertThat(result.isReserved()).isTrue();
+        reservationIds.add(result.getReservationId());
+        return result.getReservationId();
+    }
+
+    private int stock(Long id) {
+        return transaction.execute(status -> productVariantRepository.findStockQuantityById(id).orElseThrow());
+    }
+}
@@ -22,6 +22,9 @@ apiClient.interceptors.request.use(
   error => Promise.reject(error)
 );
 
+// Listings leave the description out unless it is asked for; the product cards show it
+const LISTING_FIELDS = 'description';
+
 export const getProductsByCategoryId = async (categoryId, page = 0, size = 10, sort = 'name') => {
   try {
     const response = await apiClient.get(`/products/category/${categoryId}`, {
@@ -29,6 +32,7 @@ export const getProductsByCategoryId = async (categoryId, page = 0, size = 10, s
         page,
         size,
         sort,
+        fields: LISTING_FIELDS,
       },
     });
     return response.data;
@@ -55,6 +59,7 @@ export const getAllProducts = async (page = 0, size = 10, sort = 'name') => {
         page,
         size,
         sort,
+        fields: LISTING_FIELDS,
       },
     });
     return response.data;
@@ -71,6 +76,7 @@ export const searchProducts = async (searchTerm, page = 0, size = 10) => {
         name: searchTerm,
         page,
         size,
+        fields: LISTING_FIELDS,
       },
     });
     return response.data;
@@ -112,7 +118,8 @@ export const getProducts = async (params = {}) => {
     const queryParams = {
       page: params.page || 0,
       size: params.size || 10,
-      sort: params.sort || 'name'
+      sort: params.sort || 'name',
+      fields: LISTING_FIELDS
     };
 
     if (params.categoryId) queryParams.categoryId = params.categoryId;